@@ -0,0 +1,58 @@
+package com.promptcrafter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.service.impl.NdjsonPromptStreamer;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Command-line entry point that generates prompts from an NDJSON file without starting
+ * the web application.
+ * <p>
+ * Usage: {@code PromptCrafterCli [input.ndjson|-] [output.ndjson|-]}, where {@code -}
+ * or a missing argument means standard input or output. From the packaged jar:
+ * <pre>
+ * java -Dloader.main=com.promptcrafter.PromptCrafterCli \
+ *      -cp promptcrafter-0.0.1-SNAPSHOT-exec.jar org.springframework.boot.loader.launch.PropertiesLauncher \
+ *      requests.ndjson responses.ndjson
+ * </pre>
+ */
+public class PromptCrafterCli {
+
+    private static final int WINDOW_PER_THREAD = 16;
+
+    public static void main(String[] args) throws IOException {
+        String input = args.length > 0 ? args[0] : "-";
+        String output = args.length > 1 ? args[1] : "-";
+
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        NdjsonPromptStreamer streamer = new NdjsonPromptStreamer(new PromptServiceImpl(), executor,
+                parallelism * WINDOW_PER_THREAD, new InputLimitProperties().getMaxRequestSize().toBytes(), new ObjectMapper());
+
+        try (InputStream in = open(input); OutputStream out = create(output)) {
+            long count = streamer.process(in, out, false);
+            System.err.println("Processed " + count + " prompt requests");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static InputStream open(String path) throws IOException {
+        return new BufferedInputStream("-".equals(path) ? System.in : Files.newInputStream(Path.of(path)));
+    }
+
+    private static OutputStream create(String path) throws IOException {
+        return new BufferedOutputStream("-".equals(path) ? System.out : Files.newOutputStream(Path.of(path)));
+    }
+}
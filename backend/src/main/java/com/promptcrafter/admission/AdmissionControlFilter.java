@@ -0,0 +1,183 @@
+package com.promptcrafter.admission;
+
+import com.promptcrafter.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Guards the prompt generation endpoints, job submission and live sessions.
+ * <p>
+ * A request first has to take a token from its client's bucket, then one of a fixed number of
+ * processing permits. A request that cannot get a permit within the queue timeout is rejected
+ * immediately instead of waiting behind a growing backlog, which keeps latency for admitted
+ * requests bounded under overload. Rejections are answered with 429 and a {@code Retry-After}
+ * header, and counted in {@code promptcrafter.admission.rejected} by reason.
+ * <p>
+ * Event streams ({@code GET .../events}) stay open for as long as the client listens and do no
+ * generation of their own, so they only take a token and never hold a processing permit.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String METRIC_REJECTED = "promptcrafter.admission.rejected";
+    static final String METRIC_IN_FLIGHT = "promptcrafter.admission.in.flight";
+
+    private static final byte[] RATE_LIMITED_BODY =
+            "{\"error\":\"Rate limit exceeded\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY =
+            "{\"error\":\"Server is busy, retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final StripedTokenBuckets buckets;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long queueTimeoutNanos;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.buckets = properties.isRateLimitEnabled()
+                ? new StripedTokenBuckets(properties.getSlots(), properties.getRequestsPerSecond(), properties.getBurst())
+                : null;
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+        this.queueTimeoutNanos = properties.getQueueTimeout().toNanos();
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+        this.rateLimited = Counter.builder(METRIC_REJECTED)
+                .description("Generation requests rejected before processing")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.overloaded = Counter.builder(METRIC_REJECTED)
+                .description("Generation requests rejected before processing")
+                .tag("reason", "overload")
+                .register(meterRegistry);
+        if (permits != null) {
+            Gauge.builder(METRIC_IN_FLIGHT, permits, p -> maxConcurrent - p.availablePermits())
+                    .description("Generation requests being processed")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (buckets != null) {
+            long waitMillis = buckets.tryAcquire(clientKey(request));
+            if (waitMillis > 0) {
+                rateLimited.increment();
+                reject(response, waitMillis, RATE_LIMITED_BODY);
+                return;
+            }
+        }
+        if (permits == null || isEventStream(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!acquirePermit()) {
+            overloaded.increment();
+            reject(response, 1000, OVERLOADED_BODY);
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Reactive handlers finish after this thread returns; hold the permit until then
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private boolean acquirePermit() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isEventStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/events");
+    }
+
+    /**
+     * Gets the key a request is rate limited by: its API key if the key is a configured
+     * one, otherwise its remote address.
+     */
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (StringUtils.hasText(apiKey) && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterMillis, byte[] body) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
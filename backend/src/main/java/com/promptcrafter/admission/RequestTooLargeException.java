@@ -0,0 +1,17 @@
+package com.promptcrafter.admission;
+
+import java.io.IOException;
+
+/**
+ * Thrown while reading a request body, or a line of one, that exceeds the configured size limit.
+ */
+public class RequestTooLargeException extends IOException {
+
+    public RequestTooLargeException(long limit) {
+        super("Request body exceeds " + limit + " bytes");
+    }
+
+    public RequestTooLargeException(String message) {
+        super(message);
+    }
+}
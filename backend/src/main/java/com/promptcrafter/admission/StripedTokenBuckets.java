@@ -0,0 +1,95 @@
+package com.promptcrafter.admission;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-client token buckets kept in a fixed array of lock-free slots.
+ * <p>
+ * Clients are hashed into slots; each slot packs its bucket into one {@code long}:
+ * the time of the last update in milliseconds (high 42 bits) and the remaining tokens in
+ * thousandths (low 22 bits). An update is a single compare-and-set, so contended clients
+ * never block each other and memory use is fixed no matter how many clients appear.
+ * Clients that hash to the same slot share a budget, which only makes the limit stricter.
+ */
+public final class StripedTokenBuckets {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    /** Largest burst the packed representation can hold. */
+    public static final int MAX_BURST = (int) (TOKEN_MASK / MILLI);
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long capacity;
+    private final long refillPerMilli;
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param slots Number of slots, rounded up to a power of two
+     * @param requestsPerSecond Sustained rate per client
+     * @param burst Tokens a client may accumulate, at most {@link #MAX_BURST}
+     */
+    public StripedTokenBuckets(int slots, int requestsPerSecond, int burst) {
+        if (slots < 1 || slots > 1 << 24) {
+            throw new IllegalArgumentException("slots must be between 1 and " + (1 << 24));
+        }
+        if (requestsPerSecond < 1) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive");
+        }
+        if (burst < 1 || burst > MAX_BURST) {
+            throw new IllegalArgumentException("burst must be between 1 and " + MAX_BURST);
+        }
+        int size = Integer.highestOneBit(slots);
+        size = size < slots ? size << 1 : size;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = burst * MILLI;
+        // One token is MILLI units and refills every 1000 / requestsPerSecond ms
+        this.refillPerMilli = requestsPerSecond;
+    }
+
+    /**
+     * Takes one token from a client's bucket.
+     *
+     * @param clientKey The client identifier
+     * @return 0 if the request is allowed, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, nowMillis());
+    }
+
+    long tryAcquire(String clientKey, long nowMillis) {
+        int slot = spread(clientKey.hashCode()) & mask;
+        while (true) {
+            long state = slots.get(slot);
+            long tokens;
+            if (state == 0) {
+                tokens = capacity;
+            } else {
+                long elapsed = Math.max(0, nowMillis - (state >>> TOKEN_BITS));
+                tokens = Math.min(capacity, (state & TOKEN_MASK) + elapsed * refillPerMilli);
+            }
+            if (tokens < MILLI) {
+                return (MILLI - tokens + refillPerMilli - 1) / refillPerMilli;
+            }
+            long updated = (nowMillis << TOKEN_BITS) | (tokens - MILLI);
+            if (slots.compareAndSet(slot, state, updated)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Milliseconds since creation, starting at 1 so a used slot is never 0. */
+    long nowMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000 + 1;
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x45D9F3B;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,106 @@
+package com.promptcrafter.classifier;
+
+/**
+ * Extracts hashed word unigram and bigram features from text.
+ * <p>
+ * Words are runs of letters and digits, folded to lower case on the fly. Each word and each
+ * pair of adjacent words is hashed straight into a bucket of a fixed-size table, so
+ * feature extraction needs no vocabulary and allocates nothing.
+ */
+public final class HashedFeatures {
+
+    /**
+     * Receives the features of a text in order.
+     */
+    @FunctionalInterface
+    public interface FeatureListener {
+
+        /**
+         * Called for every feature.
+         *
+         * @param bucket The feature's bucket
+         * @param start The offset of the first character of the feature's (last) word
+         * @param end The offset just past the feature's last character
+         * @param unigram True for a single word, false for a word pair
+         */
+        void onFeature(int bucket, int start, int end, boolean unigram);
+    }
+
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BIGRAM_SEED = 0x9E3779B9;
+
+    private final int bucketBits;
+    private final int mask;
+
+    /**
+     * @param bucketBits Log2 of the number of buckets, between 1 and 24
+     */
+    public HashedFeatures(int bucketBits) {
+        if (bucketBits < 1 || bucketBits > 24) {
+            throw new IllegalArgumentException("bucketBits must be between 1 and 24");
+        }
+        this.bucketBits = bucketBits;
+        this.mask = (1 << bucketBits) - 1;
+    }
+
+    /**
+     * Gets the log2 of the number of buckets.
+     *
+     * @return The bucket bits
+     */
+    public int bucketBits() {
+        return bucketBits;
+    }
+
+    /**
+     * Gets the number of buckets.
+     *
+     * @return The bucket count
+     */
+    public int buckets() {
+        return mask + 1;
+    }
+
+    /**
+     * Reports the features of a text.
+     *
+     * @param text The text
+     * @param listener Receives the features
+     */
+    public void forEach(CharSequence text, FeatureListener listener) {
+        int length = text.length();
+        int previousHash = 0;
+        boolean hasPrevious = false;
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int hash = FNV_OFFSET;
+            while (i < length && Character.isLetterOrDigit(c = text.charAt(i))) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                i++;
+            }
+            listener.onFeature(mix(hash) & mask, start, i, true);
+            if (hasPrevious) {
+                listener.onFeature(mix(previousHash * 31 + (hash ^ BIGRAM_SEED)) & mask, start, i, false);
+            }
+            previousHash = hash;
+            hasPrevious = true;
+        }
+    }
+
+    /** MurmurHash3 finalizer, so the low bits used for bucketing depend on every input bit. */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
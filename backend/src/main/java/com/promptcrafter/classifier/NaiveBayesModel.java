@@ -0,0 +1,207 @@
+package com.promptcrafter.classifier;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multinomial naive Bayes model over {@link HashedFeatures}.
+ * <p>
+ * Weights are log probabilities kept in one flat {@code float[]} laid out bucket-major
+ * ({@code weights[bucket * classCount + label]}), so scoring a feature touches a single
+ * cache line.
+ * <p>
+ * File format (big-endian): magic {@code PCNB}, version, bucket bits, class count, each
+ * label as a length-prefixed UTF-8 string, the class log priors, then the weights.
+ */
+public final class NaiveBayesModel {
+
+    static final int MAGIC = 0x50434E42;
+    static final int VERSION = 1;
+
+    private final String[] labels;
+    private final float[] priors;
+    private final float[] weights;
+    private final HashedFeatures features;
+
+    NaiveBayesModel(String[] labels, float[] priors, float[] weights, int bucketBits) {
+        this.labels = labels;
+        this.priors = priors;
+        this.weights = weights;
+        this.features = new HashedFeatures(bucketBits);
+        if (priors.length != labels.length || weights.length != features.buckets() * labels.length) {
+            throw new IllegalArgumentException("Model arrays do not match " + labels.length + " labels");
+        }
+    }
+
+    /**
+     * Loads a model by memory-mapping its file.
+     *
+     * @param path The model file
+     * @return The model
+     * @throws IOException if the file cannot be read or is not a model
+     */
+    public static NaiveBayesModel load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a model from a stream, for models bundled as classpath resources.
+     *
+     * @param in The stream
+     * @return The model
+     * @throws IOException if the stream cannot be read or is not a model
+     */
+    public static NaiveBayesModel read(InputStream in) throws IOException {
+        return read(ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    private static NaiveBayesModel read(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a naive Bayes model");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported model version " + version);
+            }
+            int bucketBits = buffer.getInt();
+            int classCount = buffer.getInt();
+            String[] labels = new String[classCount];
+            for (int i = 0; i < classCount; i++) {
+                byte[] label = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(label);
+                labels[i] = new String(label, StandardCharsets.UTF_8);
+            }
+            float[] priors = new float[classCount];
+            float[] weights = new float[classCount << bucketBits];
+            // Bulk copies straight out of the mapped region
+            buffer.asFloatBuffer().get(priors).get(weights);
+            return new NaiveBayesModel(labels, priors, weights, bucketBits);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt naive Bayes model", e);
+        }
+    }
+
+    /**
+     * Writes the model in the format {@link #load} reads.
+     *
+     * @param out The stream to write to
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(features.bucketBits());
+        data.writeInt(labels.length);
+        for (String label : labels) {
+            byte[] bytes = label.getBytes(StandardCharsets.UTF_8);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+        for (float prior : priors) {
+            data.writeFloat(prior);
+        }
+        for (float weight : weights) {
+            data.writeFloat(weight);
+        }
+        data.flush();
+    }
+
+    /**
+     * Scores a text against every class.
+     *
+     * @param text The text
+     * @param scores Receives the unnormalized log probability of each class; length {@link #classCount()}
+     * @return The index of the most likely class
+     */
+    public int score(CharSequence text, double[] scores) {
+        int classCount = labels.length;
+        for (int c = 0; c < classCount; c++) {
+            scores[c] = priors[c];
+        }
+        features.forEach(text, (bucket, start, end, unigram) -> {
+            int offset = bucket * classCount;
+            for (int c = 0; c < classCount; c++) {
+                scores[c] += weights[offset + c];
+            }
+        });
+        int best = 0;
+        for (int c = 1; c < classCount; c++) {
+            if (scores[c] > scores[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the weight of a feature bucket for a class.
+     *
+     * @param bucket The feature bucket
+     * @param label The class index
+     * @return The log probability of the feature given the class
+     */
+    public float weight(int bucket, int label) {
+        return weights[bucket * labels.length + label];
+    }
+
+    /**
+     * Gets the feature extractor the model was trained with.
+     *
+     * @return The feature extractor
+     */
+    public HashedFeatures features() {
+        return features;
+    }
+
+    /**
+     * Gets the class labels in index order.
+     *
+     * @return The labels
+     */
+    public List<String> labels() {
+        return List.of(labels);
+    }
+
+    /**
+     * Gets the number of classes.
+     *
+     * @return The class count
+     */
+    public int classCount() {
+        return labels.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NaiveBayesModel other)) {
+            return false;
+        }
+        return features.bucketBits() == other.features.bucketBits()
+                && Arrays.equals(labels, other.labels)
+                && Arrays.equals(priors, other.priors)
+                && Arrays.equals(weights, other.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(labels) + Arrays.hashCode(priors);
+    }
+}
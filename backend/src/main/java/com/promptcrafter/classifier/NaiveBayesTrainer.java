@@ -0,0 +1,131 @@
+package com.promptcrafter.classifier;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trains a {@link NaiveBayesModel} from labelled examples.
+ * <p>
+ * The training file has one example per line, {@code <label>\t<text>}; blank lines and
+ * lines starting with {@code #} are skipped. Labels are indexed in order of first appearance,
+ * and training is deterministic, so the same file always yields the same model bytes.
+ * <p>
+ * Usage: {@code NaiveBayesTrainer <training.tsv> <output.nbm> [bucketBits]}
+ */
+public final class NaiveBayesTrainer {
+
+    /** Default log2 of the feature table size. */
+    public static final int DEFAULT_BUCKET_BITS = 13;
+
+    /** Additive smoothing applied to every feature count. */
+    static final double SMOOTHING = 0.1;
+
+    private final HashedFeatures features;
+    private final Map<String, Integer> labelIndex = new LinkedHashMap<>();
+    private final List<double[]> featureCounts = new ArrayList<>();
+    private final List<Double> featureTotals = new ArrayList<>();
+    private final List<Integer> documentCounts = new ArrayList<>();
+    private int documents;
+
+    public NaiveBayesTrainer(int bucketBits) {
+        this.features = new HashedFeatures(bucketBits);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: NaiveBayesTrainer <training.tsv> <output.nbm> [bucketBits]");
+            System.exit(2);
+        }
+        int bucketBits = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_BUCKET_BITS;
+        NaiveBayesTrainer trainer = new NaiveBayesTrainer(bucketBits);
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            trainer.addAll(reader);
+        }
+        NaiveBayesModel model = trainer.build();
+        try (OutputStream out = Files.newOutputStream(Path.of(args[1]))) {
+            model.write(out);
+        }
+        System.err.printf("Trained %d examples into %s, labels %s%n", trainer.documents, args[1], model.labels());
+    }
+
+    /**
+     * Adds every example of a training file.
+     *
+     * @param reader The training file
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a line has no label
+     */
+    public void addAll(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            if (tab <= 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not <label>\\t<text>");
+            }
+            add(line.substring(0, tab).trim(), line.substring(tab + 1));
+        }
+    }
+
+    /**
+     * Adds one example.
+     *
+     * @param label The example's class
+     * @param text The example text
+     */
+    public void add(String label, String text) {
+        int index = labelIndex.computeIfAbsent(label, l -> {
+            featureCounts.add(new double[features.buckets()]);
+            featureTotals.add(0.0);
+            documentCounts.add(0);
+            return labelIndex.size();
+        });
+        double[] counts = featureCounts.get(index);
+        int[] added = new int[1];
+        features.forEach(text, (bucket, start, end, unigram) -> {
+            counts[bucket]++;
+            added[0]++;
+        });
+        featureTotals.set(index, featureTotals.get(index) + added[0]);
+        documentCounts.set(index, documentCounts.get(index) + 1);
+        documents++;
+    }
+
+    /**
+     * Builds the model from the examples added so far.
+     *
+     * @return The trained model
+     */
+    public NaiveBayesModel build() {
+        int classCount = labelIndex.size();
+        if (classCount < 2) {
+            throw new IllegalStateException("At least two labels are needed to train a classifier");
+        }
+        int buckets = features.buckets();
+        float[] priors = new float[classCount];
+        float[] weights = new float[buckets * classCount];
+        for (int c = 0; c < classCount; c++) {
+            priors[c] = (float) Math.log((double) documentCounts.get(c) / documents);
+            double[] counts = featureCounts.get(c);
+            double denominator = Math.log(featureTotals.get(c) + SMOOTHING * buckets);
+            for (int b = 0; b < buckets; b++) {
+                weights[b * classCount + c] = (float) (Math.log(counts[b] + SMOOTHING) - denominator);
+            }
+        }
+        return new NaiveBayesModel(labelIndex.keySet().toArray(new String[0]), priors, weights, features.bucketBits());
+    }
+}
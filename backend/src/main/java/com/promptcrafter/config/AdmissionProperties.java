@@ -0,0 +1,60 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for rate limiting and admission control on the prompt generation endpoints and
+ * job submission.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether each client is limited to its own request rate.
+     */
+    private boolean rateLimitEnabled = true;
+
+    /**
+     * Sustained requests per second allowed per client.
+     */
+    private int requestsPerSecond = 20;
+
+    /**
+     * Requests a client may send in a burst on top of the sustained rate.
+     */
+    private int burst = 40;
+
+    /**
+     * Number of token bucket slots clients are hashed into; rounded up to a power of two.
+     * Clients that share a slot share its budget, so keep this well above the number of active clients.
+     */
+    private int slots = 65_536;
+
+    /**
+     * Header identifying the client by one of the {@link #apiKeys}.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * API keys that get a rate limit of their own. Requests without one of these keys are
+     * limited by their remote address, so sending made-up keys does not get a client a
+     * fresh budget.
+     */
+    private List<String> apiKeys = new ArrayList<>();
+
+    /**
+     * Largest number of generation requests processed at once, or 0 for no limit.
+     */
+    private int maxConcurrent = 256;
+
+    /**
+     * How long a request may wait for a free slot before it is rejected.
+     */
+    private Duration queueTimeout = Duration.ofMillis(50);
+}
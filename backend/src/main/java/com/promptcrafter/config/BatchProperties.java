@@ -0,0 +1,32 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for batch prompt generation.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.batch")
+public class BatchProperties {
+
+    /**
+     * Number of worker threads generating prompts in parallel.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of pending items the worker pool buffers before callers run work themselves.
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Largest number of requests accepted in a single batch.
+     */
+    private int maxSize = 1000;
+
+    /**
+     * Largest number of NDJSON lines being processed at once while streaming.
+     */
+    private int streamWindow = 64;
+}
@@ -0,0 +1,29 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the generated prompt cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.cache")
+public class CacheProperties {
+
+    /**
+     * Whether generated prompts are cached.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Largest number of prompts kept in the cache.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached prompt stays valid after it was generated.
+     */
+    private Duration timeToLive = Duration.ofMinutes(30);
+}
@@ -0,0 +1,36 @@
+package com.promptcrafter.config;
+
+import com.promptcrafter.classifier.NaiveBayesModel;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Selects the ContentClassifier. The keyword classifier registers itself unless
+ * {@code promptcrafter.classifier.type} names another implementation.
+ */
+@Configuration
+public class ClassifierConfig {
+
+    /**
+     * Naive Bayes classifier, loaded from the configured model file or the bundled model.
+     *
+     * @param properties The classifier settings
+     * @return The classifier
+     * @throws IOException if the model file cannot be loaded
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "promptcrafter.classifier", name = "type", havingValue = "naive-bayes")
+    public ContentClassifier naiveBayesContentClassifier(ClassifierProperties properties) throws IOException {
+        if (StringUtils.hasText(properties.getModelPath())) {
+            return new NaiveBayesContentClassifier(NaiveBayesModel.load(Path.of(properties.getModelPath())));
+        }
+        return NaiveBayesContentClassifier.bundled();
+    }
+}
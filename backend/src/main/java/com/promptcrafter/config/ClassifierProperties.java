@@ -0,0 +1,23 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for content-type classification.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.classifier")
+public class ClassifierProperties {
+
+    /**
+     * Classifier implementation: "keyword" or "naive-bayes".
+     */
+    private String type = "keyword";
+
+    /**
+     * Model file for the naive Bayes classifier, memory-mapped at startup.
+     * Unset to use the model bundled with the application.
+     */
+    private String modelPath;
+}
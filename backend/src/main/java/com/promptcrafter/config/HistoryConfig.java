@@ -0,0 +1,45 @@
+package com.promptcrafter.config;
+
+import com.promptcrafter.history.HistoryStore;
+import com.promptcrafter.history.HistoryWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Sets up the prompt history store and its background writer.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "promptcrafter.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryConfig {
+
+    /**
+     * The history tables, created on first start.
+     *
+     * @param dataSource The database holding the history
+     * @param properties The history settings
+     * @return The store
+     */
+    @Bean
+    public HistoryStore historyStore(DataSource dataSource, HistoryProperties properties) {
+        HistoryStore store = new HistoryStore(dataSource, properties.getMaxIndexedTerms());
+        store.initialize();
+        return store;
+    }
+
+    /**
+     * Batches history writes off the request path; queued entries are written on shutdown.
+     *
+     * @param store The store
+     * @param properties The history settings
+     * @param meterRegistry The registry queue metrics are recorded in
+     * @return The writer
+     */
+    @Bean
+    public HistoryWriter historyWriter(HistoryStore store, HistoryProperties properties, MeterRegistry meterRegistry) {
+        return new HistoryWriter(store, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the prompt history store.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.history")
+public class HistoryProperties {
+
+    /**
+     * Whether generated prompts are stored.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Prompts waiting to be written; when full, new prompts are not recorded.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Largest number of prompts written in one transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time a prompt waits before it is written.
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    /**
+     * Most distinct words of an input indexed for search.
+     */
+    private int maxIndexedTerms = 128;
+
+    /**
+     * Largest page size the history endpoints return.
+     */
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,44 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings bounding the size of prompt inputs.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.input")
+public class InputLimitProperties {
+
+    /**
+     * What happens to an input text longer than {@link #maxLength}.
+     */
+    public enum OverflowMode {
+        /** The request is rejected. */
+        REJECT,
+        /** Only a window at the start and one at the end of the input are used. */
+        TRUNCATE
+    }
+
+    /**
+     * Longest input text accepted, in characters.
+     */
+    private int maxLength = 100_000;
+
+    /**
+     * Whether oversized inputs are rejected or truncated.
+     */
+    private OverflowMode overflow = OverflowMode.REJECT;
+
+    /**
+     * Characters kept from each end of a truncated input.
+     */
+    private int truncationWindow = 4096;
+
+    /**
+     * Largest request body accepted by the generate and batch endpoints. Bodies are
+     * rejected as soon as they exceed it, before they are fully read.
+     */
+    private DataSize maxRequestSize = DataSize.ofMegabytes(10);
+}
@@ -0,0 +1,52 @@
+package com.promptcrafter.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.jobs.JobRunner;
+import com.promptcrafter.jobs.JobStore;
+import com.promptcrafter.service.PromptService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Sets up the job store and the runner processing jobs in the background.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "promptcrafter.jobs", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JobConfig {
+
+    /**
+     * The job tables, created on first start, in the same database as the history.
+     *
+     * @param dataSource The database holding the jobs
+     * @return The store
+     */
+    @Bean
+    public JobStore jobStore(DataSource dataSource) {
+        JobStore store = new JobStore(dataSource);
+        store.initialize();
+        return store;
+    }
+
+    /**
+     * Processes jobs with the same decorated service as the generate endpoints, resuming the
+     * jobs that were unfinished when the application stopped.
+     *
+     * @param store The store
+     * @param promptService The service generating each item
+     * @param objectMapper The mapper requests and responses are stored with
+     * @param properties The job settings
+     * @param meterRegistry The registry item counts are recorded in
+     * @return The runner
+     */
+    @Bean
+    public JobRunner jobRunner(JobStore store, PromptService promptService, ObjectMapper objectMapper,
+                               JobProperties properties, MeterRegistry meterRegistry) {
+        JobRunner runner = new JobRunner(store, promptService, objectMapper, properties, meterRegistry);
+        runner.resumeUnfinished();
+        return runner;
+    }
+}
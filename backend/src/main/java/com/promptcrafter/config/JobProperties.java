@@ -0,0 +1,48 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for asynchronous generation jobs.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.jobs")
+public class JobProperties {
+
+    /**
+     * Whether the job API is available.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of worker threads processing job items.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of items processed and stored together; a crash repeats at most the chunks in flight.
+     */
+    private int chunkSize = 64;
+
+    /**
+     * Largest number of chunks being processed at once, across all jobs.
+     */
+    private int maxChunksInFlight = 16;
+
+    /**
+     * Largest number of items accepted in one job.
+     */
+    private int maxItems = 1_000_000;
+
+    /**
+     * Largest job submission body, JSON or NDJSON.
+     */
+    private DataSize maxUploadSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Largest page size the result endpoint returns.
+     */
+    private int maxPageSize = 100;
+}
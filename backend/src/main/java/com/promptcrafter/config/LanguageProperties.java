@@ -0,0 +1,29 @@
+package com.promptcrafter.config;
+
+import com.promptcrafter.language.LanguagePackRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the language packs inputs are analyzed with.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.languages")
+public class LanguageProperties {
+
+    /**
+     * Codes of the language packs to load. The first one is used for inputs too short to
+     * tell their language; with a single pack, language detection is skipped.
+     */
+    private List<String> packs = new ArrayList<>(LanguagePackRegistry.BUNDLED);
+
+    /**
+     * Directory with packs named {@code <code>.properties}, each with the sample text its
+     * language is detected by in {@code <code>.txt}. Packs missing from it fall back to the
+     * bundled ones. Unset to use the bundled packs only.
+     */
+    private String directory;
+}
@@ -0,0 +1,40 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for live prompt sessions.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.live")
+public class LiveSessionProperties {
+
+    /**
+     * How long a session is kept without edits or reads before it is closed.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    /**
+     * Largest number of open sessions; the least recently used are closed first.
+     */
+    private long maxSessions = 10_000;
+
+    /**
+     * Number of threads sending session events; each serves one session at a time.
+     */
+    private int publisherThreads = 16;
+
+    /**
+     * Number of sessions that may wait for a publisher thread. When the queue is full, the
+     * event streams of a session with new events are ended and its clients reconnect.
+     */
+    private int publisherQueueCapacity = 1000;
+
+    /**
+     * Longest time one event may take to send before its subscriber is dropped.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,73 @@
+package com.promptcrafter.config;
+
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.BatchPromptResponse;
+import com.promptcrafter.model.ContentClassification;
+import com.promptcrafter.model.HistoryEntry;
+import com.promptcrafter.model.HistoryPage;
+import com.promptcrafter.model.JobResultPage;
+import com.promptcrafter.model.JobStatus;
+import com.promptcrafter.model.KeywordHit;
+import com.promptcrafter.model.LiveEditRequest;
+import com.promptcrafter.model.LivePromptUpdate;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.model.TextEdit;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+import com.promptcrafter.util.TokenEstimator;
+import com.promptcrafter.util.ToneIdModule;
+import com.promptcrafter.util.ToneUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for ahead-of-time processing and GraalVM native images.
+ * <p>
+ * Spring registers the types of {@code @RequestBody} and {@code @ResponseBody} signatures
+ * by itself, but several models are read or written through an {@code ObjectMapper}
+ * directly (NDJSON streaming, server-sent events, stored jobs), and Jackson reaches the
+ * Lombok-generated constructors, getters and setters of all of them reflectively, as well
+ * as the mix-ins and tone id (de)serializers of {@link ToneIdModule}. The bundled
+ * templates, language packs, tone id table, tokenizer vocabulary and classifier model are loaded as
+ * classpath resources, which a native image only contains when they are listed.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+@RegisterReflectionForBinding({
+        PromptRequest.class, PromptResponse.class, BatchPromptRequest.class, BatchPromptResponse.class,
+        BatchItemResult.class, ContentClassification.class, KeywordHit.class, HistoryEntry.class,
+        HistoryPage.class, LiveEditRequest.class, LivePromptUpdate.class, TextEdit.class,
+        JobStatus.class, JobResultPage.class})
+public class NativeHintsConfig {
+
+    /** Nested types of the tone id module, which are not visible here. */
+    private static final String[] TONE_ID_MODULE_TYPES = {
+        "SelectedTonesMixIn", "ResultTonesMixIn", "ToneIdSerializer", "ToneIdDeserializer"
+    };
+
+    /**
+     * Registers the bundled resources and the tone id module's nested types.
+     */
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                    .registerPattern("templates/prompts/*.tmpl")
+                    .registerPattern("language/*")
+                    .registerPattern(ToneUtils.TONE_IDS_RESOURCE)
+                    .registerPattern(TokenEstimator.BUNDLED_VOCABULARY)
+                    .registerPattern(NaiveBayesContentClassifier.BUNDLED_MODEL);
+            for (String type : TONE_ID_MODULE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(ToneIdModule.class.getName() + "$" + type),
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+        }
+    }
+}
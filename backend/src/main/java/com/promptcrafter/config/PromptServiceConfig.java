@@ -0,0 +1,118 @@
+package com.promptcrafter.config;
+
+import com.promptcrafter.history.HistoryWriter;
+import com.promptcrafter.language.LanguagePackRegistry;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.PromptService;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.CachingPromptService;
+import com.promptcrafter.service.impl.HistoryRecordingPromptService;
+import com.promptcrafter.service.impl.InputLimitingPromptService;
+import com.promptcrafter.service.impl.MeteredPromptService;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import com.promptcrafter.service.impl.SingleFlightPromptService;
+import com.promptcrafter.template.PromptTemplateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+
+/**
+ * Assembles the PromptService used by the controllers from the core implementation
+ * and the optional decorators around it.
+ */
+@Configuration
+public class PromptServiceConfig {
+
+    /**
+     * Prompt templates, bundled or loaded from the configured directory.
+     *
+     * @param properties The template settings
+     * @return The template registry
+     */
+    @Bean
+    public PromptTemplateRegistry promptTemplateRegistry(TemplateProperties properties) {
+        Path directory = StringUtils.hasText(properties.getDirectory()) ? Path.of(properties.getDirectory()) : null;
+        return new PromptTemplateRegistry(PromptServiceImpl.TEMPLATE_CONTENT_TYPES, ContentClassifier.CREATIVE,
+                PromptServiceImpl.TEMPLATE_VARIABLES, directory, properties.isHotReload());
+    }
+
+    /**
+     * Language packs, bundled or loaded from the configured directory.
+     *
+     * @param properties The language settings
+     * @return The language pack registry
+     */
+    @Bean
+    public LanguagePackRegistry languagePackRegistry(LanguageProperties properties) {
+        Path directory = StringUtils.hasText(properties.getDirectory()) ? Path.of(properties.getDirectory()) : null;
+        return new LanguagePackRegistry(properties.getPacks(), directory);
+    }
+
+    /**
+     * Result cache in front of the core implementation. It is emptied whenever a template
+     * is reloaded, so edited templates show up for inputs that were already cached.
+     *
+     * @param promptServiceImpl The core implementation
+     * @param batchExecutor The batch worker pool
+     * @param properties The cache settings
+     * @param templates The templates the cached prompts were rendered from
+     * @return The caching service
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "promptcrafter.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CachingPromptService cachingPromptService(PromptServiceImpl promptServiceImpl,
+                                                     BatchPromptExecutor batchExecutor,
+                                                     CacheProperties properties,
+                                                     PromptTemplateRegistry templates) {
+        CachingPromptService cache = new CachingPromptService(promptServiceImpl, batchExecutor, properties);
+        templates.addReloadListener(contentType -> cache.invalidateAll());
+        return cache;
+    }
+
+    /**
+     * The PromptService injected everywhere else.
+     *
+     * @param promptServiceImpl The core implementation
+     * @param cachingPromptService The caching decorator, if enabled
+     * @param batchExecutor The batch worker pool
+     * @param historyWriter The history writer, if history is enabled
+     * @param inputLimits The input size limits
+     * @param singleFlight The request coalescing settings
+     * @param meterRegistry The registry metrics are recorded in
+     * @return The outermost service in the chain
+     */
+    @Bean
+    @Primary
+    public PromptService promptService(PromptServiceImpl promptServiceImpl,
+                                       ObjectProvider<CachingPromptService> cachingPromptService,
+                                       BatchPromptExecutor batchExecutor,
+                                       ObjectProvider<HistoryWriter> historyWriter,
+                                       InputLimitProperties inputLimits,
+                                       SingleFlightProperties singleFlight,
+                                       MeterRegistry meterRegistry) {
+        PromptService promptService = promptServiceImpl;
+        CachingPromptService cache = cachingPromptService.getIfAvailable();
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getCache(), "prompts");
+            promptService = cache;
+        }
+        if (singleFlight.isEnabled()) {
+            // Concurrent misses for the same prompt run the generation (and fill the cache) once
+            promptService = new SingleFlightPromptService(promptService, batchExecutor, meterRegistry);
+        }
+        HistoryWriter writer = historyWriter.getIfAvailable();
+        if (writer != null) {
+            promptService = new HistoryRecordingPromptService(promptService, batchExecutor, writer);
+        }
+        // Oversized inputs are rejected or truncated before they reach the cache
+        promptService = new InputLimitingPromptService(promptService, batchExecutor, inputLimits);
+        return new MeteredPromptService(promptService, batchExecutor, meterRegistry);
+    }
+}
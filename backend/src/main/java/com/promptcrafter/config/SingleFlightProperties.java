@@ -0,0 +1,17 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for coalescing concurrent identical prompt requests.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.single-flight")
+public class SingleFlightProperties {
+
+    /**
+     * Whether concurrent requests for the same prompt share one generation.
+     */
+    private boolean enabled = true;
+}
@@ -0,0 +1,23 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the prompt templates.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.templates")
+public class TemplateProperties {
+
+    /**
+     * Directory with template overrides named {@code <content-type>.tmpl}. Templates
+     * missing from it fall back to the bundled ones. Unset to use the bundled templates only.
+     */
+    private String directory;
+
+    /**
+     * Whether changes to the template directory are picked up while the application runs.
+     */
+    private boolean hotReload = true;
+}
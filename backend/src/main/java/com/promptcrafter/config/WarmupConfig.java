@@ -0,0 +1,48 @@
+package com.promptcrafter.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import com.promptcrafter.service.impl.PromptWarmup;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Warms up prompt generation at startup.
+ * <p>
+ * Application runners complete before Spring Boot marks the application as accepting
+ * traffic, so {@code /actuator/health/readiness} only reports ready once the warmup is done
+ * and a load balancer never sends the first requests to a cold JVM.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "promptcrafter.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupConfig.class);
+
+    /**
+     * Generates sample prompts with the core implementation, so the warmup leaves no trace
+     * in the cache, the history or the request metrics.
+     *
+     * @param promptServiceImpl The core implementation
+     * @param validator The validator request bodies are checked with
+     * @param objectMapper The mapper requests and responses are converted with
+     * @param properties The warmup settings
+     * @return The runner
+     */
+    @Bean
+    public ApplicationRunner promptWarmup(PromptServiceImpl promptServiceImpl, Validator validator,
+                                          ObjectMapper objectMapper, WarmupProperties properties) {
+        return args -> {
+            long start = System.nanoTime();
+            int generated = new PromptWarmup(promptServiceImpl, validator, objectMapper)
+                    .run(properties.getIterations(), properties.getTimeLimit());
+            log.info("Warmed up prompt generation with {} sample prompts in {} ms",
+                    generated, (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+}
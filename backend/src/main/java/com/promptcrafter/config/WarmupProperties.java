@@ -0,0 +1,29 @@
+package com.promptcrafter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for warming up prompt generation before the application reports it is ready.
+ */
+@Data
+@ConfigurationProperties(prefix = "promptcrafter.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether sample prompts are generated at startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of sample prompts to generate.
+     */
+    private int iterations = 5000;
+
+    /**
+     * Longest time the warmup may delay readiness.
+     */
+    private Duration timeLimit = Duration.ofSeconds(10);
+}
@@ -1,6 +1,21 @@
 package com.promptcrafter.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.promptcrafter.admission.AdmissionControlFilter;
+import com.promptcrafter.admission.RequestSizeLimitFilter;
+import com.promptcrafter.util.ToneIdModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -23,4 +38,106 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    /**
+     * Rate limiting and admission control in front of the prompt generation endpoints, job
+     * submission and live sessions, which would otherwise queue any amount of generation
+     * unthrottled. Live session event streams are rate limited but hold no processing permit.
+     *
+     * @param properties The admission settings
+     * @param meterRegistry The registry rejections are counted in
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties,
+                                                                                MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/prompts/generate", "/api/prompts/generate/*", "/api/jobs",
+                "/api/prompts/live", "/api/prompts/live/*");
+        return registration;
+    }
+
+    /**
+     * Body size cap for the generate, batch and live session endpoints. The NDJSON stream
+     * endpoint is exempt, since a stream may be arbitrarily long; it reads one line at a time
+     * and fails on any line longer than the same limit instead.
+     *
+     * @param properties The input limits
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<RequestSizeLimitFilter> requestSizeLimitFilter(InputLimitProperties properties) {
+        FilterRegistrationBean<RequestSizeLimitFilter> registration =
+                new FilterRegistrationBean<>(new RequestSizeLimitFilter(properties.getMaxRequestSize().toBytes()));
+        registration.addUrlPatterns("/api/prompts/generate", "/api/prompts/generate/batch",
+                "/api/prompts/live", "/api/prompts/live/*");
+        return registration;
+    }
+
+    /**
+     * Body size cap for job submissions, which are stored as they are read and so may be
+     * far larger than a generate request.
+     *
+     * @param properties The job settings
+     * @return The filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<RequestSizeLimitFilter> jobUploadSizeLimitFilter(JobProperties properties) {
+        FilterRegistrationBean<RequestSizeLimitFilter> registration =
+                new FilterRegistrationBean<>(new RequestSizeLimitFilter(properties.getMaxUploadSize().toBytes()));
+        registration.addUrlPatterns("/api/jobs");
+        return registration;
+    }
+
+    /**
+     * Makes JSON parsing fail as soon as a string value exceeds the input limit, instead
+     * of after the whole value has been buffered. When oversized inputs are truncated the
+     * parser still has to accept them, so the request size limit bounds them instead.
+     *
+     * @param properties The input limits
+     * @return The customizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer inputLimitJsonCustomizer(InputLimitProperties properties) {
+        int maxStringLength = properties.getOverflow() == InputLimitProperties.OverflowMode.REJECT
+                ? properties.getMaxLength()
+                : (int) Math.min(Integer.MAX_VALUE, properties.getMaxRequestSize().toBytes());
+        StreamReadConstraints constraints = StreamReadConstraints.builder()
+                .maxStringLength(maxStringLength)
+                .build();
+        return builder -> builder.postConfigurer(mapper -> mapper.getFactory().setStreamReadConstraints(constraints));
+    }
+
+    /**
+     * CBOR bodies for service-to-service calls, chosen with {@code Content-Type} and
+     * {@code Accept: application/cbor}. JSON stays first in the converter list, so clients
+     * that accept anything still get JSON.
+     *
+     * @param builder The builder configured like the JSON mapper
+     * @return The converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    /**
+     * Smile bodies, chosen with {@code application/x-jackson-smile}; like CBOR, but Smile
+     * also shares repeated property names and short strings within a message.
+     *
+     * @param builder The builder configured like the JSON mapper
+     * @return The converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+    }
+
+    /** Binary formats send tones as their catalog ids. */
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        ObjectMapper mapper = builder.factory(factory).build();
+        mapper.registerModule(new ToneIdModule());
+        return mapper;
+    }
+}
@@ -0,0 +1,91 @@
+package com.promptcrafter.controller;
+
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import com.promptcrafter.admission.RequestTooLargeException;
+import com.promptcrafter.live.VersionConflictException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Translates exceptions thrown by the API into error responses.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * Handles requests the service rejected as invalid.
+     *
+     * @param e The exception describing the problem
+     * @return ResponseEntity with status 400 and the error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        String message = e.getMessage() != null ? e.getMessage() : "Invalid request";
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", message));
+    }
+
+    /**
+     * Handles live session edits made against an outdated version.
+     *
+     * @param e The exception holding the session's current version
+     * @return ResponseEntity with status 409, the error message and the current version
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handleVersionConflict(VersionConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "version", Long.toString(e.getCurrentVersion())));
+    }
+
+    /**
+     * Handles request bodies that failed Bean Validation.
+     *
+     * @param e The exception holding the field errors
+     * @return ResponseEntity with status 400 and one message per invalid field
+     */
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidBody(MethodArgumentNotValidException e) {
+        String message = e.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + " " + error.getDefaultMessage())
+                .collect(Collectors.joining("; "));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", message));
+    }
+
+    /**
+     * Handles streamed request bodies that exceeded the size limit while being read.
+     *
+     * @param e The exception raised by the size limit
+     * @return ResponseEntity with status 413 and the error message
+     */
+    @ExceptionHandler(RequestTooLargeException.class)
+    public ResponseEntity<Map<String, String>> handleTooLarge(RequestTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+    }
+
+    /**
+     * Handles request bodies that could not be parsed, distinguishing bodies or values that
+     * exceeded a size limit from malformed ones.
+     *
+     * @param e The exception raised while reading the body
+     * @return ResponseEntity with status 413 for oversized input, 400 otherwise
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadableBody(HttpMessageNotReadableException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RequestTooLargeException) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", cause.getMessage()));
+            }
+            if (cause instanceof StreamConstraintsException) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(Map.of("error", "inputText is too long"));
+            }
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Malformed request body"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.promptcrafter.controller;
+
+import com.promptcrafter.config.HistoryProperties;
+import com.promptcrafter.history.HistoryStore;
+import com.promptcrafter.model.HistoryEntry;
+import com.promptcrafter.model.HistoryPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for browsing and searching previously generated prompts.
+ * <p>
+ * Pages are newest first. Each page returns a {@code nextCursor}; pass it as {@code before}
+ * to get the following page. Entries become visible shortly after generation, once the
+ * background writer has stored them.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "promptcrafter.history", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/history")
+@CrossOrigin(origins = "*")
+public class HistoryController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final HistoryStore historyStore;
+    private final int maxPageSize;
+
+    @Autowired
+    public HistoryController(HistoryStore historyStore, HistoryProperties properties) {
+        this.historyStore = historyStore;
+        this.maxPageSize = properties.getMaxPageSize();
+    }
+
+    /**
+     * Endpoint to list stored prompts.
+     *
+     * @param contentType Only prompts of this content type, if given
+     * @param before Cursor from the previous page, if any
+     * @param limit Page size
+     * @return ResponseEntity containing one page of prompts
+     */
+    @GetMapping
+    public ResponseEntity<HistoryPage> list(@RequestParam(required = false) String contentType,
+                                            @RequestParam(required = false) Long before,
+                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = pageSize(limit);
+        return ResponseEntity.ok(page(historyStore.list(contentType, before, pageSize + 1), pageSize));
+    }
+
+    /**
+     * Endpoint to search stored prompts by the words of their input text.
+     *
+     * @param q Words that must all appear in the input text
+     * @param contentType Only prompts of this content type, if given
+     * @param before Cursor from the previous page, if any
+     * @param limit Page size
+     * @return ResponseEntity containing one page of matching prompts
+     */
+    @GetMapping("/search")
+    public ResponseEntity<HistoryPage> search(@RequestParam String q,
+                                              @RequestParam(required = false) String contentType,
+                                              @RequestParam(required = false) Long before,
+                                              @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = pageSize(limit);
+        return ResponseEntity.ok(page(historyStore.search(q, contentType, before, pageSize + 1), pageSize));
+    }
+
+    /**
+     * Endpoint to fetch one stored prompt, so it can be reused without generating it again.
+     *
+     * @param id The history id returned with the generated prompt
+     * @return ResponseEntity containing the prompt, or 404 if there is none with that id
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<HistoryEntry> get(@PathVariable long id) {
+        return historyStore.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    /** Queries fetch one row more than the page size, to tell whether another page follows. */
+    private static HistoryPage page(List<HistoryEntry> rows, int pageSize) {
+        boolean more = rows.size() > pageSize;
+        List<HistoryEntry> items = more ? rows.subList(0, pageSize) : rows;
+        return HistoryPage.builder()
+                .items(items)
+                .nextCursor(more ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+}
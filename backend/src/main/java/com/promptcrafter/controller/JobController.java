@@ -0,0 +1,117 @@
+package com.promptcrafter.controller;
+
+import com.promptcrafter.config.JobProperties;
+import com.promptcrafter.jobs.JobRunner;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.JobResultPage;
+import com.promptcrafter.model.JobStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * REST controller for asynchronous generation jobs.
+ * <p>
+ * A job is submitted as a JSON batch or as newline-delimited JSON with one request per line,
+ * and is answered with 202 as soon as it is stored. Its progress is polled at
+ * {@code /api/jobs/{id}}, and its results are read in pages, in the order items finished.
+ * Each page returns a {@code nextCursor}; pass it as {@code after} to get the following
+ * results. The cursor is null once the job is complete and every result has been returned;
+ * a page of a running job may be empty, in which case the same cursor is polled again.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "promptcrafter.jobs", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final JobRunner jobRunner;
+    private final int maxPageSize;
+
+    @Autowired
+    public JobController(JobRunner jobRunner, JobProperties properties) {
+        this.jobRunner = jobRunner;
+        this.maxPageSize = properties.getMaxPageSize();
+    }
+
+    /**
+     * Endpoint to submit a job from a JSON batch.
+     *
+     * @param request The prompt requests, processed independently
+     * @return ResponseEntity with status 202 and the job status
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobStatus> submit(@RequestBody BatchPromptRequest request) {
+        return accepted(jobRunner.submit(request.getRequests()));
+    }
+
+    /**
+     * Endpoint to submit a job from newline-delimited JSON, such as an uploaded file. The
+     * body is stored as it is read, so it is never held in memory in full.
+     *
+     * @param body One prompt request per line
+     * @return ResponseEntity with status 202 and the job status
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<JobStatus> submitLines(InputStream body) throws IOException {
+        return accepted(jobRunner.submit(body));
+    }
+
+    /**
+     * Endpoint to get the progress of a job.
+     *
+     * @param id The job id
+     * @return ResponseEntity containing the job status, or 404 if there is no such job
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> status(@PathVariable UUID id) {
+        return jobRunner.status(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to read the results of a job.
+     *
+     * @param id The job id
+     * @param after Cursor from the previous page, if any
+     * @param limit Page size
+     * @return ResponseEntity containing one page of results, or 404 if there is no such job
+     */
+    @GetMapping("/{id}/results")
+    public ResponseEntity<JobResultPage> results(@PathVariable UUID id,
+                                                 @RequestParam(defaultValue = "0") long after,
+                                                 @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return jobRunner.results(id, after, Math.min(limit, maxPageSize))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint to delete a job with its results, cancelling the items not processed yet.
+     *
+     * @param id The job id
+     * @return ResponseEntity with status 204, or 404 if there is no such job
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable UUID id) {
+        return jobRunner.delete(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static ResponseEntity<JobStatus> accepted(JobStatus status) {
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + status.getId())).body(status);
+    }
+}
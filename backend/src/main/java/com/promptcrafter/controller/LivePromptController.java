@@ -0,0 +1,100 @@
+package com.promptcrafter.controller;
+
+import com.promptcrafter.config.LiveSessionProperties;
+import com.promptcrafter.live.LiveSession;
+import com.promptcrafter.live.LiveSessionRegistry;
+import com.promptcrafter.model.LiveEditRequest;
+import com.promptcrafter.model.LivePromptUpdate;
+import com.promptcrafter.model.PromptRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * REST controller for live prompt sessions, which keep a prompt up to date while the user types.
+ * <p>
+ * A client opens a session with its current input, subscribes to the session's event
+ * stream and then posts only the edits it makes. Every applied edit request pushes a
+ * {@code prompt} event carrying the change to the prompt, so neither the input nor the
+ * prompt is sent in full again. Requests for a closed or unknown session get 404; the
+ * client then opens a new session with its full input.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "promptcrafter.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
+@RequestMapping("/api/prompts/live")
+@CrossOrigin(origins = "*")
+public class LivePromptController {
+
+    private final LiveSessionRegistry sessions;
+    private final long streamTimeoutMillis;
+
+    @Autowired
+    public LivePromptController(LiveSessionRegistry sessions, LiveSessionProperties properties) {
+        this.sessions = sessions;
+        this.streamTimeoutMillis = properties.getIdleTimeout().toMillis();
+    }
+
+    /**
+     * Endpoint to open a live session.
+     *
+     * @param request The initial input text and selected tones
+     * @return ResponseEntity containing the session id and the whole prompt
+     */
+    @PostMapping
+    public ResponseEntity<LivePromptUpdate> open(@Valid @RequestBody PromptRequest request) {
+        return ResponseEntity.ok(sessions.create(request).snapshot());
+    }
+
+    /**
+     * Endpoint to subscribe to the prompt updates of a session. The first event holds the whole prompt.
+     *
+     * @param id The session id
+     * @return ResponseEntity containing the event stream, or 404 if the session is not open
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id) {
+        LiveSession session = sessions.find(id);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Clients reconnect after the timeout, which finds out whether the session is still open
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        session.subscribe(emitter);
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Endpoint to apply edits to the input text of a session.
+     *
+     * @param id The session id
+     * @param request The edits and the optional new tone selection
+     * @return ResponseEntity with status 202 and the new version, or 404 if the session is not open
+     */
+    @PostMapping("/{id}/edits")
+    public ResponseEntity<Map<String, Long>> edit(@PathVariable String id, @Valid @RequestBody LiveEditRequest request) {
+        LiveSession session = sessions.find(id);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        LivePromptUpdate update = session.apply(request);
+        return ResponseEntity.accepted().body(Map.of("version", update.getVersion()));
+    }
+
+    /**
+     * Endpoint to close a session.
+     *
+     * @param id The session id
+     * @return ResponseEntity with status 204
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> close(@PathVariable String id) {
+        sessions.close(id);
+        return ResponseEntity.noContent().build();
+    }
+}
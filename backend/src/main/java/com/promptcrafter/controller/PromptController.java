@@ -1,25 +1,42 @@
 package com.promptcrafter.controller;
 
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.BatchPromptResponse;
 import com.promptcrafter.model.PromptRequest;
 import com.promptcrafter.model.PromptResponse;
 import com.promptcrafter.service.PromptService;
+import com.promptcrafter.service.impl.NdjsonPromptStreamer;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * REST controller for handling prompt generation requests.
+ * Active in the default servlet mode; see {@link ReactivePromptController} for the reactive variant.
  */
 @RestController
+@ConditionalOnProperty(prefix = "promptcrafter.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
 @RequestMapping("/api/prompts")
 @CrossOrigin(origins = "*")
 public class PromptController {
 
     private final PromptService promptService;
+    private final NdjsonPromptStreamer promptStreamer;
 
     @Autowired
-    public PromptController(PromptService promptService) {
+    public PromptController(PromptService promptService, NdjsonPromptStreamer promptStreamer) {
         this.promptService = promptService;
+        this.promptStreamer = promptStreamer;
     }
 
     /**
@@ -29,17 +46,56 @@ public class PromptController {
      * @return ResponseEntity containing the generated prompt
      */
     @PostMapping("/generate")
-    public ResponseEntity<PromptResponse> generatePrompt(@RequestBody PromptRequest request) {
-        long startTime = System.currentTimeMillis();
+    public ResponseEntity<PromptResponse> generatePrompt(@Valid @RequestBody PromptRequest request) {
+        long startTime = System.nanoTime();
         PromptResponse response = promptService.generatePrompt(request);
         
         // Add processing time to response
-        long processingTime = System.currentTimeMillis() - startTime;
+        long processingTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
         response.setProcessingTimeMs(processingTime);
         
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint to generate AI prompts for many inputs in one call.
+     *
+     * @param request The batch containing the individual prompt requests
+     * @return ResponseEntity containing one result per request, in input order
+     */
+    @PostMapping("/generate/batch")
+    public ResponseEntity<BatchPromptResponse> generatePrompts(@Valid @RequestBody BatchPromptRequest request) {
+        long startTime = System.nanoTime();
+        List<BatchItemResult> results = promptService.generatePrompts(request.getRequests());
+
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+        BatchPromptResponse response = BatchPromptResponse.builder()
+                .results(results)
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .processingTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint to stream newline-delimited JSON prompt requests and receive one
+     * newline-delimited JSON response per request as results become available.
+     *
+     * @param body The request body, one PromptRequest per line
+     * @param response The servlet response the results are streamed to
+     * @throws IOException if the body cannot be read or the response cannot be written
+     */
+    @PostMapping(value = "/generate/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void generatePromptStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        promptStreamer.process(body, response.getOutputStream(), true);
+    }
+
     /**
      * Health check endpoint.
      *
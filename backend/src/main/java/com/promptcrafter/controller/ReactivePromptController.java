@@ -0,0 +1,170 @@
+package com.promptcrafter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.promptcrafter.config.BatchProperties;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.BatchPromptResponse;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import com.promptcrafter.util.BoundedLineReader;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive variant of {@link PromptController}, serving the same endpoints with
+ * {@link Mono} and {@link Flux} return types. Enabled with {@code promptcrafter.web.mode=reactive}.
+ * <p>
+ * Request threads are released as soon as the handler returns; generation runs on
+ * Reactor's bounded elastic scheduler, since prompt services may block (a coalesced
+ * request waits for its leader), and streamed results are written as they are emitted.
+ */
+@RestController
+@RequestMapping("/api/prompts")
+@CrossOrigin(origins = "*")
+@ConditionalOnProperty(prefix = "promptcrafter.web", name = "mode", havingValue = "reactive")
+public class ReactivePromptController {
+
+    private final PromptService promptService;
+    private final ObjectReader requestReader;
+    private final int maxBatchSize;
+    private final int concurrency;
+    private final long maxLineBytes;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+
+    @Autowired
+    public ReactivePromptController(PromptService promptService, ObjectMapper objectMapper, BatchProperties properties,
+                                    InputLimitProperties inputLimits) {
+        this.promptService = promptService;
+        this.requestReader = objectMapper.readerFor(PromptRequest.class);
+        this.maxBatchSize = properties.getMaxSize();
+        this.concurrency = properties.getStreamWindow();
+        this.maxLineBytes = inputLimits.getMaxRequestSize().toBytes();
+    }
+
+    /**
+     * Endpoint to generate an AI prompt from user input.
+     *
+     * @param request The prompt generation request containing input text and selected tones
+     * @return Mono emitting the generated prompt
+     */
+    @PostMapping("/generate")
+    public Mono<PromptResponse> generatePrompt(@Valid @RequestBody PromptRequest request) {
+        return Mono.fromCallable(() -> generateTimed(request)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Endpoint to generate AI prompts for many inputs in one call.
+     *
+     * @param request The batch containing the individual prompt requests
+     * @return Mono emitting one result per request, in input order
+     */
+    @PostMapping("/generate/batch")
+    public Mono<BatchPromptResponse> generatePrompts(@Valid @RequestBody BatchPromptRequest request) {
+        List<PromptRequest> requests = request.getRequests() != null ? request.getRequests() : List.of();
+        if (requests.size() > maxBatchSize) {
+            return Mono.error(new IllegalArgumentException(
+                    "Batch size " + requests.size() + " exceeds the maximum of " + maxBatchSize));
+        }
+        long startTime = System.nanoTime();
+        // Through the service's own batching, so batches are fanned out and metered as in servlet mode
+        return Mono.fromCallable(() -> promptService.generatePrompts(requests))
+                .subscribeOn(scheduler)
+                .map(results -> {
+                    int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+                    return BatchPromptResponse.builder()
+                            .results(results)
+                            .succeeded(results.size() - failed)
+                            .failed(failed)
+                            .processingTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                            .build();
+                });
+    }
+
+    /**
+     * Endpoint to stream newline-delimited JSON prompt requests. Lines are pulled from the
+     * body only as fast as results are written back, with at most {@code stream-window}
+     * requests in flight, and the stream fails on a line longer than the request size limit.
+     *
+     * @param body The request body, one PromptRequest per line
+     * @return Flux emitting one result per request, in input order
+     */
+    @PostMapping(value = "/generate/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Object> generatePromptStream(InputStream body) {
+        BoundedLineReader reader = new BoundedLineReader(body, maxLineBytes);
+        return Flux.<String>generate(sink -> {
+                    try {
+                        String line = reader.readLine();
+                        if (line != null) {
+                            sink.next(line);
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                })
+                .subscribeOn(scheduler)
+                .filter(line -> !line.isBlank())
+                .index()
+                .flatMapSequential(line -> Mono.fromCallable(() -> parseAndGenerate(line.getT1(), line.getT2()))
+                        .subscribeOn(scheduler), concurrency)
+                .map(result -> result.getResponse() != null ? result.getResponse() : result);
+    }
+
+    /**
+     * Health check endpoint.
+     *
+     * @return Mono emitting a simple status message
+     */
+    @GetMapping("/health")
+    public Mono<String> healthCheck() {
+        return Mono.just("PromptCrafter API is running");
+    }
+
+    private PromptResponse generateTimed(PromptRequest request) {
+        long startTime = System.nanoTime();
+        PromptResponse response = promptService.generatePrompt(request);
+        response.setProcessingTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        return response;
+    }
+
+    private BatchItemResult generateItem(long index, PromptRequest request) {
+        try {
+            if (request == null) {
+                throw new IllegalArgumentException("Request must not be null");
+            }
+            return BatchItemResult.builder().index(index).response(generateTimed(request)).build();
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return BatchItemResult.builder().index(index).error(message).build();
+        }
+    }
+
+    private BatchItemResult parseAndGenerate(long index, String line) {
+        PromptRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (Exception e) {
+            return BatchItemResult.builder().index(index).error(e.getMessage()).build();
+        }
+        return generateItem(index, request);
+    }
+}
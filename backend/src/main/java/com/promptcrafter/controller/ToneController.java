@@ -1,37 +1,104 @@
 package com.promptcrafter.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.util.PrecomputedPayload;
 import com.promptcrafter.util.ToneUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
 
 /**
  * REST controller for tone-related endpoints.
+ * <p>
+ * The tone catalog is static, so all payloads are serialized and compressed once at
+ * startup and served with a strong ETag. Clients revalidating with If-None-Match get
+ * a 304 without a body.
  */
 @RestController
 @RequestMapping("/api/tones")
 @CrossOrigin(origins = "*")
 public class ToneController {
 
+    private final PrecomputedPayload allTones;
+    private final PrecomputedPayload toneCategories;
+    private final PrecomputedPayload toneIds;
+    private final CacheControl cacheControl;
+
+    public ToneController(ObjectMapper objectMapper,
+                          @Value("${promptcrafter.tones.cache-max-age:1h}") Duration cacheMaxAge)
+            throws JsonProcessingException {
+        this.allTones = PrecomputedPayload.of(objectMapper.writeValueAsBytes(ToneUtils.getAllTones()));
+        this.toneCategories = PrecomputedPayload.of(objectMapper.writeValueAsBytes(ToneUtils.getToneCategories()));
+        this.toneIds = PrecomputedPayload.of(objectMapper.writeValueAsBytes(ToneUtils.getToneNamesById()));
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic();
+    }
+
     /**
      * Get all available tones as a flat list.
      *
-     * @return List of all tones
+     * @param ifNoneMatch The entity tag of the client's cached copy, if any
+     * @param acceptEncoding The encodings the client accepts
+     * @return JSON list of all tones, or 304 if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<String>> getAllTones() {
-        return ResponseEntity.ok(ToneUtils.getAllTones());
+    public ResponseEntity<byte[]> getAllTones(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(allTones, ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Get all tone categories with their associated tones.
      *
-     * @return Map of categories and their tones
+     * @param ifNoneMatch The entity tag of the client's cached copy, if any
+     * @param acceptEncoding The encodings the client accepts
+     * @return JSON map of categories and their tones, or 304 if the client's copy is current
      */
     @GetMapping("/categories")
-    public ResponseEntity<Map<String, List<String>>> getToneCategories() {
-        return ResponseEntity.ok(ToneUtils.getToneCategories());
+    public ResponseEntity<byte[]> getToneCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(toneCategories, ifNoneMatch, acceptEncoding);
+    }
+
+    /**
+     * Get the ids that the CBOR and Smile formats send instead of tone and category names.
+     *
+     * @param ifNoneMatch The entity tag of the client's cached copy, if any
+     * @param acceptEncoding The encodings the client accepts
+     * @return JSON list of names, where each name's position is its id, or 304 if the client's copy is current
+     */
+    @GetMapping("/ids")
+    public ResponseEntity<byte[]> getToneIds(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(toneIds, ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> serve(PrecomputedPayload payload, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = PrecomputedPayload.acceptsGzip(acceptEncoding);
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(payload.etag(gzip))
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(payload.etag(gzip))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(payload.body(gzip));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,245 @@
+package com.promptcrafter.history;
+
+import com.promptcrafter.model.HistoryEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JDBC store for the prompt history.
+ * <p>
+ * Entries live in {@code prompt_history}; the words of each input are indexed in
+ * {@code prompt_terms} for search. Every read is a keyset query ({@code id < cursor ORDER BY
+ * id DESC}) served from an index, so fetching a page costs the same on the first page and
+ * the millionth, unlike OFFSET pagination. Tone lists are stored as unbounded
+ * {@code VARCHAR}s, since a request may repeat tones or name many of them.
+ */
+public class HistoryStore {
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS prompt_history ("
+                + "id BIGINT PRIMARY KEY, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "content_type VARCHAR(32) NOT NULL, "
+                + "input_text CHARACTER LARGE OBJECT NOT NULL, "
+                + "selected_tones CHARACTER VARYING, "
+                + "generated_prompt CHARACTER LARGE OBJECT NOT NULL, "
+                + "tones_applied BOOLEAN NOT NULL, "
+                + "applied_tones CHARACTER VARYING)",
+        "CREATE INDEX IF NOT EXISTS prompt_history_recent ON prompt_history (id DESC)",
+        "CREATE INDEX IF NOT EXISTS prompt_history_type ON prompt_history (content_type, id DESC)",
+        "CREATE TABLE IF NOT EXISTS prompt_terms ("
+                + "term VARCHAR(64) NOT NULL, "
+                + "prompt_id BIGINT NOT NULL, "
+                + "PRIMARY KEY (term, prompt_id))",
+        "CREATE INDEX IF NOT EXISTS prompt_terms_recent ON prompt_terms (term, prompt_id DESC)"
+    };
+
+    /** Tone columns that databases created before they were unbounded still cap at 4000 characters. */
+    private static final String[] TONE_COLUMNS = {"SELECTED_TONES", "APPLIED_TONES"};
+
+    private static final String COLUMNS = "h.id, h.created_at, h.content_type, h.input_text, h.selected_tones, "
+            + "h.generated_prompt, h.tones_applied, h.applied_tones";
+
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private static final RowMapper<HistoryEntry> ROW_MAPPER = (rs, rowNum) -> HistoryEntry.builder()
+            .id(rs.getLong("id"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .contentType(rs.getString("content_type"))
+            .inputText(rs.getString("input_text"))
+            .selectedTones(splitTones(rs.getString("selected_tones")))
+            .generatedPrompt(rs.getString("generated_prompt"))
+            .tonesApplied(rs.getBoolean("tones_applied"))
+            .appliedTones(splitTones(rs.getString("applied_tones")))
+            .build();
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final int maxIndexedTerms;
+
+    public HistoryStore(DataSource dataSource, int maxIndexedTerms) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.maxIndexedTerms = maxIndexedTerms;
+    }
+
+    /**
+     * Creates the tables and indexes if they do not exist yet, and lifts the length limit of
+     * the tone columns in tables created with one.
+     */
+    public void initialize() {
+        for (String statement : SCHEMA) {
+            jdbc.execute(statement);
+        }
+        for (String column : TONE_COLUMNS) {
+            Long maxLength = jdbc.queryForObject("SELECT CHARACTER_MAXIMUM_LENGTH FROM INFORMATION_SCHEMA.COLUMNS "
+                    + "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = 'PROMPT_HISTORY' AND COLUMN_NAME = ?",
+                    Long.class, column);
+            if (maxLength != null && maxLength <= 4000) {
+                jdbc.execute("ALTER TABLE prompt_history ALTER COLUMN " + column + " SET DATA TYPE CHARACTER VARYING");
+            }
+        }
+    }
+
+    /**
+     * Gets the highest id stored, so new ids can continue after it.
+     *
+     * @return The highest id, or 0 if the history is empty
+     */
+    public long maxId() {
+        Long max = jdbc.queryForObject("SELECT MAX(id) FROM prompt_history", Long.class);
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * Stores entries and indexes their input text, all in one transaction.
+     *
+     * @param entries The entries to store
+     */
+    public void insertAll(List<HistoryEntry> entries) {
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        List<Object[]> terms = new ArrayList<>();
+        for (HistoryEntry entry : entries) {
+            rows.add(new Object[] {
+                entry.getId(),
+                Timestamp.from(entry.getCreatedAt()),
+                entry.getContentType(),
+                entry.getInputText(),
+                joinTones(entry.getSelectedTones()),
+                entry.getGeneratedPrompt(),
+                entry.isTonesApplied(),
+                joinTones(entry.getAppliedTones())
+            });
+            for (String term : terms(entry.getInputText(), maxIndexedTerms)) {
+                terms.add(new Object[] {term, entry.getId()});
+            }
+        }
+        transactions.executeWithoutResult(status -> {
+            jdbc.batchUpdate("INSERT INTO prompt_history (id, created_at, content_type, input_text, selected_tones, "
+                    + "generated_prompt, tones_applied, applied_tones) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+            jdbc.batchUpdate("INSERT INTO prompt_terms (term, prompt_id) VALUES (?, ?)", terms);
+        });
+    }
+
+    /**
+     * Looks up one entry.
+     *
+     * @param id The entry id
+     * @return The entry, if it exists
+     */
+    public Optional<HistoryEntry> findById(long id) {
+        return jdbc.query("SELECT " + COLUMNS + " FROM prompt_history h WHERE h.id = ?", ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Lists entries newest first.
+     *
+     * @param contentType Only entries of this content type, or null for all
+     * @param before Only entries with a smaller id, or null to start at the newest
+     * @param limit Most entries to return
+     * @return The entries
+     */
+    public List<HistoryEntry> list(String contentType, Long before, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM prompt_history h WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (contentType != null) {
+            sql.append(" AND h.content_type = ?");
+            args.add(contentType);
+        }
+        if (before != null) {
+            sql.append(" AND h.id < ?");
+            args.add(before);
+        }
+        sql.append(" ORDER BY h.id DESC LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Finds entries whose input contains every word of a query, newest first.
+     *
+     * @param query The search text
+     * @param contentType Only entries of this content type, or null for all
+     * @param before Only entries with a smaller id, or null to start at the newest
+     * @param limit Most entries to return
+     * @return The matching entries
+     */
+    public List<HistoryEntry> search(String query, String contentType, Long before, int limit) {
+        List<String> terms = terms(query, MAX_QUERY_TERMS);
+        if (terms.isEmpty()) {
+            return list(contentType, before, limit);
+        }
+        // Drive the query from the longest word, which is usually the rarest
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(" FROM prompt_terms t JOIN prompt_history h ON h.id = t.prompt_id WHERE t.term = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(terms.get(0));
+        if (before != null) {
+            sql.append(" AND t.prompt_id < ?");
+            args.add(before);
+        }
+        for (String term : terms.subList(1, terms.size())) {
+            sql.append(" AND EXISTS (SELECT 1 FROM prompt_terms o WHERE o.term = ? AND o.prompt_id = t.prompt_id)");
+            args.add(term);
+        }
+        if (contentType != null) {
+            sql.append(" AND h.content_type = ?");
+            args.add(contentType);
+        }
+        sql.append(" ORDER BY t.prompt_id DESC LIMIT ?");
+        args.add(limit);
+        return jdbc.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Splits text into distinct lower-case words for indexing and search.
+     *
+     * @param text The text
+     * @param max Most words to return
+     * @return The words in order of first appearance
+     */
+    static List<String> terms(String text, int max) {
+        Set<String> terms = new LinkedHashSet<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length && terms.size() < max) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i - start > 1) {
+                terms.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static String joinTones(List<String> tones) {
+        return tones == null || tones.isEmpty() ? null : String.join(",", tones);
+    }
+
+    private static List<String> splitTones(String tones) {
+        return tones == null || tones.isEmpty() ? List.of() : Arrays.asList(tones.split(","));
+    }
+}
@@ -0,0 +1,174 @@
+package com.promptcrafter.history;
+
+import com.promptcrafter.config.HistoryProperties;
+import com.promptcrafter.model.HistoryEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes history entries in the background.
+ * <p>
+ * Request threads only assign an id and offer the entry to a bounded queue; they never
+ * wait for the database. A single writer thread collects entries until a batch is full or
+ * the flush interval has passed since the first one arrived, then stores the batch in one
+ * transaction. When the queue is full, entries are dropped and counted rather than slowing
+ * down requests.
+ */
+public class HistoryWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryWriter.class);
+
+    /** Ids are milliseconds shifted left by this much, leaving room for 4096 ids per millisecond. */
+    private static final int SEQUENCE_BITS = 12;
+
+    /**
+     * Milliseconds are counted from 2024-01-01 so ids stay below 2^53 for decades and
+     * JavaScript clients read them exactly.
+     */
+    private static final long ID_EPOCH_MILLIS = 1_704_067_200_000L;
+
+    private final HistoryStore store;
+    private final BlockingQueue<HistoryEntry> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final AtomicLong lastId;
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter dropped;
+    private final Counter failed;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public HistoryWriter(HistoryStore store, HistoryProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.lastId = new AtomicLong(store.maxId());
+        this.dropped = Counter.builder("promptcrafter.history.dropped")
+                .description("History entries dropped because the write queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("promptcrafter.history.write.failures")
+                .description("History entries lost because a batch could not be written")
+                .register(meterRegistry);
+        Gauge.builder("promptcrafter.history.queue.size", queue, BlockingQueue::size)
+                .description("History entries waiting to be written")
+                .register(meterRegistry);
+        this.thread = new Thread(this::run, "history-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Allocates an id. Ids are unique and increase with time, also across restarts.
+     *
+     * @return The new id
+     */
+    public long nextId() {
+        long candidate = (System.currentTimeMillis() - ID_EPOCH_MILLIS) << SEQUENCE_BITS;
+        return lastId.accumulateAndGet(candidate, (last, now) -> Math.max(last + 1, now));
+    }
+
+    /**
+     * Queues an entry for writing without blocking.
+     *
+     * @param entry The entry, with its id assigned
+     * @return True if the entry was queued, false if it was dropped
+     */
+    public boolean offer(HistoryEntry entry) {
+        pending.incrementAndGet();
+        if (running && queue.offer(entry)) {
+            return true;
+        }
+        pending.decrementAndGet();
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * Waits until every queued entry has been written or failed.
+     *
+     * @param timeout How long to wait
+     * @return True if nothing is pending any more
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitWritten(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting entries, writes those still queued and stops the writer thread.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        // Not interrupted: an interrupt during a write would close H2's file channel
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void run() {
+        List<HistoryEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                HistoryEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            write(batch);
+        }
+    }
+
+    private void fill(List<HistoryEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            HistoryEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<HistoryEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            store.insertAll(batch);
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Could not write {} history entries", batch.size(), e);
+        } finally {
+            pending.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
+}
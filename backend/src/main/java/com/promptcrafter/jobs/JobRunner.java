@@ -0,0 +1,382 @@
+package com.promptcrafter.jobs;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.promptcrafter.config.JobProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.JobResultPage;
+import com.promptcrafter.model.JobStatus;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs generation jobs in the background.
+ * <p>
+ * A submitted job is written to the {@link JobStore} in full before it starts, so it
+ * survives restarts. A dispatcher thread then reads each job's pending items in chunks and
+ * hands them to a work-stealing pool: a chunk splits itself in halves down to a few items,
+ * so idle workers steal work from busy ones when items differ in cost. Each chunk's results
+ * are stored in one transaction. On startup, jobs that were still running are resumed from
+ * their pending items, so items whose results were stored are never processed again; at
+ * most the chunks that were in flight during a crash are repeated. A chunk whose results
+ * cannot be stored queues its job again, so its items are retried instead of staying
+ * pending until the next restart.
+ */
+public class JobRunner implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRunner.class);
+
+    /** Items a chunk processes itself instead of splitting further. */
+    private static final int SPLIT_THRESHOLD = 4;
+
+    /** Items stored per insert batch while a job is received. */
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final JobStore store;
+    private final PromptService promptService;
+    private final ObjectReader requestReader;
+    private final ObjectWriter requestWriter;
+    private final ObjectReader responseReader;
+    private final ObjectWriter responseWriter;
+    private final int chunkSize;
+    private final int maxItems;
+    private final ForkJoinPool pool;
+    private final Semaphore chunkPermits;
+    private final BlockingQueue<UUID> queuedJobs = new LinkedBlockingQueue<>();
+    private final Counter itemsCompleted;
+    private final Counter itemsFailed;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public JobRunner(JobStore store, PromptService promptService, ObjectMapper objectMapper,
+                     JobProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.promptService = promptService;
+        this.requestReader = objectMapper.readerFor(PromptRequest.class);
+        this.requestWriter = objectMapper.writerFor(PromptRequest.class);
+        // Stored prompts can be longer than the input limit the web mapper enforces
+        ObjectMapper storageMapper = objectMapper.copy();
+        storageMapper.getFactory().setStreamReadConstraints(StreamReadConstraints.defaults());
+        this.responseReader = storageMapper.readerFor(PromptResponse.class);
+        this.responseWriter = storageMapper.writerFor(PromptResponse.class);
+        this.chunkSize = properties.getChunkSize();
+        this.maxItems = properties.getMaxItems();
+        this.pool = new ForkJoinPool(properties.getParallelism(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("job-worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.chunkPermits = new Semaphore(properties.getMaxChunksInFlight());
+        this.itemsCompleted = Counter.builder("promptcrafter.jobs.items.completed")
+                .description("Job items that produced a prompt")
+                .register(meterRegistry);
+        this.itemsFailed = Counter.builder("promptcrafter.jobs.items.failed")
+                .description("Job items that failed")
+                .register(meterRegistry);
+        this.dispatcher = new Thread(this::dispatch, "job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Queues the jobs that were running when the application last stopped.
+     *
+     * @return The number of jobs resumed
+     */
+    public int resumeUnfinished() {
+        List<UUID> unfinished = store.jobIds(JobStore.RUNNING);
+        queuedJobs.addAll(unfinished);
+        if (!unfinished.isEmpty()) {
+            log.info("Resuming {} unfinished generation jobs", unfinished.size());
+        }
+        return unfinished.size();
+    }
+
+    /**
+     * Stores a job and queues it for processing.
+     *
+     * @param requests The prompt requests
+     * @return The status of the new job
+     * @throws IllegalArgumentException if there are more requests than a job may hold
+     */
+    public JobStatus submit(List<PromptRequest> requests) {
+        if (requests == null || requests.size() > maxItems) {
+            throw new IllegalArgumentException("A job holds between 0 and " + maxItems + " requests");
+        }
+        UUID jobId = create();
+        try {
+            List<String> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (int i = 0; i < requests.size(); i++) {
+                batch.add(requestWriter.writeValueAsString(requests.get(i)));
+                if (batch.size() == INSERT_BATCH_SIZE || i == requests.size() - 1) {
+                    store.addItems(jobId, i + 1 - batch.size(), batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            store.delete(jobId);
+            throw e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+        }
+        return start(jobId, requests.size());
+    }
+
+    /**
+     * Stores a job read from newline-delimited JSON, one {@link PromptRequest} per line, and
+     * queues it for processing. Lines are stored as they are read; a line that is not a
+     * valid request fails when its item is processed.
+     *
+     * @param ndjson The request lines; read to the end but not closed
+     * @return The status of the new job
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if there are more lines than a job may hold
+     */
+    public JobStatus submit(InputStream ndjson) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        UUID jobId = create();
+        int count = 0;
+        try {
+            List<String> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (count == maxItems) {
+                    throw new IllegalArgumentException("A job holds at most " + maxItems + " requests");
+                }
+                batch.add(line);
+                count++;
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    store.addItems(jobId, count - batch.size(), batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                store.addItems(jobId, count - batch.size(), batch);
+            }
+        } catch (IOException | RuntimeException e) {
+            store.delete(jobId);
+            throw e;
+        }
+        return start(jobId, count);
+    }
+
+    /**
+     * Gets the progress of a job.
+     *
+     * @param jobId The job id
+     * @return The job status, if the job exists
+     */
+    public Optional<JobStatus> status(UUID jobId) {
+        return store.find(jobId);
+    }
+
+    /**
+     * Gets a page of a job's results, in the order the items finished.
+     *
+     * @param jobId The job id
+     * @param after Cursor from the previous page, or 0 to start at the first result
+     * @param limit Page size
+     * @return The page, if the job exists
+     */
+    public Optional<JobResultPage> results(UUID jobId, long after, int limit) {
+        // Read the status first: if the job was completed by then, every result is already stored
+        Optional<JobStatus> status = store.find(jobId);
+        if (status.isEmpty()) {
+            return Optional.empty();
+        }
+        List<JobStore.StoredResult> rows = store.results(jobId, after, limit);
+        List<BatchItemResult> items = new ArrayList<>(rows.size());
+        for (JobStore.StoredResult row : rows) {
+            items.add(BatchItemResult.builder()
+                    .index(row.index())
+                    .response(row.response() != null ? readResponse(row.response()) : null)
+                    .error(row.error())
+                    .build());
+        }
+        boolean finished = JobStore.COMPLETED.equals(status.get().getStatus()) && rows.size() < limit;
+        long cursor = rows.isEmpty() ? after : rows.get(rows.size() - 1).seq();
+        return Optional.of(JobResultPage.builder()
+                .items(items)
+                .nextCursor(finished ? null : cursor)
+                .build());
+    }
+
+    /**
+     * Deletes a job and its results. Items of the job still being processed are discarded.
+     *
+     * @param jobId The job id
+     * @return True if the job existed
+     */
+    public boolean delete(UUID jobId) {
+        return store.delete(jobId);
+    }
+
+    /**
+     * Stops dispatching, lets the chunks in flight finish and store their results, and stops
+     * the workers. Pending items are processed when the job is resumed.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        // Not interrupted: an interrupt during a write would close H2's file channel
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private UUID create() {
+        // Random rather than sequential, so a job's id cannot be guessed from another one
+        UUID jobId = UUID.randomUUID();
+        store.createJob(jobId, Instant.now());
+        return jobId;
+    }
+
+    private JobStatus start(UUID jobId, int itemCount) {
+        store.startJob(jobId, itemCount);
+        if (itemCount > 0) {
+            queuedJobs.add(jobId);
+        }
+        return store.find(jobId).orElseThrow();
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                UUID jobId = queuedJobs.poll(100, TimeUnit.MILLISECONDS);
+                if (jobId != null) {
+                    dispatch(jobId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Could not dispatch a generation job; it resumes on the next start", e);
+            }
+        }
+    }
+
+    private void dispatch(UUID jobId) throws InterruptedException {
+        int after = -1;
+        while (running) {
+            // A deleted job has no pending items left, which ends its dispatch
+            List<JobStore.PendingItem> items = store.pendingItems(jobId, after, chunkSize);
+            if (items.isEmpty()) {
+                return;
+            }
+            chunkPermits.acquire();
+            pool.execute(new Chunk(jobId, items));
+            after = items.get(items.size() - 1).index();
+        }
+    }
+
+    private JobStore.ItemOutcome process(JobStore.PendingItem item) {
+        try {
+            PromptRequest request = requestReader.readValue(item.request());
+            PromptResponse response = promptService.generatePrompt(request);
+            return new JobStore.ItemOutcome(item.index(), responseWriter.writeValueAsString(response), null);
+        } catch (IOException | RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new JobStore.ItemOutcome(item.index(), null, message);
+        }
+    }
+
+    private PromptResponse readResponse(String json) {
+        try {
+            return responseReader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Stored job result is not a valid response", e);
+        }
+    }
+
+    /**
+     * The items of one chunk, processed in parallel and then stored together.
+     */
+    private final class Chunk extends RecursiveAction {
+
+        private final UUID jobId;
+        private final List<JobStore.PendingItem> items;
+
+        Chunk(UUID jobId, List<JobStore.PendingItem> items) {
+            this.jobId = jobId;
+            this.items = items;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                JobStore.ItemOutcome[] outcomes = new JobStore.ItemOutcome[items.size()];
+                new Part(items, outcomes, 0, items.size()).invoke();
+                store.completeItems(jobId, Arrays.asList(outcomes));
+                for (JobStore.ItemOutcome outcome : outcomes) {
+                    (outcome.error() == null ? itemsCompleted : itemsFailed).increment();
+                }
+            } catch (RuntimeException e) {
+                // The dispatcher has moved past these items; dispatching the job again picks them up
+                log.warn("Could not store the results of {} items of job {}; they are processed again",
+                        items.size(), jobId, e);
+                if (!queuedJobs.contains(jobId)) {
+                    queuedJobs.add(jobId);
+                }
+            } finally {
+                chunkPermits.release();
+            }
+        }
+    }
+
+    /**
+     * A range of a chunk's items, split in halves so idle workers can steal one.
+     */
+    private final class Part extends RecursiveAction {
+
+        private final List<JobStore.PendingItem> items;
+        private final JobStore.ItemOutcome[] outcomes;
+        private final int from;
+        private final int to;
+
+        Part(List<JobStore.PendingItem> items, JobStore.ItemOutcome[] outcomes, int from, int to) {
+            this.items = items;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    outcomes[i] = process(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Part(items, outcomes, from, middle), new Part(items, outcomes, middle, to));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.promptcrafter.jobs;
+
+import com.promptcrafter.model.JobStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JDBC store for generation jobs, their items and their results.
+ * <p>
+ * A job is stored in {@code prompt_jobs} with its progress counters and each of its items in
+ * {@code prompt_job_items}, holding the request as JSON until a result replaces it. Items
+ * start out pending; storing a result marks the item done or failed and bumps the job's
+ * counters in the same transaction, so after a crash the pending items are exactly those
+ * still to process. Completed items get an increasing sequence number, which result pages
+ * use as their keyset cursor: results are read in completion order, and since they are
+ * committed one batch at a time in that order, a reader following the cursor never skips
+ * a result that is committed later.
+ * <p>
+ * Requests and responses are stored inline as unbounded {@code VARCHAR}s rather than as
+ * {@code CLOB}s: they are rewritten once per item, which H2's separate LOB storage turns
+ * into garbage that has to be compacted. Job ids are random UUIDs, since they are all a
+ * client needs to read or delete a job. Both queries order by the full index prefix so
+ * H2 reads the index in order instead of sorting every remaining item of the job.
+ */
+public class JobStore {
+
+    /** The job is still receiving its items; it is discarded if the upload never finishes. */
+    public static final String RECEIVING = "receiving";
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+
+    private static final String PENDING = "pending";
+    private static final String DONE = "done";
+    private static final String FAILED = "failed";
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS prompt_jobs ("
+                + "id UUID PRIMARY KEY, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "finished_at TIMESTAMP, "
+                + "status VARCHAR(16) NOT NULL, "
+                + "item_count INT NOT NULL, "
+                + "completed_count INT NOT NULL, "
+                + "failed_count INT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS prompt_job_items ("
+                + "job_id UUID NOT NULL, "
+                + "item_index INT NOT NULL, "
+                + "status VARCHAR(8) NOT NULL, "
+                + "seq BIGINT, "
+                + "request CHARACTER VARYING, "
+                + "response CHARACTER VARYING, "
+                + "error VARCHAR(1000), "
+                + "PRIMARY KEY (job_id, item_index))",
+        "CREATE INDEX IF NOT EXISTS prompt_job_items_results ON prompt_job_items (job_id, seq)"
+    };
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final RowMapper<JobStatus> STATUS_MAPPER = (rs, rowNum) -> {
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        return JobStatus.builder()
+                .id(rs.getObject("id", UUID.class))
+                .status(rs.getString("status"))
+                .itemCount(rs.getInt("item_count"))
+                .completedCount(rs.getInt("completed_count"))
+                .failedCount(rs.getInt("failed_count"))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .finishedAt(finishedAt != null ? finishedAt.toInstant() : null)
+                .build();
+    };
+
+    /**
+     * A pending item: its position in the job and its request as JSON.
+     */
+    public record PendingItem(int index, String request) {
+    }
+
+    /**
+     * The outcome of one item: the response as JSON, or the reason it failed.
+     */
+    public record ItemOutcome(int index, String response, String error) {
+    }
+
+    /**
+     * A stored result: its sequence number, position in the job, and response JSON or error.
+     */
+    public record StoredResult(long seq, int index, String response, String error) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private long lastSeq;
+
+    public JobStore(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Creates the tables and indexes if they do not exist yet, and drops jobs whose upload
+     * was interrupted.
+     */
+    public void initialize() {
+        for (String statement : SCHEMA) {
+            jdbc.execute(statement);
+        }
+        for (UUID id : jobIds(RECEIVING)) {
+            delete(id);
+        }
+        Long max = jdbc.queryForObject("SELECT MAX(seq) FROM prompt_job_items", Long.class);
+        synchronized (this) {
+            lastSeq = max != null ? max : 0L;
+        }
+    }
+
+    /**
+     * Creates a job that is receiving its items.
+     *
+     * @param id The job id
+     * @param createdAt When the job was submitted
+     */
+    public void createJob(UUID id, Instant createdAt) {
+        jdbc.update("INSERT INTO prompt_jobs (id, created_at, status, item_count, completed_count, failed_count) "
+                + "VALUES (?, ?, ?, 0, 0, 0)", id, Timestamp.from(createdAt), RECEIVING);
+    }
+
+    /**
+     * Stores pending items of a job that is receiving its items.
+     *
+     * @param jobId The job id
+     * @param firstIndex The index of the first item
+     * @param requests The requests as JSON, in order
+     */
+    public void addItems(UUID jobId, int firstIndex, List<String> requests) {
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            rows.add(new Object[] {jobId, firstIndex + i, PENDING, requests.get(i)});
+        }
+        jdbc.batchUpdate("INSERT INTO prompt_job_items (job_id, item_index, status, request) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Marks a job as fully received, so it can run and survives restarts.
+     *
+     * @param jobId The job id
+     * @param itemCount The number of items received
+     */
+    public void startJob(UUID jobId, int itemCount) {
+        // A job without items is complete as soon as it is received
+        Timestamp finishedAt = itemCount == 0 ? Timestamp.from(Instant.now()) : null;
+        jdbc.update("UPDATE prompt_jobs SET status = ?, item_count = ?, finished_at = ? WHERE id = ?",
+                finishedAt != null ? COMPLETED : RUNNING, itemCount, finishedAt, jobId);
+    }
+
+    /**
+     * Gets the ids of the jobs in a state, oldest first.
+     *
+     * @param status The job status
+     * @return The job ids
+     */
+    public List<UUID> jobIds(String status) {
+        return jdbc.queryForList("SELECT id FROM prompt_jobs WHERE status = ? ORDER BY created_at", UUID.class, status);
+    }
+
+    /**
+     * Looks up the progress of a job.
+     *
+     * @param jobId The job id
+     * @return The job status, if the job exists
+     */
+    public Optional<JobStatus> find(UUID jobId) {
+        return jdbc.query("SELECT * FROM prompt_jobs WHERE id = ?", STATUS_MAPPER, jobId).stream().findFirst();
+    }
+
+    /**
+     * Lists pending items of a job in index order.
+     *
+     * @param jobId The job id
+     * @param afterIndex Only items with a larger index
+     * @param limit Most items to return
+     * @return The pending items
+     */
+    public List<PendingItem> pendingItems(UUID jobId, int afterIndex, int limit) {
+        return jdbc.query("SELECT item_index, request FROM prompt_job_items "
+                        + "WHERE job_id = ? AND item_index > ? AND status = ? ORDER BY job_id, item_index LIMIT ?",
+                (rs, rowNum) -> new PendingItem(rs.getInt("item_index"), rs.getString("request")),
+                jobId, afterIndex, PENDING, limit);
+    }
+
+    /**
+     * Stores the outcomes of pending items and updates the job's progress in one transaction.
+     * Items that are no longer pending, or belong to a deleted job, are left alone.
+     *
+     * @param jobId The job id
+     * @param outcomes The item outcomes
+     */
+    public synchronized void completeItems(UUID jobId, List<ItemOutcome> outcomes) {
+        // Sequence numbers are taken under the lock, so they are committed in increasing order
+        long seq = lastSeq;
+        List<Object[]> rows = new ArrayList<>(outcomes.size());
+        for (ItemOutcome outcome : outcomes) {
+            String error = outcome.error();
+            if (error != null && error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+            rows.add(new Object[] {outcome.error() == null ? DONE : FAILED, ++seq, outcome.response(), error,
+                    jobId, outcome.index(), PENDING});
+        }
+        transactions.executeWithoutResult(status -> {
+            int[] updated = jdbc.batchUpdate("UPDATE prompt_job_items SET status = ?, seq = ?, request = NULL, "
+                    + "response = ?, error = ? WHERE job_id = ? AND item_index = ? AND status = ?", rows);
+            int completed = 0;
+            int failed = 0;
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] > 0) {
+                    if (outcomes.get(i).error() == null) {
+                        completed++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+            jdbc.update("UPDATE prompt_jobs SET completed_count = completed_count + ?, "
+                    + "failed_count = failed_count + ? WHERE id = ?", completed, failed, jobId);
+            jdbc.update("UPDATE prompt_jobs SET status = ?, finished_at = CURRENT_TIMESTAMP "
+                    + "WHERE id = ? AND status = ? AND completed_count + failed_count >= item_count",
+                    COMPLETED, jobId, RUNNING);
+        });
+        lastSeq = seq;
+    }
+
+    /**
+     * Lists stored results of a job in completion order.
+     *
+     * @param jobId The job id
+     * @param afterSeq Only results with a larger sequence number
+     * @param limit Most results to return
+     * @return The results
+     */
+    public List<StoredResult> results(UUID jobId, long afterSeq, int limit) {
+        return jdbc.query("SELECT seq, item_index, response, error FROM prompt_job_items "
+                        + "WHERE job_id = ? AND seq > ? ORDER BY job_id, seq LIMIT ?",
+                (rs, rowNum) -> new StoredResult(rs.getLong("seq"), rs.getInt("item_index"),
+                        rs.getString("response"), rs.getString("error")),
+                jobId, afterSeq, limit);
+    }
+
+    /**
+     * Deletes a job with its items and results.
+     *
+     * @param jobId The job id
+     * @return True if the job existed
+     */
+    public boolean delete(UUID jobId) {
+        Integer deleted = transactions.execute(status -> {
+            jdbc.update("DELETE FROM prompt_job_items WHERE job_id = ?", jobId);
+            return jdbc.update("DELETE FROM prompt_jobs WHERE id = ?", jobId);
+        });
+        return deleted != null && deleted > 0;
+    }
+}
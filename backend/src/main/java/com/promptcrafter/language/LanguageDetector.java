@@ -0,0 +1,326 @@
+package com.promptcrafter.language;
+
+import com.promptcrafter.util.CaseFolding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tells which of a few languages a text is written in from its character trigrams.
+ * <p>
+ * Each language is profiled from a sample text: every word is padded with a space on both
+ * sides and split into overlapping trigrams of case-folded letters, and the trigram counts
+ * give a naive Bayes model with add-one smoothing. Detection scores only the first
+ * {@value #MAX_SCAN_LENGTH} characters of the input, which keeps the cost independent of
+ * the input size, and stops as soon as one language is far enough ahead of all others,
+ * which for ordinary sentences happens within the first few words. Each profiled trigram
+ * is scored once, so a word repeated over and over cannot outvote the rest of the input.
+ * Short inputs share most of their trigrams between languages, so unless the best
+ * language ends up at least {@value #MIN_LEAD} ahead of the runner-up, detection gives up
+ * and the caller keeps its fallback language.
+ * <p>
+ * Every profiled trigram has a row of per-language weights. Trigrams of ASCII letters
+ * find their row by direct indexing, and all others through an open-addressing table
+ * keyed by the three characters packed into a {@code long}, so scoring neither boxes nor
+ * hashes in the common case. Instances are immutable and safe to share between threads.
+ */
+public final class LanguageDetector {
+
+    /** Most characters of an input that are scored. */
+    public static final int MAX_SCAN_LENGTH = 256;
+
+    /** Inputs with fewer profiled trigrams than this are too short to tell. */
+    private static final int MIN_KNOWN_TRIGRAMS = 3;
+
+    /** Lead in log likelihood over the runner-up below which the language is too close to tell. */
+    private static final double MIN_LEAD = 4.0;
+
+    /** Profiled trigrams to score between checks whether one language is decisively ahead. */
+    private static final int DECISION_INTERVAL = 8;
+
+    /** Lead in log likelihood over the runner-up that ends detection early. */
+    private static final double DECISIVE_LEAD = 8.0;
+
+    /** Symbols of ASCII trigrams: the padding space and the letters a to z. */
+    private static final int ASCII_SYMBOLS = 27;
+
+    /** Symbol of each ASCII character, or -1 if it is neither a lowercase letter nor a space. */
+    private static final byte[] ASCII_SYMBOL = new byte[128];
+
+    /** Letters of the ASCII range, so the common case skips the Unicode tables. */
+    private static final boolean[] ASCII_LETTERS = new boolean[128];
+
+    static {
+        Arrays.fill(ASCII_SYMBOL, (byte) -1);
+        ASCII_SYMBOL[' '] = 0;
+        for (char c = 'a'; c <= 'z'; c++) {
+            ASCII_SYMBOL[c] = (byte) (c - 'a' + 1);
+        }
+        for (char c = 0; c < 128; c++) {
+            ASCII_LETTERS[c] = Character.isLetter(c);
+        }
+    }
+
+    /**
+     * Receives the trigrams of a profile.
+     */
+    @FunctionalInterface
+    private interface TrigramVisitor {
+
+        void visit(char first, char second, char third);
+    }
+
+    private final int languageCount;
+    private final int rowCount;
+
+    /** Row of each ASCII trigram by {@link #asciiIndex}, or -1 if it is not profiled. */
+    private final int[] asciiRows;
+
+    /** Other trigrams packed into a {@code long}, and their rows. */
+    private final long[] keys;
+    private final int[] keyRows;
+    private final int mask;
+    private final int shift;
+
+    /** {@code weights[row * languageCount + language]}: the log of the trigram's count plus one. */
+    private final float[] weights;
+
+    /** Log probability of an unseen trigram per language. */
+    private final double[] unseenWeights;
+
+    private LanguageDetector(List<String> profiles) {
+        this.languageCount = profiles.size();
+        Map<Long, Integer> rows = new HashMap<>();
+        List<int[]> counts = new ArrayList<>();
+        long[] totals = new long[languageCount];
+        for (int language = 0; language < languageCount; language++) {
+            int current = language;
+            String profile = profiles.get(language);
+            scan(profile, (first, second, third) -> {
+                int row = rows.computeIfAbsent(pack(first, second, third), key -> {
+                    counts.add(new int[languageCount]);
+                    return counts.size() - 1;
+                });
+                counts.get(row)[current]++;
+                totals[current]++;
+            });
+        }
+        this.rowCount = counts.size();
+
+        // P(t | language) = (count + 1) / (total + distinct), so a profiled trigram adds
+        // log(count + 1) on top of the unseen weight every trigram gets
+        this.unseenWeights = new double[languageCount];
+        for (int language = 0; language < languageCount; language++) {
+            unseenWeights[language] = -Math.log(totals[language] + rowCount);
+        }
+        this.weights = new float[rowCount * languageCount];
+        for (int row = 0; row < rowCount; row++) {
+            for (int language = 0; language < languageCount; language++) {
+                weights[row * languageCount + language] = (float) Math.log1p(counts.get(row)[language]);
+            }
+        }
+
+        this.asciiRows = new int[ASCII_SYMBOLS * ASCII_SYMBOLS * ASCII_SYMBOLS];
+        Arrays.fill(asciiRows, -1);
+        int capacity = Integer.highestOneBit(Math.max(4, rowCount * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.keyRows = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.numberOfLeadingZeros(mask);
+        for (Map.Entry<Long, Integer> entry : rows.entrySet()) {
+            long key = entry.getKey();
+            int asciiIndex = asciiIndex((char) (key >>> 32), (char) (key >>> 16), (char) key);
+            if (asciiIndex >= 0) {
+                asciiRows[asciiIndex] = entry.getValue();
+            } else {
+                int slot = slot(key);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                keyRows[slot] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * Profiles languages from sample texts.
+     *
+     * @param profiles One sample text per language; the index of a sample identifies its language
+     * @return The detector
+     */
+    public static LanguageDetector of(List<String> profiles) {
+        return new LanguageDetector(profiles);
+    }
+
+    /**
+     * Detects the language of a range of text.
+     *
+     * @param text The text
+     * @param from The first offset to consider (inclusive)
+     * @param to The last offset to consider (exclusive)
+     * @return The index of the most likely language, or -1 if the text is too short or too
+     *         ambiguous to tell
+     */
+    public int detect(CharSequence text, int from, int to) {
+        double[] scores = new double[languageCount];
+        long[] scored = new long[(rowCount + Long.SIZE - 1) / Long.SIZE];
+        int trigrams = 0;
+        int known = 0;
+        // The same words and padding as scan(), inlined so the hot loop makes no calls
+        char first = 0;
+        char second = 0;
+        int end = Math.min(to, from + MAX_SCAN_LENGTH);
+        for (int i = from; i <= end; i++) {
+            // A space past the end closes the last word
+            char c = i < end ? text.charAt(i) : ' ';
+            boolean letter = c < 128 ? ASCII_LETTERS[c] : Character.isLetter(c);
+            if (!letter && second == 0) {
+                continue;
+            }
+            if (letter) {
+                c = CaseFolding.fold(c);
+                if (second == 0) {
+                    // A word starts: its first trigram needs one more letter
+                    first = ' ';
+                    second = c;
+                    continue;
+                }
+            } else {
+                c = ' ';
+            }
+            trigrams++;
+            int row = row(first, second, c);
+            if (c == ' ') {
+                second = 0;
+            } else {
+                first = second;
+                second = c;
+            }
+            if (row < 0 || (scored[row >>> 6] & 1L << row) != 0) {
+                continue;
+            }
+            scored[row >>> 6] |= 1L << row;
+            int offset = row * languageCount;
+            for (int language = 0; language < languageCount; language++) {
+                scores[language] += weights[offset + language];
+            }
+            if (++known % DECISION_INTERVAL == 0 && lead(scores, trigrams) >= DECISIVE_LEAD) {
+                break;
+            }
+        }
+        if (known < MIN_KNOWN_TRIGRAMS || lead(scores, trigrams) < MIN_LEAD) {
+            return -1;
+        }
+        int best = 0;
+        for (int language = 1; language < languageCount; language++) {
+            if (score(scores, trigrams, language) > score(scores, trigrams, best)) {
+                best = language;
+            }
+        }
+        return best;
+    }
+
+    private double score(double[] scores, int trigrams, int language) {
+        return scores[language] + trigrams * unseenWeights[language];
+    }
+
+    /**
+     * Gets how far the best language is ahead of the runner-up.
+     */
+    private double lead(double[] scores, int trigrams) {
+        double best = Double.NEGATIVE_INFINITY;
+        double second = Double.NEGATIVE_INFINITY;
+        for (int language = 0; language < languageCount; language++) {
+            double score = score(scores, trigrams, language);
+            if (score > best) {
+                second = best;
+                best = score;
+            } else if (score > second) {
+                second = score;
+            }
+        }
+        return best - second;
+    }
+
+    /**
+     * Finds the weight row of a trigram.
+     *
+     * @return The row, or -1 if the trigram is not profiled
+     */
+    private int row(char first, char second, char third) {
+        int asciiIndex = asciiIndex(first, second, third);
+        if (asciiIndex >= 0) {
+            return asciiRows[asciiIndex];
+        }
+        long key = pack(first, second, third);
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return keyRows[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Gets the index of a trigram of ASCII letters and spaces in {@link #asciiRows}.
+     *
+     * @return The index, or -1 for any other trigram
+     */
+    private static int asciiIndex(char first, char second, char third) {
+        if ((first | second | third) >= 128) {
+            return -1;
+        }
+        int a = ASCII_SYMBOL[first];
+        int b = ASCII_SYMBOL[second];
+        int c = ASCII_SYMBOL[third];
+        if ((a | b | c) < 0) {
+            return -1;
+        }
+        return (a * ASCII_SYMBOLS + b) * ASCII_SYMBOLS + c;
+    }
+
+    /**
+     * Reports the trigrams of every word of a profile, folding case on the fly. A word is a
+     * run of letters; the space padding it on both sides takes part in its first and last
+     * trigram.
+     */
+    private static void scan(String text, TrigramVisitor visitor) {
+        // The two characters before the current one; 0 before the start of a word
+        char first = 0;
+        char second = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128 ? ASCII_LETTERS[c] : Character.isLetter(c)) {
+                c = CaseFolding.fold(c);
+                if (second == 0) {
+                    second = ' ';
+                } else {
+                    visitor.visit(first, second, c);
+                }
+                first = second;
+                second = c;
+            } else if (second != 0) {
+                visitor.visit(first, second, ' ');
+                first = 0;
+                second = 0;
+            }
+        }
+        if (second != 0) {
+            visitor.visit(first, second, ' ');
+        }
+    }
+
+    private static long pack(char first, char second, char third) {
+        return (long) first << 32 | (long) second << 16 | third;
+    }
+}
@@ -0,0 +1,166 @@
+package com.promptcrafter.language;
+
+import com.promptcrafter.util.KeywordAutomaton;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The keywords that prompt analysis and keyword classification use for one language,
+ * compiled into matchers when the pack is loaded.
+ * <p>
+ * A pack is read from a {@code <code>.properties} file in UTF-8, where every list is
+ * comma-separated:
+ * <pre>
+ * name=English
+ * task.prefixes=can you, could you, please
+ * context.indicators=for, because, since
+ * tone.cues=tone, style, voice
+ * keywords.communication=email, letter, message
+ * keywords.technical=code, api, database
+ * </pre>
+ * Task prefixes are dropped from the start of the input. Context indicators are listed in
+ * priority order and only match as whole words; the first one present starts the context.
+ * Keywords and cues match anywhere, ignoring case. Instances are immutable and safe to
+ * share between threads.
+ */
+public final class LanguagePack {
+
+    /** Category of communication keywords in {@link #contentKeywords()}. */
+    public static final int COMMUNICATION_CATEGORY = 0;
+
+    /** Category of technical keywords in {@link #contentKeywords()}. */
+    public static final int TECHNICAL_CATEGORY = 1;
+
+    private final int index;
+    private final String code;
+    private final String name;
+    private final Locale locale;
+    private final KeywordAutomaton taskPrefixes;
+    private final KeywordAutomaton contextIndicators;
+    private final KeywordAutomaton toneCues;
+    private final KeywordAutomaton contentKeywords;
+
+    private LanguagePack(int index, String code, String name, List<String> taskPrefixes,
+                         List<String> contextIndicators, List<String> toneCues,
+                         List<String> communicationKeywords, List<String> technicalKeywords) {
+        this.index = index;
+        this.code = code;
+        this.name = name;
+        this.locale = Locale.forLanguageTag(code);
+        this.taskPrefixes = KeywordAutomaton.compile(taskPrefixes);
+        // One category per indicator, so the category doubles as its priority
+        List<List<String>> indicatorGroups = new ArrayList<>();
+        for (String indicator : contextIndicators) {
+            indicatorGroups.add(Collections.singletonList(" " + indicator + " "));
+        }
+        this.contextIndicators = KeywordAutomaton.compile(indicatorGroups);
+        this.toneCues = KeywordAutomaton.compile(toneCues);
+        this.contentKeywords = KeywordAutomaton.compile(Arrays.asList(communicationKeywords, technicalKeywords));
+    }
+
+    /**
+     * Compiles a pack from its properties.
+     *
+     * @param index The position of the pack in its registry
+     * @param code The language code, a BCP 47 language tag
+     * @param properties The pack's properties
+     * @return The compiled pack
+     * @throws IllegalArgumentException if a list is missing or invalid
+     */
+    static LanguagePack of(int index, String code, Properties properties) {
+        return new LanguagePack(index, code, properties.getProperty("name", code),
+                list(properties, "task.prefixes"), list(properties, "context.indicators"),
+                list(properties, "tone.cues"), list(properties, "keywords.communication"),
+                list(properties, "keywords.technical"));
+    }
+
+    private static List<String> list(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        List<String> entries = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) {
+                entries.add(entry.strip());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the position of the pack in its registry, for callers that cache per language.
+     *
+     * @return The index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the language code.
+     *
+     * @return The code, such as {@code en}
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the display name of the language.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the locale of the language, for the few case mappings that depend on it.
+     *
+     * @return The locale
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Gets the automaton matching task prefixes.
+     */
+    public KeywordAutomaton taskPrefixes() {
+        return taskPrefixes;
+    }
+
+    /**
+     * Gets the automaton matching the context indicators, each padded with a space on both
+     * sides, with the indicator's priority as its category.
+     */
+    public KeywordAutomaton contextIndicators() {
+        return contextIndicators;
+    }
+
+    /**
+     * Gets the automaton matching tone cues.
+     */
+    public KeywordAutomaton toneCues() {
+        return toneCues;
+    }
+
+    /**
+     * Gets the automaton matching content type keywords, with communication keywords under
+     * {@link #COMMUNICATION_CATEGORY} and technical ones under {@link #TECHNICAL_CATEGORY}.
+     */
+    public KeywordAutomaton contentKeywords() {
+        return contentKeywords;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -0,0 +1,171 @@
+package com.promptcrafter.language;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Holds the compiled language packs and tells which one an input is written in.
+ * <p>
+ * Each pack is read from {@code language/<code>.properties} on the classpath together with
+ * {@code language/<code>.txt}, a sample text its language is recognized by; files of the
+ * same name in a directory take precedence, which also adds packs that are not bundled.
+ * Every pack is compiled once when the registry is created. The first pack is the
+ * fallback for inputs too short or too ambiguous to tell, and with a single pack
+ * detection is skipped altogether.
+ */
+public class LanguagePackRegistry {
+
+    /** Codes of the bundled language packs. */
+    public static final List<String> BUNDLED = List.of("en", "de", "es", "fr", "pt", "tr");
+
+    /** Code of the English pack, the first of the bundled ones. */
+    public static final String ENGLISH = "en";
+
+    static final String CLASSPATH_PREFIX = "language/";
+    static final String PACK_EXTENSION = ".properties";
+    static final String PROFILE_EXTENSION = ".txt";
+
+    private final List<LanguagePack> packs;
+    private final Map<String, LanguagePack> packsByCode;
+    private final LanguageDetector detector;
+
+    /**
+     * Creates a registry.
+     *
+     * @param codes The codes of the packs to load; the first is the fallback
+     * @param directory Directory with additional or overriding packs, or null for bundled packs only
+     * @throws IllegalStateException if a pack is missing or cannot be compiled
+     */
+    public LanguagePackRegistry(List<String> codes, Path directory) {
+        if (codes.isEmpty()) {
+            throw new IllegalStateException("At least one language pack is required");
+        }
+        List<LanguagePack> loaded = new ArrayList<>();
+        Map<String, LanguagePack> byCode = new HashMap<>();
+        List<String> profiles = new ArrayList<>();
+        for (String code : codes) {
+            if (byCode.containsKey(code)) {
+                continue;
+            }
+            LanguagePack pack = load(loaded.size(), code, directory);
+            loaded.add(pack);
+            byCode.put(code, pack);
+            if (codes.size() > 1) {
+                profiles.add(read(code + PROFILE_EXTENSION, directory));
+            }
+        }
+        this.packs = List.copyOf(loaded);
+        this.packsByCode = Map.copyOf(byCode);
+        this.detector = packs.size() > 1 ? LanguageDetector.of(profiles) : null;
+    }
+
+    /**
+     * Gets the registry with all bundled packs, English first, loaded on first use.
+     *
+     * @return The shared registry
+     */
+    public static LanguagePackRegistry standard() {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * Detects the language of a text.
+     *
+     * @param text The text
+     * @return The pack of the most likely language, or the fallback pack
+     */
+    public LanguagePack detect(CharSequence text) {
+        return detect(text, 0, text.length());
+    }
+
+    /**
+     * Detects the language of a range of text.
+     *
+     * @param text The text
+     * @param from The first offset to consider (inclusive)
+     * @param to The last offset to consider (exclusive)
+     * @return The pack of the most likely language, or the fallback pack
+     */
+    public LanguagePack detect(CharSequence text, int from, int to) {
+        if (detector == null) {
+            return packs.get(0);
+        }
+        int language = detector.detect(text, from, to);
+        return packs.get(language >= 0 ? language : 0);
+    }
+
+    /**
+     * Looks up a pack by its code.
+     *
+     * @param code The language code
+     * @return The pack, or null if it is not loaded
+     */
+    public LanguagePack get(String code) {
+        return packsByCode.get(code);
+    }
+
+    /**
+     * Gets the pack used when the language cannot be told.
+     *
+     * @return The fallback pack
+     */
+    public LanguagePack getFallback() {
+        return packs.get(0);
+    }
+
+    /**
+     * Gets all loaded packs, in the order of their indexes.
+     *
+     * @return The packs
+     */
+    public List<LanguagePack> getPacks() {
+        return packs;
+    }
+
+    private static LanguagePack load(int index, String code, Path directory) {
+        String fileName = code + PACK_EXTENSION;
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(read(fileName, directory)));
+            return LanguagePack.of(index, code, properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid language pack " + fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String read(String fileName, Path directory) {
+        if (directory != null && Files.isRegularFile(directory.resolve(fileName))) {
+            try {
+                return Files.readString(directory.resolve(fileName), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + directory.resolve(fileName), e);
+            }
+        }
+        ClassLoader classLoader = LanguagePackRegistry.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(CLASSPATH_PREFIX + fileName)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing language pack resource " + CLASSPATH_PREFIX + fileName);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Bundled {
+
+        static final LanguagePackRegistry INSTANCE = new LanguagePackRegistry(BUNDLED, null);
+    }
+}
@@ -0,0 +1,300 @@
+package com.promptcrafter.live;
+
+import com.promptcrafter.config.LiveSessionProperties;
+import com.promptcrafter.model.LiveEditRequest;
+import com.promptcrafter.model.LivePromptUpdate;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.model.TextEdit;
+import com.promptcrafter.service.impl.IncrementalPrompt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The state of one live-typing client: its input text, the prompt last sent to it and
+ * the event streams that receive prompt updates.
+ * <p>
+ * Edits are applied one request at a time. Each applied request bumps the version and
+ * pushes the difference between the previous and the new prompt to every subscriber, so
+ * an edit costs the size of the change on the wire rather than the size of the prompt.
+ * <p>
+ * Updates are queued while the session is locked and sent afterwards, in version order, by
+ * one publisher task at a time on the publisher executor. A slow subscriber therefore delays
+ * only the events of its own session and never an edit request, and a send that takes longer
+ * than the send timeout drops its subscriber. When the publisher executor turns the session
+ * away, its event streams are ended instead; clients reconnect and start from a snapshot.
+ */
+public class LiveSession {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveSession.class);
+
+    static final String EVENT_NAME = "prompt";
+
+    private final String id;
+    private final IncrementalPrompt prompt;
+    private final int maxLength;
+    private final Executor publisher;
+    private final long sendTimeoutMillis;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<Runnable> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+    /** Set while the queued events are discarded because the publisher executor is full. */
+    private volatile boolean dropping;
+    private long version;
+    private PromptResponse current;
+
+    LiveSession(String id, IncrementalPrompt prompt, int maxLength) {
+        this(id, prompt, maxLength, Runnable::run);
+    }
+
+    LiveSession(String id, IncrementalPrompt prompt, int maxLength, Executor publisher) {
+        this(id, prompt, maxLength, publisher, new LiveSessionProperties().getSendTimeout());
+    }
+
+    LiveSession(String id, IncrementalPrompt prompt, int maxLength, Executor publisher, Duration sendTimeout) {
+        this.id = id;
+        this.prompt = prompt;
+        this.maxLength = maxLength;
+        this.publisher = publisher;
+        this.sendTimeoutMillis = sendTimeout.toMillis();
+        this.current = prompt.render();
+    }
+
+    /**
+     * Gets the session identifier.
+     *
+     * @return The session id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the whole current prompt, as sent to new subscribers.
+     *
+     * @return An update whose prompt edit holds the whole prompt
+     */
+    public synchronized LivePromptUpdate snapshot() {
+        return update(new TextEdit(0, 0, current.getGeneratedPrompt()), true);
+    }
+
+    /**
+     * Applies edits to the input text and pushes the resulting prompt change to subscribers.
+     * The edits are checked before any of them is applied, so a rejected request leaves
+     * the session unchanged.
+     *
+     * @param request The edits and the optional new tone selection
+     * @return The update that was pushed
+     * @throws VersionConflictException if the edits are based on an older version
+     * @throws IllegalArgumentException if an edit is out of range or the text would become too long
+     */
+    public LivePromptUpdate apply(LiveEditRequest request) {
+        LivePromptUpdate update = applyEdits(request);
+        flush();
+        return update;
+    }
+
+    private synchronized LivePromptUpdate applyEdits(LiveEditRequest request) {
+        if (request.getBaseVersion() != null && request.getBaseVersion() != version) {
+            throw new VersionConflictException(request.getBaseVersion(), version);
+        }
+        List<TextEdit> edits = request.getEdits() != null ? request.getEdits() : List.of();
+        int length = prompt.length();
+        for (TextEdit edit : edits) {
+            if (edit.getOffset() < 0 || edit.getDeleteCount() < 0
+                    || edit.getOffset() > length || edit.getDeleteCount() > length - edit.getOffset()) {
+                throw new IllegalArgumentException("Edit [" + edit.getOffset() + ", +" + edit.getDeleteCount()
+                        + ") is outside the text of length " + length);
+            }
+            length += (edit.getText() != null ? edit.getText().length() : 0) - edit.getDeleteCount();
+            if (length > maxLength) {
+                throw new IllegalArgumentException("inputText must be at most " + maxLength + " characters");
+            }
+        }
+        if (request.getSelectedTones() != null) {
+            prompt.setTones(request.getSelectedTones());
+        }
+        for (TextEdit edit : edits) {
+            prompt.edit(edit.getOffset(), edit.getDeleteCount(), edit.getText());
+        }
+        version++;
+        PromptResponse next = prompt.render();
+        TextEdit change = difference(current.getGeneratedPrompt(), next.getGeneratedPrompt());
+        current = next;
+        LivePromptUpdate update = update(change, false);
+        outbox.add(() -> publish(update));
+        return update;
+    }
+
+    /**
+     * Adds an event stream that receives every following update, starting with a snapshot.
+     *
+     * @param emitter The event stream
+     */
+    public void subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        synchronized (this) {
+            // Joins after the updates already queued, which the snapshot includes
+            LivePromptUpdate snapshot = snapshot();
+            outbox.add(() -> {
+                subscribers.add(emitter);
+                send(emitter, snapshot);
+            });
+        }
+        flush();
+    }
+
+    /**
+     * Ends all event streams of the session once the queued updates have been sent.
+     */
+    void close() {
+        outbox.add(() -> {
+            for (SseEmitter emitter : subscribers) {
+                emitter.complete();
+            }
+            subscribers.clear();
+        });
+        flush();
+    }
+
+    /**
+     * Finds the single replacement that turns one text into another, from their common
+     * prefix and suffix. Surrogate pairs are never split.
+     *
+     * @param before The previous text
+     * @param after The new text
+     * @return The replacement
+     */
+    static TextEdit difference(String before, String after) {
+        int limit = Math.min(before.length(), after.length());
+        int prefix = 0;
+        while (prefix < limit && before.charAt(prefix) == after.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(before.charAt(prefix - 1))) {
+            prefix--;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(after.charAt(after.length() - suffix))) {
+            suffix--;
+        }
+        return new TextEdit(prefix, before.length() - prefix - suffix,
+                after.substring(prefix, after.length() - suffix));
+    }
+
+    private LivePromptUpdate update(TextEdit promptEdit, boolean reset) {
+        return LivePromptUpdate.builder()
+                .sessionId(id)
+                .version(version)
+                .reset(reset)
+                .promptEdit(promptEdit)
+                .inputLength(prompt.length())
+                .contentType(current.getContentType())
+                .tonesApplied(current.isTonesApplied())
+                .appliedTones(current.getAppliedTones())
+                .droppedTones(current.getDroppedTones())
+                .build();
+    }
+
+    /**
+     * Starts a publisher task unless one is already running; that one then sends the new updates too.
+     */
+    private void flush() {
+        if (outbox.isEmpty() || !publishing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            publisher.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Saturated or shutting down: end the streams here rather than wait for a publisher
+            log.warn("No publisher available for live session {}, ending its event streams", id);
+            dropping = true;
+            try {
+                drain();
+            } finally {
+                dropping = false;
+            }
+        }
+    }
+
+    private void drain() {
+        do {
+            Runnable task;
+            while ((task = outbox.poll()) != null) {
+                task.run();
+            }
+            publishing.set(false);
+            // An update queued after the last poll but before the reset would otherwise wait for the next edit
+        } while (!outbox.isEmpty() && publishing.compareAndSet(false, true));
+    }
+
+    private void publish(LivePromptUpdate update) {
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, update);
+        }
+    }
+
+    private void send(SseEmitter emitter, LivePromptUpdate update) {
+        if (dropping) {
+            subscribers.remove(emitter);
+            emitter.complete();
+            return;
+        }
+        // Guards the timeout against the send finishing at the same moment
+        AtomicBoolean finished = new AtomicBoolean();
+        Thread sender = Thread.currentThread();
+        // Completed once the send returns, which also cancels the timer
+        CompletableFuture<Void> deadline = new CompletableFuture<>();
+        deadline.orTimeout(sendTimeoutMillis, TimeUnit.MILLISECONDS).exceptionally(timeout -> {
+            synchronized (finished) {
+                if (finished.compareAndSet(false, true)) {
+                    log.debug("Dropping live session subscriber of {}: send timed out", id);
+                    subscribers.remove(emitter);
+                    emitter.completeWithError(new TimeoutException("Sending a live session event timed out"));
+                    // Unblocks a write stuck on a client that stopped reading
+                    sender.interrupt();
+                }
+            }
+            return null;
+        });
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(Long.toString(update.getVersion()))
+                    .data(update, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter callbacks remove it
+            log.debug("Dropping live session subscriber of {}: {}", id, e.getMessage());
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        } finally {
+            deadline.complete(null);
+            synchronized (finished) {
+                if (!finished.compareAndSet(false, true)) {
+                    // Timed out: clear the interrupt so it does not hit the next send on this thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.promptcrafter.live;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.config.LiveSessionProperties;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.service.impl.IncrementalPrompt;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the open live prompt sessions.
+ * <p>
+ * Sessions are closed once they have been idle for the configured timeout, or when the
+ * session limit is reached, least recently used first. The cache's scheduler expires idle
+ * sessions even when no other session is touched, and closing a session ends its event
+ * streams.
+ * <p>
+ * Session events are sent on a fixed pool of publisher threads, at most one per session at a
+ * time, so a stalled subscriber holds up a publisher thread rather than a request thread,
+ * and only until its send times out. Sessions that find the pool and its queue full have
+ * their event streams ended instead of waiting.
+ */
+@Component
+@ConditionalOnProperty(prefix = "promptcrafter.web", name = "mode", havingValue = "servlet", matchIfMissing = true)
+public class LiveSessionRegistry implements DisposableBean {
+
+    private final PromptServiceImpl generator;
+    private final int maxLength;
+    private final ExecutorService publisher;
+    private final Duration sendTimeout;
+    private final Cache<String, LiveSession> sessions;
+
+    @Autowired
+    public LiveSessionRegistry(PromptServiceImpl generator, LiveSessionProperties properties,
+                               InputLimitProperties inputLimits, MeterRegistry meterRegistry) {
+        this(generator, properties, inputLimits, meterRegistry, Ticker.systemTicker());
+    }
+
+    public LiveSessionRegistry(PromptServiceImpl generator, LiveSessionProperties properties,
+                               InputLimitProperties inputLimits, MeterRegistry meterRegistry, Ticker ticker) {
+        this.generator = generator;
+        this.maxLength = inputLimits.getMaxLength();
+        this.publisher = newPublisher(properties);
+        this.sendTimeout = properties.getSendTimeout();
+        this.sessions = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .maximumSize(properties.getMaxSessions())
+                .ticker(ticker)
+                .scheduler(Scheduler.systemScheduler())
+                .<String, LiveSession>removalListener((id, session, cause) -> {
+                    if (session != null) {
+                        session.close();
+                    }
+                })
+                .build();
+        Gauge.builder("promptcrafter.live.sessions", sessions, Cache::estimatedSize)
+                .description("Open live prompt sessions")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a session for an initial input text and tone selection.
+     *
+     * @param request The initial input
+     * @return The new session
+     * @throws IllegalArgumentException if the input is too long or a tone is unknown
+     */
+    public LiveSession create(PromptRequest request) {
+        String inputText = request.getInputText() != null ? request.getInputText() : "";
+        if (inputText.length() > maxLength) {
+            throw new IllegalArgumentException("inputText must be at most " + maxLength + " characters");
+        }
+        String id = UUID.randomUUID().toString();
+        LiveSession session = new LiveSession(id,
+                new IncrementalPrompt(generator, inputText, request.getSelectedTones()), maxLength, publisher, sendTimeout);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * Looks up an open session, which counts as activity.
+     *
+     * @param id The session id
+     * @return The session, or null if it does not exist or was closed
+     */
+    public LiveSession find(String id) {
+        return sessions.getIfPresent(id);
+    }
+
+    /**
+     * Closes a session.
+     *
+     * @param id The session id
+     */
+    public void close(String id) {
+        sessions.invalidate(id);
+    }
+
+    @Override
+    public void destroy() {
+        publisher.shutdown();
+    }
+
+    private static ExecutorService newPublisher(LiveSessionProperties properties) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "live-publisher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                properties.getPublisherThreads(), properties.getPublisherThreads(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getPublisherQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
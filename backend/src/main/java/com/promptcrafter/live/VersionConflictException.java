@@ -0,0 +1,23 @@
+package com.promptcrafter.live;
+
+/**
+ * Thrown when edits were made against an older version of a live session than its current one.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public VersionConflictException(long baseVersion, long currentVersion) {
+        super("Edits are based on version " + baseVersion + " but the session is at version " + currentVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * Gets the version the session is at.
+     *
+     * @return The current version
+     */
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,30 @@
+package com.promptcrafter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents the outcome of one item in a batch prompt generation request.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    /**
+     * Position of the item in the submitted batch; a long, since a stream may have
+     * more lines than fit in an int.
+     */
+    private long index;
+
+    /**
+     * The generated prompt, or null if the item failed.
+     */
+    private PromptResponse response;
+
+    /**
+     * Description of why the item failed, or null if it succeeded.
+     */
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.promptcrafter.model;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Represents a request to generate several AI prompts at once.
+ */
+@Data
+public class BatchPromptRequest {
+
+    /**
+     * The individual prompt requests, processed independently. Each is validated like a
+     * single generate request.
+     */
+    private List<@Valid PromptRequest> requests;
+}
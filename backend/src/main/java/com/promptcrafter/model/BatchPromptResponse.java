@@ -0,0 +1,33 @@
+package com.promptcrafter.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents the response to a batch prompt generation request.
+ */
+@Data
+@Builder
+public class BatchPromptResponse {
+
+    /**
+     * One result per submitted request, in input order.
+     */
+    private List<BatchItemResult> results;
+
+    /**
+     * Number of items that produced a prompt.
+     */
+    private int succeeded;
+
+    /**
+     * Number of items that failed.
+     */
+    private int failed;
+
+    /**
+     * Processing time for the whole batch in milliseconds.
+     */
+    private long processingTimeMs;
+}
@@ -0,0 +1,24 @@
+package com.promptcrafter.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents the outcome of classifying input text, including the evidence behind it.
+ */
+@Data
+@Builder
+public class ContentClassification {
+
+    /**
+     * Type of content detected (e.g., "technical", "communication", "creative").
+     */
+    private String contentType;
+
+    /**
+     * Every keyword occurrence found in the input, ordered by where it ends
+     * (longer keywords first when several end at the same offset).
+     */
+    private List<KeywordHit> hits;
+}
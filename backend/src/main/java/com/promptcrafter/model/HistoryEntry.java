@@ -0,0 +1,59 @@
+package com.promptcrafter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A generated prompt stored in the history, together with the request that produced it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryEntry {
+
+    /**
+     * Identifier of the entry; ids increase with creation time.
+     */
+    private long id;
+
+    /**
+     * When the prompt was generated.
+     */
+    private Instant createdAt;
+
+    /**
+     * The input text the prompt was generated from.
+     */
+    private String inputText;
+
+    /**
+     * The tones selected in the request.
+     */
+    private List<String> selectedTones;
+
+    /**
+     * The generated AI prompt.
+     */
+    private String generatedPrompt;
+
+    /**
+     * Type of content detected.
+     */
+    private String contentType;
+
+    /**
+     * Indicates if tones were applied to the prompt.
+     */
+    private boolean tonesApplied;
+
+    /**
+     * Tones that were applied to the prompt.
+     */
+    private List<String> appliedTones;
+}
@@ -0,0 +1,26 @@
+package com.promptcrafter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of history entries, newest first.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HistoryPage {
+
+    /**
+     * The entries on this page.
+     */
+    private List<HistoryEntry> items;
+
+    /**
+     * Cursor to pass as {@code before} to fetch the next page, or null on the last page.
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.promptcrafter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a job's results, in the order the items finished.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobResultPage {
+
+    /**
+     * The results on this page; each carries the index of its item in the submitted job.
+     */
+    private List<BatchItemResult> items;
+
+    /**
+     * Cursor to pass as {@code after} to fetch the next page, or null once the job is
+     * completed and every result has been returned.
+     */
+    private Long nextCursor;
+}
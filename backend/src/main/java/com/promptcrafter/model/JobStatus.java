@@ -0,0 +1,52 @@
+package com.promptcrafter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The progress of a generation job.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobStatus {
+
+    /**
+     * Identifier of the job, a random UUID.
+     */
+    private UUID id;
+
+    /**
+     * Either "running" or "completed".
+     */
+    private String status;
+
+    /**
+     * Number of items in the job.
+     */
+    private int itemCount;
+
+    /**
+     * Number of items that produced a prompt.
+     */
+    private int completedCount;
+
+    /**
+     * Number of items that failed.
+     */
+    private int failedCount;
+
+    /**
+     * When the job was submitted.
+     */
+    private Instant createdAt;
+
+    /**
+     * When the last item finished, or null while the job is running.
+     */
+    private Instant finishedAt;
+}
@@ -0,0 +1,27 @@
+package com.promptcrafter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A keyword occurrence found while classifying input text.
+ */
+@Data
+@AllArgsConstructor
+public class KeywordHit {
+
+    /**
+     * The matched keyword, in lowercase.
+     */
+    private String keyword;
+
+    /**
+     * Content type the keyword indicates (e.g., "technical", "communication").
+     */
+    private String contentType;
+
+    /**
+     * Offset of the first matched character in the input text.
+     */
+    private int offset;
+}
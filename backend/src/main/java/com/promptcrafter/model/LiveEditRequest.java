@@ -0,0 +1,29 @@
+package com.promptcrafter.model;
+
+import com.promptcrafter.validation.ValidTones;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Represents edits to the input text of a live prompt session.
+ */
+@Data
+public class LiveEditRequest {
+
+    /**
+     * Version the edits were made against; the edits are rejected if the session has moved on.
+     * Omit to apply them regardless.
+     */
+    private Long baseVersion;
+
+    /**
+     * Edits to apply in order, each against the text left by the previous one.
+     */
+    private List<TextEdit> edits;
+
+    /**
+     * Replacement tone selection; null keeps the current tones.
+     */
+    @ValidTones
+    private List<String> selectedTones;
+}
@@ -0,0 +1,60 @@
+package com.promptcrafter.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Represents a change to the prompt of a live prompt session.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LivePromptUpdate {
+
+    /**
+     * Identifier of the session.
+     */
+    private String sessionId;
+
+    /**
+     * Number of edit requests applied to the session so far.
+     */
+    private long version;
+
+    /**
+     * Indicates that {@link #promptEdit} holds the whole prompt rather than a change to the previous one.
+     */
+    private boolean reset;
+
+    /**
+     * Change that turns the previous prompt into the current one.
+     */
+    private TextEdit promptEdit;
+
+    /**
+     * Length of the session's input text, so clients can detect that they are out of sync.
+     */
+    private int inputLength;
+
+    /**
+     * Type of content detected (e.g., "technical", "communication", "creative").
+     */
+    private String contentType;
+
+    /**
+     * Indicates if tones were applied to the prompt.
+     */
+    private boolean tonesApplied;
+
+    /**
+     * List of tones that were applied to the prompt.
+     */
+    private String[] appliedTones;
+
+    /**
+     * Selected tones that were left out of the prompt.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private String[] droppedTones;
+}
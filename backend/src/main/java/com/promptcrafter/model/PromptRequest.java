@@ -1,5 +1,9 @@
 package com.promptcrafter.model;
 
+import com.promptcrafter.validation.BoundedInput;
+import com.promptcrafter.validation.ValidTones;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import lombok.Data;
 
@@ -12,13 +16,23 @@ public class PromptRequest {
     /**
      * The original input text provided by the user.
      */
+    @NotBlank
+    @BoundedInput
     private String inputText;
     
     /**
      * List of selected tones to apply to the prompt.
      */
+    @ValidTones
     private List<String> selectedTones;
     
+    /**
+     * Optional token budget for the generated prompt. When the prompt would be longer, its
+     * format guidance is dropped and its context shortened to fit.
+     */
+    @Positive
+    private Integer maxTokens;
+    
     /**
      * Indicates if the input was provided via voice.
      */
@@ -1,13 +1,18 @@
 package com.promptcrafter.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
 
 /**
  * Represents the response containing the generated AI prompt.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class PromptResponse {
     
     /**
@@ -25,11 +30,39 @@ public class PromptResponse {
      */
     private String[] appliedTones;
     
+    /**
+     * Selected tones that were left out because they contradict a stronger tone or exceed
+     * the number of tones a prompt names; omitted when there are none.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private String[] droppedTones;
+    
     /**
      * Type of content detected (e.g., "technical", "communication", "creative").
      */
     private String contentType;
     
+    /**
+     * Indicates if the input exceeded the size limit and only its start and end were used.
+     */
+    private boolean inputTruncated;
+    
+    /**
+     * Estimated number of tokens in the generated prompt.
+     */
+    private int estimatedTokens;
+    
+    /**
+     * Indicates if the prompt was compacted to fit the requested token budget.
+     */
+    private boolean promptCompacted;
+    
+    /**
+     * Identifier of the prompt in the history, for fetching it again later; null if history is disabled.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long historyId;
+    
     /**
      * Processing time in milliseconds.
      */
@@ -0,0 +1,29 @@
+package com.promptcrafter.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change to a text: {@code deleteCount} characters at {@code offset} replaced by {@code text}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextEdit {
+
+    /**
+     * Offset of the first replaced character.
+     */
+    private int offset;
+
+    /**
+     * Number of characters removed.
+     */
+    private int deleteCount;
+
+    /**
+     * Text inserted at the offset, may be empty.
+     */
+    private String text;
+}
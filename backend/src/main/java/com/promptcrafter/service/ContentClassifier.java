@@ -0,0 +1,42 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.language.LanguagePack;
+import com.promptcrafter.model.ContentClassification;
+
+/**
+ * Strategy for detecting the type of content a user is asking for.
+ */
+public interface ContentClassifier {
+
+    String TECHNICAL = "technical";
+    String COMMUNICATION = "communication";
+    String CREATIVE = "creative";
+
+    /**
+     * Determines the content type of the input text.
+     *
+     * @param inputText The user's input text
+     * @return The detected content type
+     */
+    String classify(CharSequence inputText);
+
+    /**
+     * Determines the content type of input text whose language is already known.
+     * Classifiers without per-language keywords ignore the language.
+     *
+     * @param inputText The user's input text
+     * @param language The language pack of the input
+     * @return The detected content type
+     */
+    default String classify(CharSequence inputText, LanguagePack language) {
+        return classify(inputText);
+    }
+
+    /**
+     * Determines the content type of the input text and reports the evidence used.
+     *
+     * @param inputText The user's input text
+     * @return The detected content type together with every keyword hit
+     */
+    ContentClassification explain(CharSequence inputText);
+}
@@ -1,8 +1,11 @@
 package com.promptcrafter.service;
 
+import com.promptcrafter.model.BatchItemResult;
 import com.promptcrafter.model.PromptRequest;
 import com.promptcrafter.model.PromptResponse;
 
+import java.util.List;
+
 /**
  * Service interface for prompt generation functionality.
  */
@@ -15,4 +18,12 @@ public interface PromptService {
      * @return The generated prompt response
      */
     PromptResponse generatePrompt(PromptRequest request);
+
+    /**
+     * Generates AI prompts for a batch of requests in parallel.
+     *
+     * @param requests The prompt generation requests
+     * @return One result per request, in input order, each holding either a response or an error
+     */
+    List<BatchItemResult> generatePrompts(List<PromptRequest> requests);
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.config.BatchProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fans a batch of prompt requests out over a worker pool and gathers the results
+ * back in input order. A failing item is reported in its own result and never
+ * fails the rest of the batch.
+ */
+@Component
+public class BatchPromptExecutor implements DisposableBean {
+
+    private final Executor executor;
+    private final int maxBatchSize;
+
+    @Autowired
+    public BatchPromptExecutor(BatchProperties properties,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(virtualThreads ? newVirtualThreadExecutor(properties) : newWorkerPool(properties),
+                properties.getMaxSize());
+    }
+
+    public BatchPromptExecutor(Executor executor, int maxBatchSize) {
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Creates the bounded worker pool. When its queue is full the submitting thread runs
+     * the work itself, which throttles producers instead of growing the queue without limit.
+     *
+     * @param properties The batch settings
+     * @return The worker pool
+     */
+    private static ExecutorService newWorkerPool(BatchProperties properties) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "prompt-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                properties.getParallelism(), properties.getParallelism(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per item, with at most
+     * {@code parallelism} running at once; further submissions wait for a free slot.
+     * Requires Java 21.
+     *
+     * @param properties The batch settings
+     * @return The virtual thread executor
+     */
+    private static Executor newVirtualThreadExecutor(BatchProperties properties) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("prompt-worker-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(properties.getParallelism());
+        return executor;
+    }
+
+    /**
+     * Gets the executor batch items run on.
+     *
+     * @return The worker executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets the largest number of requests accepted in a single batch.
+     *
+     * @return The maximum batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+            executorService.awaitTermination(30, TimeUnit.SECONDS);
+        } else if (executor instanceof SimpleAsyncTaskExecutor taskExecutor) {
+            taskExecutor.close();
+        }
+    }
+
+    /**
+     * Creates an executor that processes batches on the calling thread.
+     *
+     * @return A sequential batch executor
+     */
+    public static BatchPromptExecutor sequential() {
+        return new BatchPromptExecutor(Runnable::run, new BatchProperties().getMaxSize());
+    }
+
+    /**
+     * Generates a prompt for every request in the batch.
+     *
+     * @param requests The batch of requests
+     * @param generator The function generating a single prompt
+     * @return One result per request, in input order
+     * @throws IllegalArgumentException if the batch is larger than the configured maximum
+     */
+    public List<BatchItemResult> execute(List<PromptRequest> requests, Function<PromptRequest, PromptResponse> generator) {
+        if (requests == null || requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch size " + requests.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        List<CompletableFuture<BatchItemResult>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            PromptRequest request = requests.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> generateOne(index, request, generator), executor));
+        }
+
+        List<BatchItemResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                results.add(failure(i, e.getCause() != null ? e.getCause() : e));
+            }
+        }
+        return results;
+    }
+
+    private static BatchItemResult generateOne(int index, PromptRequest request,
+                                               Function<PromptRequest, PromptResponse> generator) {
+        if (request == null) {
+            return BatchItemResult.builder().index(index).error("Request must not be null").build();
+        }
+        try {
+            long startTime = System.nanoTime();
+            PromptResponse response = generator.apply(request);
+            response.setProcessingTimeMs((System.nanoTime() - startTime) / 1_000_000);
+            return BatchItemResult.builder().index(index).response(response).build();
+        } catch (RuntimeException e) {
+            return failure(index, e);
+        }
+    }
+
+    private static BatchItemResult failure(int index, Throwable cause) {
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return BatchItemResult.builder().index(index).error(message).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.promptcrafter.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.promptcrafter.config.CacheProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+
+import java.util.List;
+
+/**
+ * PromptService decorator that caches generated prompts.
+ * <p>
+ * Generation is a pure function of the trimmed input text and the selected tones, so
+ * requests that differ only in surrounding whitespace are answered from the cache without
+ * running the delegate. Entries are evicted by size and by age. Callers receive a copy
+ * of the cached response, so setting the processing time does not leak between callers.
+ */
+public class CachingPromptService implements PromptService {
+
+    private final PromptService delegate;
+    private final BatchPromptExecutor batchExecutor;
+    private final Cache<PromptRequestKey, PromptResponse> cache;
+
+    public CachingPromptService(PromptService delegate, BatchPromptExecutor batchExecutor, CacheProperties properties) {
+        this(delegate, batchExecutor, properties, Ticker.systemTicker());
+    }
+
+    public CachingPromptService(PromptService delegate, BatchPromptExecutor batchExecutor,
+                                CacheProperties properties, Ticker ticker) {
+        this.delegate = delegate;
+        this.batchExecutor = batchExecutor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public PromptResponse generatePrompt(PromptRequest request) {
+        if (request.getInputText() == null) {
+            return delegate.generatePrompt(request);
+        }
+        PromptRequestKey key = PromptRequestKey.of(request);
+        PromptResponse cached = cache.getIfPresent(key);
+        if (cached == null) {
+            cached = delegate.generatePrompt(request);
+            cache.put(key, cached);
+        }
+        return copyOf(cached);
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
+
+    /**
+     * Drops every cached prompt, for when the way prompts are rendered has changed.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the cache.
+     *
+     * @return A snapshot of the cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the underlying cache, for registering metrics.
+     *
+     * @return The prompt cache
+     */
+    public Cache<PromptRequestKey, PromptResponse> getCache() {
+        return cache;
+    }
+
+    private static PromptResponse copyOf(PromptResponse response) {
+        return response.toBuilder()
+                .appliedTones(response.getAppliedTones() != null ? response.getAppliedTones().clone() : null)
+                .droppedTones(response.getDroppedTones() != null ? response.getDroppedTones().clone() : null)
+                .processingTimeMs(0)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.history.HistoryWriter;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.HistoryEntry;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PromptService decorator that records every generated prompt in the history.
+ * <p>
+ * Recording only queues the entry, so it adds no database latency to the request. The
+ * response carries the entry's id, which can later be used to fetch the prompt instead
+ * of generating it again.
+ */
+public class HistoryRecordingPromptService implements PromptService {
+
+    private final PromptService delegate;
+    private final BatchPromptExecutor batchExecutor;
+    private final HistoryWriter historyWriter;
+
+    public HistoryRecordingPromptService(PromptService delegate, BatchPromptExecutor batchExecutor,
+                                         HistoryWriter historyWriter) {
+        this.delegate = delegate;
+        this.batchExecutor = batchExecutor;
+        this.historyWriter = historyWriter;
+    }
+
+    @Override
+    public PromptResponse generatePrompt(PromptRequest request) {
+        PromptResponse response = delegate.generatePrompt(request);
+        long id = historyWriter.nextId();
+        HistoryEntry entry = HistoryEntry.builder()
+                .id(id)
+                .createdAt(Instant.now())
+                .inputText(request.getInputText())
+                .selectedTones(request.getSelectedTones() != null ? List.copyOf(request.getSelectedTones()) : List.of())
+                .generatedPrompt(response.getGeneratedPrompt())
+                .contentType(response.getContentType())
+                .tonesApplied(response.isTonesApplied())
+                .appliedTones(response.getAppliedTones() != null ? Arrays.asList(response.getAppliedTones().clone()) : List.of())
+                .build();
+        if (historyWriter.offer(entry)) {
+            response.setHistoryId(id);
+        }
+        return response;
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
+}
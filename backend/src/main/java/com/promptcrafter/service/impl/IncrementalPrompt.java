@@ -0,0 +1,147 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.language.LanguagePack;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.util.IncrementalKeywordMatches;
+import com.promptcrafter.util.ToneUtils;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+/**
+ * A prompt that is kept up to date while its input text is edited, for live-typing clients.
+ * <p>
+ * The keyword occurrences behind the analysis (content type keywords, context indicators
+ * and tone cues) are tracked with {@link IncrementalKeywordMatches}, so an edit only
+ * rescans the text around it. The task prefix and the trimmed bounds only depend on the
+ * ends of the input, and language detection only reads its start; when the detected
+ * language changes, the matches are rebuilt once with the keywords of the new language. Rendering produces the same response as
+ * {@link PromptServiceImpl#generatePrompt} for the current text, less the token estimate;
+ * only a classifier other than the keyword classifier still reads the whole input on
+ * every render.
+ * <p>
+ * Instances are not thread-safe; edits to one prompt must be serialized.
+ */
+public final class IncrementalPrompt {
+
+    private final PromptServiceImpl generator;
+    private final ContentClassifier classifier;
+    private final boolean tracksContentKeywords;
+    private final StringBuilder text;
+    private LanguagePack language;
+    private PromptTextAnalyzer analyzer;
+    private IncrementalKeywordMatches contentKeywords;
+    private IncrementalKeywordMatches contextIndicators;
+    private IncrementalKeywordMatches toneCues;
+    private List<String> tones;
+
+    /**
+     * @param generator The service whose analysis and templates are used
+     * @param inputText The initial input text
+     * @param selectedTones The initial tones
+     */
+    public IncrementalPrompt(PromptServiceImpl generator, String inputText, List<String> selectedTones) {
+        this.generator = generator;
+        this.classifier = generator.contentClassifier();
+        this.tracksContentKeywords = classifier instanceof KeywordContentClassifier;
+        this.text = new StringBuilder(inputText);
+        useLanguage(generator.languages().detect(inputText.trim()));
+        setTones(selectedTones);
+    }
+
+    /**
+     * Tracks the keywords of a language from scratch.
+     */
+    private void useLanguage(LanguagePack detected) {
+        language = detected;
+        analyzer = generator.textAnalyzer(detected);
+        contentKeywords = tracksContentKeywords ? new IncrementalKeywordMatches(detected.contentKeywords()) : null;
+        contextIndicators = new IncrementalKeywordMatches(analyzer.contextIndicators());
+        toneCues = new IncrementalKeywordMatches(analyzer.toneCues());
+        if (contentKeywords != null) {
+            contentKeywords.reset(text);
+        }
+        contextIndicators.reset(text);
+        toneCues.reset(text);
+    }
+
+    /**
+     * Replaces {@code deleteCount} characters at {@code offset} with {@code insert}.
+     *
+     * @param offset Where the edit starts
+     * @param deleteCount Number of characters to remove
+     * @param insert The text to insert, or null to only remove
+     * @throws IllegalArgumentException if the range is outside the current text
+     */
+    public void edit(int offset, int deleteCount, String insert) {
+        if (offset < 0 || deleteCount < 0 || offset > text.length() || deleteCount > text.length() - offset) {
+            throw new IllegalArgumentException("Edit [" + offset + ", +" + deleteCount
+                    + ") is outside the text of length " + text.length());
+        }
+        int inserted = insert != null ? insert.length() : 0;
+        text.replace(offset, offset + deleteCount, insert != null ? insert : "");
+        if (contentKeywords != null) {
+            contentKeywords.update(text, offset, deleteCount, inserted);
+        }
+        contextIndicators.update(text, offset, deleteCount, inserted);
+        toneCues.update(text, offset, deleteCount, inserted);
+    }
+
+    /**
+     * Replaces the selected tones.
+     *
+     * @param selectedTones The tones to apply, in any spelling the catalog accepts
+     */
+    public void setTones(List<String> selectedTones) {
+        this.tones = ToneUtils.canonicalTones(selectedTones);
+    }
+
+    /**
+     * Gets the length of the current input text.
+     *
+     * @return The length in characters
+     */
+    public int length() {
+        return text.length();
+    }
+
+    /**
+     * Gets the current input text.
+     *
+     * @return A copy of the input text
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Renders the prompt for the current text and tones.
+     *
+     * @return The response carrying the generated prompt
+     */
+    public PromptResponse render() {
+        String current = text.toString();
+        int from = 0;
+        int to = current.length();
+        // Trimmed bounds, as String.trim() defines whitespace
+        while (from < to && current.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && current.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        LanguagePack detected = generator.languages().detect(current, from, to);
+        if (detected != language) {
+            useLanguage(detected);
+        }
+        // Content keywords never start or end with whitespace, so occurrences in the untrimmed
+        // text are exactly those in the trimmed input
+        String contentType = contentKeywords != null
+                ? KeywordContentClassifier.contentTypeFor(contentKeywords.categoryMask())
+                : classifier.classify(CharBuffer.wrap(current, from, to), language);
+        int indicatorEnd = analyzer.contextIndicatorEnd(contextIndicators, from, to);
+        TextAnalysis analysis = analyzer.analyze(current, from, to, indicatorEnd, toneCues.size() > 0);
+        return generator.buildResponse(analysis, contentType, tones);
+    }
+}
@@ -0,0 +1,86 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+
+import java.util.List;
+
+/**
+ * PromptService decorator that enforces the input size limit.
+ * <p>
+ * Oversized inputs are either rejected or cut down to a window at the start and one at
+ * the end before anything else looks at them, so the cost of classification, analysis and
+ * caching stays bounded however large the input is. The task statement usually sits at
+ * the start and a closing clause at the end, which is what the windows keep.
+ */
+public class InputLimitingPromptService implements PromptService {
+
+    /** Placed where the middle of a truncated input was removed. */
+    static final String TRUNCATION_MARKER = " [...] ";
+
+    private final PromptService delegate;
+    private final BatchPromptExecutor batchExecutor;
+    private final InputLimitProperties properties;
+
+    public InputLimitingPromptService(PromptService delegate, BatchPromptExecutor batchExecutor,
+                                      InputLimitProperties properties) {
+        this.delegate = delegate;
+        this.batchExecutor = batchExecutor;
+        this.properties = properties;
+    }
+
+    @Override
+    public PromptResponse generatePrompt(PromptRequest request) {
+        String inputText = request.getInputText();
+        if (inputText == null || inputText.length() <= properties.getMaxLength()) {
+            return delegate.generatePrompt(request);
+        }
+        if (properties.getOverflow() == InputLimitProperties.OverflowMode.REJECT) {
+            throw new IllegalArgumentException("inputText exceeds " + properties.getMaxLength() + " characters");
+        }
+
+        PromptRequest truncated = new PromptRequest();
+        truncated.setInputText(truncate(inputText, properties.getTruncationWindow()));
+        truncated.setSelectedTones(request.getSelectedTones());
+        truncated.setMaxTokens(request.getMaxTokens());
+        truncated.setVoiceInput(request.isVoiceInput());
+        PromptResponse response = delegate.generatePrompt(truncated);
+        response.setInputTruncated(true);
+        return response;
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
+
+    /**
+     * Keeps the first and last {@code window} characters of a text.
+     *
+     * @param text The text
+     * @param window Characters to keep from each end
+     * @return The shortened text, or the text itself if it is short enough
+     */
+    static String truncate(String text, int window) {
+        if (text.length() <= 2 * window + TRUNCATION_MARKER.length()) {
+            return text;
+        }
+        int headEnd = window;
+        int tailStart = text.length() - window;
+        // Never split a surrogate pair
+        if (Character.isHighSurrogate(text.charAt(headEnd - 1))) {
+            headEnd--;
+        }
+        if (Character.isLowSurrogate(text.charAt(tailStart))) {
+            tailStart++;
+        }
+        return new StringBuilder(headEnd + TRUNCATION_MARKER.length() + text.length() - tailStart)
+                .append(text, 0, headEnd)
+                .append(TRUNCATION_MARKER)
+                .append(text, tailStart, text.length())
+                .toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.language.LanguagePack;
+import com.promptcrafter.language.LanguagePackRegistry;
+import com.promptcrafter.model.ContentClassification;
+import com.promptcrafter.model.KeywordHit;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.util.KeywordAutomaton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyword-based content classifier.
+ * <p>
+ * Any communication keyword wins; otherwise any technical keyword makes the content
+ * technical; everything else is creative. The keywords come from the language pack of the
+ * input, whose keyword sets are compiled into one automaton when the pack is loaded, so
+ * classification is a single pass over the input.
+ */
+@Component
+@ConditionalOnProperty(prefix = "promptcrafter.classifier", name = "type", havingValue = "keyword", matchIfMissing = true)
+public class KeywordContentClassifier implements ContentClassifier {
+
+    private static final long COMMUNICATION_MASK = 1L << LanguagePack.COMMUNICATION_CATEGORY;
+    private static final long TECHNICAL_MASK = 1L << LanguagePack.TECHNICAL_CATEGORY;
+
+    /** Content types indexed by keyword category. */
+    private static final String[] CATEGORY_CONTENT_TYPES = {COMMUNICATION, TECHNICAL};
+
+    private final LanguagePackRegistry languages;
+
+    public KeywordContentClassifier() {
+        this(LanguagePackRegistry.standard());
+    }
+
+    @Autowired
+    public KeywordContentClassifier(LanguagePackRegistry languages) {
+        this.languages = languages;
+    }
+
+    @Override
+    public String classify(CharSequence inputText) {
+        return classify(inputText, languages.detect(inputText));
+    }
+
+    @Override
+    public String classify(CharSequence inputText, LanguagePack language) {
+        // A communication keyword decides the outcome, so the scan can stop there
+        long mask = language.contentKeywords().matchCategories(inputText, 0, inputText.length(), COMMUNICATION_MASK);
+        return contentTypeFor(mask);
+    }
+
+    @Override
+    public ContentClassification explain(CharSequence inputText) {
+        KeywordAutomaton automaton = languages.detect(inputText).contentKeywords();
+        List<KeywordHit> hits = new ArrayList<>();
+        long[] mask = new long[1];
+        automaton.forEachMatch(inputText, 0, inputText.length(), (keywordId, start, end) -> {
+            int category = automaton.category(keywordId);
+            mask[0] |= 1L << category;
+            hits.add(new KeywordHit(automaton.keyword(keywordId), CATEGORY_CONTENT_TYPES[category], start));
+            return true;
+        });
+        return ContentClassification.builder()
+                .contentType(contentTypeFor(mask[0]))
+                .hits(hits)
+                .build();
+    }
+
+    /**
+     * Maps the categories seen in a scan to a content type.
+     *
+     * @param categoryMask Bitmask of matched keyword categories
+     * @return The content type
+     */
+    public static String contentTypeFor(long categoryMask) {
+        if ((categoryMask & COMMUNICATION_MASK) != 0) {
+            return COMMUNICATION;
+        }
+        if ((categoryMask & TECHNICAL_MASK) != 0) {
+            return TECHNICAL;
+        }
+        // Default to creative if no specific type is detected
+        return CREATIVE;
+    }
+}
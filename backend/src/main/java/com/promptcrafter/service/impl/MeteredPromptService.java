@@ -0,0 +1,112 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.PromptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PromptService decorator that records Micrometer metrics for every generated prompt:
+ * a latency timer with percentile histograms, counters per detected content type and
+ * tone outcome, and the distribution of input and batch sizes.
+ */
+public class MeteredPromptService implements PromptService {
+
+    private final PromptService delegate;
+    private final BatchPromptExecutor batchExecutor;
+    private final MeterRegistry registry;
+    private final Timer generationTimer;
+    private final Timer failureTimer;
+    private final DistributionSummary inputSize;
+    private final DistributionSummary batchSize;
+    private final Map<String, Counter[]> generatedCounters = new ConcurrentHashMap<>();
+
+    public MeteredPromptService(PromptService delegate, BatchPromptExecutor batchExecutor, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.batchExecutor = batchExecutor;
+        this.registry = registry;
+        this.generationTimer = generationTimer(registry, "success");
+        this.failureTimer = generationTimer(registry, "failure");
+        this.inputSize = DistributionSummary.builder("promptcrafter.prompt.input.size")
+                .description("Length of the submitted input text")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("promptcrafter.prompt.batch.size")
+                .description("Number of requests per batch")
+                .baseUnit("requests")
+                .publishPercentileHistogram()
+                .register(registry);
+        // Resolved once, so counting a prompt is a map lookup rather than a meter registration
+        for (String contentType : List.of(ContentClassifier.TECHNICAL, ContentClassifier.COMMUNICATION,
+                ContentClassifier.CREATIVE)) {
+            generatedCounters.put(contentType, generatedCounters(contentType));
+        }
+    }
+
+    @Override
+    public PromptResponse generatePrompt(PromptRequest request) {
+        if (request.getInputText() != null) {
+            inputSize.record(request.getInputText().length());
+        }
+        long startTime = System.nanoTime();
+        try {
+            PromptResponse response = delegate.generatePrompt(request);
+            generationTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            count(response);
+            return response;
+        } catch (RuntimeException e) {
+            failureTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        if (requests != null) {
+            batchSize.record(requests.size());
+        }
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
+
+    private void count(PromptResponse response) {
+        String contentType = String.valueOf(response.getContentType());
+        Counter[] counters = generatedCounters.get(contentType);
+        if (counters == null) {
+            // A classifier label outside the built-in types; registered once on first sight
+            counters = generatedCounters.computeIfAbsent(contentType, this::generatedCounters);
+        }
+        counters[response.isTonesApplied() ? 1 : 0].increment();
+    }
+
+    /** The counters of a content type, without and with tones applied. */
+    private Counter[] generatedCounters(String contentType) {
+        return new Counter[] {generatedCounter(contentType, false), generatedCounter(contentType, true)};
+    }
+
+    private Counter generatedCounter(String contentType, boolean tonesApplied) {
+        return Counter.builder("promptcrafter.prompts.generated")
+                .description("Generated prompts by detected content type and tone outcome")
+                .tag("content.type", contentType)
+                .tag("tones.applied", Boolean.toString(tonesApplied))
+                .register(registry);
+    }
+
+    private static Timer generationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("promptcrafter.prompt.generation")
+                .description("Time spent generating a prompt in the service layer")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.classifier.NaiveBayesModel;
+import com.promptcrafter.model.ContentClassification;
+import com.promptcrafter.model.KeywordHit;
+import com.promptcrafter.service.ContentClassifier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content classifier backed by a naive Bayes model over hashed word n-grams.
+ * <p>
+ * Unlike the keyword heuristic, every word contributes evidence for each content type,
+ * so a single word such as "text" no longer decides the outcome on its own. The model
+ * is trained offline with {@link com.promptcrafter.classifier.NaiveBayesTrainer}.
+ */
+public class NaiveBayesContentClassifier implements ContentClassifier {
+
+    /** Classpath location of the bundled model. */
+    public static final String BUNDLED_MODEL = "classifier/content-type.nbm";
+
+    /** A word is reported by {@link #explain} when it favors one type at least twice as much as any other. */
+    private static final double EVIDENCE_THRESHOLD = Math.log(2);
+
+    private final NaiveBayesModel model;
+    private final String[] contentTypes;
+
+    public NaiveBayesContentClassifier(NaiveBayesModel model) {
+        this.model = model;
+        List<String> labels = model.labels();
+        this.contentTypes = new String[labels.size()];
+        for (int i = 0; i < contentTypes.length; i++) {
+            contentTypes[i] = contentType(labels.get(i));
+        }
+    }
+
+    /**
+     * Creates a classifier from the model bundled with the application.
+     *
+     * @return The classifier
+     */
+    public static NaiveBayesContentClassifier bundled() {
+        try (InputStream in = NaiveBayesContentClassifier.class.getClassLoader().getResourceAsStream(BUNDLED_MODEL)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classifier model " + BUNDLED_MODEL);
+            }
+            return new NaiveBayesContentClassifier(NaiveBayesModel.read(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String classify(CharSequence inputText) {
+        double[] scores = new double[model.classCount()];
+        return contentTypes[model.score(inputText, scores)];
+    }
+
+    @Override
+    public ContentClassification explain(CharSequence inputText) {
+        List<KeywordHit> hits = new ArrayList<>();
+        model.features().forEach(inputText, (bucket, start, end, unigram) -> {
+            if (!unigram) {
+                return;
+            }
+            int best = -1;
+            double bestWeight = Double.NEGATIVE_INFINITY;
+            double runnerUp = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < contentTypes.length; c++) {
+                double weight = model.weight(bucket, c);
+                if (weight > bestWeight) {
+                    runnerUp = bestWeight;
+                    bestWeight = weight;
+                    best = c;
+                } else if (weight > runnerUp) {
+                    runnerUp = weight;
+                }
+            }
+            if (bestWeight - runnerUp >= EVIDENCE_THRESHOLD) {
+                String word = inputText.subSequence(start, end).toString().toLowerCase(Locale.ROOT);
+                hits.add(new KeywordHit(word, contentTypes[best], start));
+            }
+        });
+        return ContentClassification.builder()
+                .contentType(classify(inputText))
+                .hits(hits)
+                .build();
+    }
+
+    /**
+     * Gets the underlying model.
+     *
+     * @return The model
+     */
+    public NaiveBayesModel getModel() {
+        return model;
+    }
+
+    private static String contentType(String label) {
+        for (String known : List.of(TECHNICAL, COMMUNICATION, CREATIVE)) {
+            if (known.equals(label)) {
+                return known;
+            }
+        }
+        return label;
+    }
+}
@@ -0,0 +1,131 @@
+package com.promptcrafter.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.promptcrafter.admission.RequestTooLargeException;
+import com.promptcrafter.config.BatchProperties;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import com.promptcrafter.util.BoundedLineReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams newline-delimited JSON prompt requests through a {@link PromptService}.
+ * <p>
+ * Each input line holds one {@link PromptRequest}; each output line holds the matching
+ * {@link PromptResponse}, or an error object with the line's index if it could not be
+ * processed. Output keeps input order. At most {@code window} lines are in flight at
+ * once, and no line is buffered past {@code maxLineBytes}, so memory stays bounded however
+ * long the input is, and a slow reader of the output stalls the input side instead of
+ * piling up results.
+ */
+@Component
+public class NdjsonPromptStreamer {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PromptService promptService;
+    private final Executor executor;
+    private final int window;
+    private final long maxLineBytes;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+    private final ObjectWriter errorWriter;
+
+    @Autowired
+    public NdjsonPromptStreamer(PromptService promptService, BatchPromptExecutor batchExecutor,
+                                BatchProperties properties, InputLimitProperties inputLimits,
+                                ObjectMapper objectMapper) {
+        this(promptService, batchExecutor.getExecutor(), properties.getStreamWindow(),
+                inputLimits.getMaxRequestSize().toBytes(), objectMapper);
+    }
+
+    public NdjsonPromptStreamer(PromptService promptService, Executor executor, int window, long maxLineBytes,
+                                ObjectMapper objectMapper) {
+        this.promptService = promptService;
+        this.executor = executor;
+        this.window = Math.max(1, window);
+        this.maxLineBytes = maxLineBytes;
+        this.requestReader = objectMapper.readerFor(PromptRequest.class);
+        this.responseWriter = objectMapper.writerFor(PromptResponse.class);
+        this.errorWriter = objectMapper.writerFor(BatchItemResult.class);
+    }
+
+    /**
+     * Processes every request line from the input and writes one result line per request.
+     *
+     * @param in The NDJSON input; it is read incrementally and not closed
+     * @param out The NDJSON output; it is not closed
+     * @param flushEachLine Whether to flush after every line, so remote clients see results immediately
+     * @return The number of lines processed
+     * @throws RequestTooLargeException if a line is longer than {@code maxLineBytes}
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public long process(InputStream in, OutputStream out, boolean flushEachLine) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(in, maxLineBytes);
+        ArrayDeque<CompletableFuture<BatchItemResult>> inFlight = new ArrayDeque<>(window);
+        long index = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (inFlight.size() >= window) {
+                writeResult(inFlight.poll(), out, flushEachLine);
+            }
+            inFlight.add(submit(index++, line));
+        }
+        while (!inFlight.isEmpty()) {
+            writeResult(inFlight.poll(), out, flushEachLine);
+        }
+        out.flush();
+        return index;
+    }
+
+    private CompletableFuture<BatchItemResult> submit(long index, String line) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                PromptRequest request = requestReader.readValue(line);
+                long startTime = System.nanoTime();
+                PromptResponse response = promptService.generatePrompt(request);
+                response.setProcessingTimeMs((System.nanoTime() - startTime) / 1_000_000);
+                return BatchItemResult.builder().index(index).response(response).build();
+            } catch (IOException | RuntimeException e) {
+                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                return BatchItemResult.builder().index(index).error(message).build();
+            }
+        }, executor);
+    }
+
+    private void writeResult(CompletableFuture<BatchItemResult> future, OutputStream out,
+                             boolean flushEachLine) throws IOException {
+        BatchItemResult result;
+        try {
+            result = future.join();
+        } catch (CompletionException e) {
+            throw new IOException("Prompt generation failed", e.getCause());
+        }
+        byte[] json = result.getResponse() != null
+                ? responseWriter.writeValueAsBytes(result.getResponse())
+                : errorWriter.writeValueAsBytes(result);
+        out.write(json);
+        out.write(NEWLINE);
+        if (flushEachLine) {
+            out.flush();
+        }
+    }
+}
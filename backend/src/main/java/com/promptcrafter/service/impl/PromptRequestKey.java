@@ -0,0 +1,40 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.util.ToneUtils;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Identifies prompt requests that produce the same prompt: the trimmed input text the
+ * prompt is generated from, the selected tones in catalog spelling and selection order,
+ * and the token budget. Anything else the generator looks at, such as line breaks inside
+ * the input or the order of the tones, can change the prompt, so it stays part of the key.
+ */
+@Value
+public class PromptRequestKey {
+
+    String input;
+    List<String> tones;
+    Integer maxTokens;
+
+    /**
+     * Creates the key for a request.
+     *
+     * @param request The prompt generation request
+     * @return The key
+     */
+    public static PromptRequestKey of(PromptRequest request) {
+        List<String> tones = new ArrayList<>();
+        if (request.getSelectedTones() != null) {
+            for (String tone : request.getSelectedTones()) {
+                String canonical = ToneUtils.canonicalTone(tone);
+                tones.add(canonical != null ? canonical : tone);
+            }
+        }
+        String input = request.getInputText() != null ? request.getInputText().trim() : null;
+        return new PromptRequestKey(input, tones, request.getMaxTokens());
+    }
+}
@@ -1,15 +1,21 @@
 package com.promptcrafter.service.impl;
 
+import com.promptcrafter.language.LanguagePack;
+import com.promptcrafter.language.LanguagePackRegistry;
+import com.promptcrafter.model.BatchItemResult;
 import com.promptcrafter.model.PromptRequest;
 import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.ContentClassifier;
 import com.promptcrafter.service.PromptService;
+import com.promptcrafter.template.PromptTemplate;
+import com.promptcrafter.template.PromptTemplateRegistry;
+import com.promptcrafter.util.TokenEstimator;
+import com.promptcrafter.util.ToneEngine;
+import com.promptcrafter.util.ToneUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the PromptService interface.
@@ -17,194 +23,237 @@ import java.util.stream.Collectors;
 @Service
 public class PromptServiceImpl implements PromptService {
 
-    // Keywords that indicate personalized communication
-    private static final Set<String> PERSONALIZED_COMMUNICATION_KEYWORDS = new HashSet<>(Arrays.asList(
-        "email", "text", "message", "letter", "post", "write", "communicate", "outreach", 
-        "cover letter", "social media", "linkedin", "twitter", "facebook", "instagram",
-        "greeting", "response", "reply", "dm", "direct message", "chat", "conversation",
-        "correspondence", "memo", "newsletter", "announcement", "invitation"
-    ));
-    
-    // Keywords that indicate technical or instructional content
-    private static final Set<String> TECHNICAL_KEYWORDS = new HashSet<>(Arrays.asList(
-        "code", "program", "develop", "build", "create", "implement", "design", "architecture",
-        "algorithm", "function", "class", "method", "api", "database", "query", "system",
-        "technical", "instruction", "guide", "tutorial", "how to", "steps", "procedure",
-        "process", "methodology", "framework", "structure", "analyze", "evaluate", "assess"
-    ));
+    /** Content types that have a prompt template, named {@code templates/prompts/<type>.tmpl}. */
+    public static final List<String> TEMPLATE_CONTENT_TYPES = List.of(
+            ContentClassifier.TECHNICAL, ContentClassifier.COMMUNICATION, ContentClassifier.CREATIVE);
+
+    /** Variables available to prompt templates. */
+    public static final List<String> TEMPLATE_VARIABLES = PromptTemplateValues.VARIABLES;
+
+    private static final ToneEngine.Resolution NO_TONES = ToneEngine.standard().resolve(List.of());
+
+    private final ContentClassifier contentClassifier;
+    private final BatchPromptExecutor batchExecutor;
+    private final PromptTemplateRegistry templates;
+    private final LanguagePackRegistry languages;
+    /** One analyzer per language pack, indexed by the pack's index. */
+    private final PromptTextAnalyzer[] textAnalyzers;
+    private final ToneEngine toneEngine = ToneEngine.standard();
+    private final TokenEstimator tokenEstimator = TokenEstimator.standard();
+    private final int contextMarkerTokens = tokenEstimator.estimate(PromptTemplateValues.CONTEXT_MARKER);
+
+    public PromptServiceImpl() {
+        this(new KeywordContentClassifier(), BatchPromptExecutor.sequential(), bundledTemplates());
+    }
+
+    public PromptServiceImpl(ContentClassifier contentClassifier, BatchPromptExecutor batchExecutor,
+                             PromptTemplateRegistry templates) {
+        this(contentClassifier, batchExecutor, templates, LanguagePackRegistry.standard());
+    }
+
+    @Autowired
+    public PromptServiceImpl(ContentClassifier contentClassifier, BatchPromptExecutor batchExecutor,
+                             PromptTemplateRegistry templates, LanguagePackRegistry languages) {
+        this.contentClassifier = contentClassifier;
+        this.batchExecutor = batchExecutor;
+        this.templates = templates;
+        this.languages = languages;
+        this.textAnalyzers = languages.getPacks().stream()
+                .map(PromptTextAnalyzer::new)
+                .toArray(PromptTextAnalyzer[]::new);
+    }
+
+    /**
+     * Loads the templates bundled with the application.
+     *
+     * @return A registry without overrides or hot reload
+     */
+    public static PromptTemplateRegistry bundledTemplates() {
+        return PromptTemplateRegistry.bundled(TEMPLATE_CONTENT_TYPES, ContentClassifier.CREATIVE, TEMPLATE_VARIABLES);
+    }
 
     @Override
     public PromptResponse generatePrompt(PromptRequest request) {
+        if (request.getInputText() == null) {
+            throw new IllegalArgumentException("inputText must not be null");
+        }
+        if (request.getMaxTokens() != null && request.getMaxTokens() < 1) {
+            throw new IllegalArgumentException("maxTokens must be positive");
+        }
         String inputText = request.getInputText().trim();
-        List<String> selectedTones = request.getSelectedTones();
+        List<String> selectedTones = ToneUtils.canonicalTones(request.getSelectedTones());
+        
+        // Detect the language, which selects the keywords used below
+        LanguagePack language = languages.detect(inputText);
         
         // Determine content type
-        String contentType = determineContentType(inputText);
+        String contentType = determineContentType(inputText, language);
+        
+        // Extract task, context and tone cues in one go
+        TextAnalysis analysis = textAnalyzer(language).analyze(inputText);
+        PromptResponse response = buildResponse(analysis, contentType, selectedTones);
         
+        // Estimate the prompt's size and compact it if it exceeds the budget
+        fitToBudget(response, analysis, request.getMaxTokens());
+        return response;
+    }
+
+    /**
+     * Renders the prompt for an analyzed input and wraps it in a response.
+     *
+     * @param analysis The analysis of the user's input text
+     * @param contentType The determined content type
+     * @param selectedTones The selected tones in catalog spelling
+     * @return The response carrying the generated prompt, without a token estimate
+     */
+    PromptResponse buildResponse(TextAnalysis analysis, String contentType, List<String> selectedTones) {
         // Determine if tones should be applied
-        boolean shouldApplyTones = shouldApplyTones(inputText, contentType);
+        boolean shouldApplyTones = shouldApplyTones(analysis, contentType);
+        
+        // Drop duplicate and contradictory tones and keep the strongest few
+        ToneEngine.Resolution tones = shouldApplyTones ? toneEngine.resolve(selectedTones) : NO_TONES;
         
         // Generate the prompt
-        String generatedPrompt = generateStructuredPrompt(inputText, selectedTones, shouldApplyTones, contentType);
+        String generatedPrompt = generateStructuredPrompt(analysis, tones.getApplied(), shouldApplyTones, contentType);
         
         // Build and return the response
         return PromptResponse.builder()
                 .generatedPrompt(generatedPrompt)
                 .tonesApplied(shouldApplyTones)
-                .appliedTones(shouldApplyTones ? selectedTones.toArray(new String[0]) : new String[0])
+                .appliedTones(tones.getApplied().toArray(new String[0]))
+                .droppedTones(tones.getDropped().toArray(new String[0]))
                 .contentType(contentType)
                 .build();
     }
+
+    /**
+     * Gets the classifier that determines the content type.
+     *
+     * @return The content classifier
+     */
+    ContentClassifier contentClassifier() {
+        return contentClassifier;
+    }
+
+    /**
+     * Gets the language packs inputs are analyzed with.
+     *
+     * @return The language pack registry
+     */
+    LanguagePackRegistry languages() {
+        return languages;
+    }
+
+    /**
+     * Gets the analyzer that extracts the task, context and tone cues in a language.
+     *
+     * @param language A pack of this service's registry
+     * @return The text analyzer
+     */
+    PromptTextAnalyzer textAnalyzer(LanguagePack language) {
+        return textAnalyzers[language.getIndex()];
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
     
     /**
      * Determines the type of content based on the input text.
      *
      * @param inputText The user's input text
+     * @param language The language pack of the input
      * @return The determined content type
      */
-    private String determineContentType(String inputText) {
-        String lowercaseInput = inputText.toLowerCase();
-        
-        // Check for personalized communication indicators
-        for (String keyword : PERSONALIZED_COMMUNICATION_KEYWORDS) {
-            if (lowercaseInput.contains(keyword)) {
-                return "communication";
-            }
-        }
-        
-        // Check for technical/instructional indicators
-        for (String keyword : TECHNICAL_KEYWORDS) {
-            if (lowercaseInput.contains(keyword)) {
-                return "technical";
-            }
-        }
-        
-        // Default to creative if no specific type is detected
-        return "creative";
+    private String determineContentType(String inputText, LanguagePack language) {
+        return contentClassifier.classify(inputText, language);
     }
     
     /**
      * Determines if tones should be applied based on content type and input text.
      *
-     * @param inputText The user's input text
+     * @param analysis The analysis of the user's input text
      * @param contentType The determined content type
      * @return True if tones should be applied, false otherwise
      */
-    private boolean shouldApplyTones(String inputText, String contentType) {
-        // Only apply tones for personalized communication
-        return "communication".equals(contentType) || 
-               inputText.toLowerCase().contains("tone") || 
-               inputText.toLowerCase().contains("style") ||
-               inputText.toLowerCase().contains("voice");
+    private boolean shouldApplyTones(TextAnalysis analysis, String contentType) {
+        // Only apply tones for personalized communication, or when the input asks for one
+        return ContentClassifier.COMMUNICATION.equals(contentType) || analysis.hasToneCue();
     }
     
     /**
-     * Generates a structured AI prompt based on the input text and selected tones.
+     * Sets the token estimate of a response, first compacting its prompt if it exceeds the budget.
      *
-     * @param inputText The user's input text
-     * @param selectedTones The selected tones
-     * @param applyTones Whether to apply tones
-     * @param contentType The determined content type
-     * @return The generated structured prompt
+     * @param response The response carrying the full prompt
+     * @param analysis The analysis the prompt was rendered from
+     * @param maxTokens The token budget, or null for none
      */
-    private String generateStructuredPrompt(String inputText, List<String> selectedTones, boolean applyTones, String contentType) {
-        StringBuilder promptBuilder = new StringBuilder();
-        
-        // Add appropriate prefix based on content type
-        if ("technical".equals(contentType)) {
-            promptBuilder.append("# Technical Instruction\n\n");
-        } else if ("communication".equals(contentType)) {
-            promptBuilder.append("# Communication Request\n\n");
-        } else {
-            promptBuilder.append("# Creative Request\n\n");
-        }
-        
-        // Add task description
-        promptBuilder.append("## Task\n");
-        promptBuilder.append(extractTaskFromInput(inputText)).append("\n\n");
-        
-        // Add context if available
-        String context = extractContextFromInput(inputText);
-        if (!context.isEmpty()) {
-            promptBuilder.append("## Context\n");
-            promptBuilder.append(context).append("\n\n");
-        }
-        
-        // Add tones if applicable
-        if (applyTones && selectedTones != null && !selectedTones.isEmpty()) {
-            promptBuilder.append("## Tone\n");
-            promptBuilder.append("Use the following tone(s): ");
-            promptBuilder.append(String.join(", ", selectedTones)).append("\n\n");
+    private void fitToBudget(PromptResponse response, TextAnalysis analysis, Integer maxTokens) {
+        int estimatedTokens = tokenEstimator.estimate(response.getGeneratedPrompt());
+        if (maxTokens != null && estimatedTokens > maxTokens) {
+            String compacted = compactToBudget(analysis, Arrays.asList(response.getAppliedTones()),
+                    response.getContentType(), maxTokens);
+            response.setGeneratedPrompt(compacted);
+            response.setPromptCompacted(true);
+            estimatedTokens = tokenEstimator.estimate(compacted);
         }
-        
-        // Add format guidelines
-        promptBuilder.append("## Format\n");
-        if ("technical".equals(contentType)) {
-            promptBuilder.append("Provide clear, precise, and structured information. Use appropriate formatting for code, steps, or technical details.\n\n");
-        } else if ("communication".equals(contentType)) {
-            promptBuilder.append("Structure the content appropriately for the intended communication medium. Include all necessary components.\n\n");
-        } else {
-            promptBuilder.append("Present the content in a clear, engaging manner. Use appropriate structure and formatting.\n\n");
-        }
-        
-        // Add output expectations
-        promptBuilder.append("## Output Expectations\n");
-        promptBuilder.append("The response should be comprehensive, accurate, and directly address the request. ");
-        
-        if (applyTones && selectedTones != null && !selectedTones.isEmpty()) {
-            promptBuilder.append("Maintain the specified tone(s) throughout.");
-        } else {
-            promptBuilder.append("Focus on clarity and precision.");
-        }
-        
-        return promptBuilder.toString();
+        response.setEstimatedTokens(estimatedTokens);
     }
     
     /**
-     * Extracts the main task from the input text.
+     * Renders a prompt that fits a token budget: the format guidance is left out first, then
+     * the context is cut at a token boundary, or left out entirely, until the estimate fits.
+     * The task is always kept, so the result can still exceed a very small budget.
      *
-     * @param inputText The user's input text
-     * @return The extracted task
+     * @param analysis The analysis of the user's input text
+     * @param appliedTones The tones to render, empty if none apply
+     * @param contentType The determined content type
+     * @param maxTokens The token budget
+     * @return The compacted prompt
      */
-    private String extractTaskFromInput(String inputText) {
-        // Simple extraction - in a real application, this would be more sophisticated
-        // using NLP techniques to better understand the user's intent
-        
-        // Remove common prefixes that aren't part of the actual task
-        String cleanedInput = inputText
-            .replaceAll("(?i)^(can you|could you|please|i need|i want|help me|write|create|generate|make)", "")
-            .trim();
-            
-        // If the cleaning removed too much, use the original
-        if (cleanedInput.length() < inputText.length() / 2) {
-            return inputText;
-        }
+    private String compactToBudget(TextAnalysis analysis, List<String> appliedTones, String contentType, int maxTokens) {
+        PromptTemplate template = templates.get(contentType);
+        PromptTemplateValues compact = new PromptTemplateValues(analysis, appliedTones).compact();
+        String prompt = template.render(compact);
+        int overshoot = tokenEstimator.estimate(prompt) - maxTokens;
         
-        // Capitalize first letter if needed
-        if (!cleanedInput.isEmpty() && Character.isLowerCase(cleanedInput.charAt(0))) {
-            cleanedInput = Character.toUpperCase(cleanedInput.charAt(0)) + cleanedInput.substring(1);
+        String text = analysis.getText();
+        int contextStart = analysis.contextStart();
+        int contextTokens = tokenEstimator.estimate(text, contextStart, contextStart + compact.contextLength());
+        // Estimates of adjacent sections add up almost exactly, so this rarely runs twice
+        while (overshoot > 0 && compact.contextLength() > 0) {
+            int keepTokens = contextTokens - overshoot - contextMarkerTokens;
+            int contextEnd = contextStart;
+            if (keepTokens > 0) {
+                contextEnd = tokenEstimator.fit(text, contextStart, contextStart + compact.contextLength(), keepTokens);
+                while (contextEnd > contextStart && Character.isWhitespace(text.charAt(contextEnd - 1))) {
+                    contextEnd--;
+                }
+            }
+            compact = compact.withContextLength(contextEnd - contextStart);
+            prompt = template.render(compact);
+            overshoot = tokenEstimator.estimate(prompt) - maxTokens;
+            contextTokens = keepTokens;
         }
-        
-        return cleanedInput;
+        return prompt;
     }
     
     /**
-     * Extracts context information from the input text.
+     * Generates a structured AI prompt based on the analyzed input and selected tones,
+     * using the template for the content type.
      *
-     * @param inputText The user's input text
-     * @return The extracted context
+     * @param analysis The analysis of the user's input text
+     * @param selectedTones The selected tones
+     * @param applyTones Whether to apply tones
+     * @param contentType The determined content type
+     * @return The generated structured prompt
      */
-    private String extractContextFromInput(String inputText) {
-        // Look for context indicators
-        String[] contextIndicators = {"for", "because", "since", "as", "given that", "considering"};
-        
-        for (String indicator : contextIndicators) {
-            int index = inputText.toLowerCase().indexOf(" " + indicator + " ");
-            if (index > 0) {
-                return inputText.substring(index + indicator.length() + 1).trim();
-            }
-        }
+    String generateStructuredPrompt(TextAnalysis analysis, List<String> selectedTones, boolean applyTones, String contentType) {
+        boolean includeTones = applyTones && selectedTones != null && !selectedTones.isEmpty();
+        PromptTemplateValues values = new PromptTemplateValues(analysis, includeTones ? selectedTones : List.of());
         
-        return "";
+        // The template sizes its output before rendering, so the builder never has to grow
+        return templates.get(contentType).render(values);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.template.TemplateValues;
+
+import java.util.List;
+
+/**
+ * Exposes an analyzed input and its tones to a prompt template. The {@code compact}
+ * variable is present when the prompt has to fit a token budget, and the context can be
+ * cut short, ending in {@link #CONTEXT_MARKER}.
+ */
+final class PromptTemplateValues implements TemplateValues {
+
+    /** Variable names in id order. */
+    static final List<String> VARIABLES = List.of("task", "context", "tones", "compact");
+
+    static final int TASK = 0;
+    static final int CONTEXT = 1;
+    static final int TONES = 2;
+    static final int COMPACT = 3;
+
+    /** Ends a context that was cut short. */
+    static final String CONTEXT_MARKER = " [...]";
+
+    private static final String TONE_SEPARATOR = ", ";
+
+    private final TextAnalysis analysis;
+    private final List<String> tones;
+    private final boolean compact;
+    private final int contextLength;
+
+    /**
+     * @param analysis The analyzed input
+     * @param tones The tones to render, empty if none apply
+     */
+    PromptTemplateValues(TextAnalysis analysis, List<String> tones) {
+        this(analysis, tones, false, analysis.contextLength());
+    }
+
+    private PromptTemplateValues(TextAnalysis analysis, List<String> tones, boolean compact, int contextLength) {
+        this.analysis = analysis;
+        this.tones = tones;
+        this.compact = compact;
+        this.contextLength = contextLength;
+    }
+
+    /**
+     * Gets these values for a compact prompt.
+     *
+     * @return Values with the {@code compact} variable present
+     */
+    PromptTemplateValues compact() {
+        return new PromptTemplateValues(analysis, tones, true, contextLength);
+    }
+
+    /**
+     * Gets these values with the context cut to its first {@code length} characters.
+     *
+     * @param length Characters of the context to keep; 0 leaves the context out
+     * @return Values with the shortened context
+     */
+    PromptTemplateValues withContextLength(int length) {
+        return new PromptTemplateValues(analysis, tones, compact, length);
+    }
+
+    /**
+     * Gets the number of context characters rendered, not counting the marker.
+     *
+     * @return The rendered context length
+     */
+    int contextLength() {
+        return contextLength;
+    }
+
+    @Override
+    public boolean isPresent(int variableId) {
+        return switch (variableId) {
+            case TASK -> true;
+            case CONTEXT -> contextLength > 0;
+            case TONES -> !tones.isEmpty();
+            case COMPACT -> compact;
+            default -> false;
+        };
+    }
+
+    @Override
+    public int length(int variableId) {
+        switch (variableId) {
+            case TASK:
+                return analysis.taskLength();
+            case CONTEXT:
+                return contextLength < analysis.contextLength()
+                        ? contextLength + CONTEXT_MARKER.length()
+                        : contextLength;
+            case TONES:
+                int length = Math.max(0, tones.size() - 1) * TONE_SEPARATOR.length();
+                for (String tone : tones) {
+                    length += tone.length();
+                }
+                return length;
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public void appendTo(int variableId, StringBuilder target) {
+        switch (variableId) {
+            case TASK -> analysis.appendTask(target);
+            case CONTEXT -> {
+                if (contextLength < analysis.contextLength()) {
+                    analysis.appendContext(target, contextLength);
+                    target.append(CONTEXT_MARKER);
+                } else {
+                    analysis.appendContext(target);
+                }
+            }
+            case TONES -> {
+                for (int i = 0; i < tones.size(); i++) {
+                    if (i > 0) {
+                        target.append(TONE_SEPARATOR);
+                    }
+                    target.append(tones.get(i));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
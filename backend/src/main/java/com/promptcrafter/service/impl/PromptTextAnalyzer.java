@@ -0,0 +1,226 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.language.LanguagePack;
+import com.promptcrafter.language.LanguagePackRegistry;
+import com.promptcrafter.util.IncrementalKeywordMatches;
+import com.promptcrafter.util.KeywordAutomaton;
+
+import java.util.Set;
+
+/**
+ * Extracts the task, the context and tone cues from user input, using the keywords of
+ * one language pack.
+ * <p>
+ * The pack's matchers are compiled once. Analysis never lowercases or copies the input:
+ * prefix and context detection fold case per character and only record index ranges.
+ */
+public final class PromptTextAnalyzer {
+
+    /** Languages whose capital of {@code i} is the dotted {@code İ}. */
+    private static final Set<String> DOTTED_CAPITAL_I_LANGUAGES = Set.of("tr", "az");
+
+    private final LanguagePack language;
+    private final KeywordAutomaton taskPrefixes;
+    private final KeywordAutomaton contextIndicators;
+    private final KeywordAutomaton toneCues;
+    private final boolean dottedCapitalI;
+
+    public PromptTextAnalyzer(LanguagePack language) {
+        this.language = language;
+        this.taskPrefixes = language.taskPrefixes();
+        this.contextIndicators = language.contextIndicators();
+        this.toneCues = language.toneCues();
+        this.dottedCapitalI = DOTTED_CAPITAL_I_LANGUAGES.contains(language.getLocale().getLanguage());
+    }
+
+    /**
+     * Gets the analyzer for English input.
+     *
+     * @return The English analyzer
+     */
+    public static PromptTextAnalyzer english() {
+        return English.INSTANCE;
+    }
+
+    /**
+     * Gets the language pack the analyzer uses.
+     *
+     * @return The language pack
+     */
+    public LanguagePack language() {
+        return language;
+    }
+
+    /**
+     * Analyzes the input text.
+     *
+     * @param inputText The trimmed user input
+     * @return The analysis, referring to ranges of the input
+     */
+    public TextAnalysis analyze(String inputText) {
+        int length = inputText.length();
+        return analyze(inputText, 0, length, contextIndicatorEnd(inputText, 0, length), hasToneCue(inputText));
+    }
+
+    /**
+     * Builds the analysis of the trimmed input {@code text[from, to)} from keyword scan
+     * results the caller already has, for callers that track matches incrementally.
+     *
+     * @param text The text containing the input
+     * @param from The start of the trimmed input
+     * @param to The end of the trimmed input
+     * @param indicatorEnd The end of the chosen context indicator, or -1 if there is none
+     * @param toneCue Whether the input mentions tone, style or voice
+     * @return The analysis, referring to ranges of the text
+     */
+    TextAnalysis analyze(String text, int from, int to, int indicatorEnd, boolean toneCue) {
+        int[] task = taskRange(text, from, to);
+        int[] context = contextRange(text, to, indicatorEnd);
+        // Capitalize first letter if needed, unless the original input is used as is
+        char initial = task[1] > task[0] ? text.charAt(task[0]) : 0;
+        if (task[2] == 0 && Character.isLowerCase(initial)) {
+            initial = capitalize(initial);
+        }
+        return new TextAnalysis(text, task[0], task[1], initial, context[0], context[1], toneCue);
+    }
+
+    /**
+     * Extracts the main task from the input text.
+     *
+     * @param inputText The user's input text
+     * @return The extracted task
+     */
+    public String extractTask(String inputText) {
+        return analyze(inputText).task();
+    }
+
+    /**
+     * Extracts context information from the input text.
+     *
+     * @param inputText The user's input text
+     * @return The extracted context, or an empty string if there is none
+     */
+    public String extractContext(String inputText) {
+        int length = inputText.length();
+        int[] context = contextRange(inputText, length, contextIndicatorEnd(inputText, 0, length));
+        return inputText.substring(context[0], context[1]);
+    }
+
+    /**
+     * Indicates whether the input explicitly mentions tone, style or voice.
+     *
+     * @param inputText The user's input text
+     * @return True if a tone cue is present
+     */
+    public boolean hasToneCue(CharSequence inputText) {
+        return toneCues.matchCategories(inputText, 0, inputText.length(), 1L) != 0;
+    }
+
+    /**
+     * Gets the automaton matching the context indicators, with the indicator's priority as
+     * its category.
+     */
+    KeywordAutomaton contextIndicators() {
+        return contextIndicators;
+    }
+
+    /**
+     * Gets the automaton matching tone cues.
+     */
+    KeywordAutomaton toneCues() {
+        return toneCues;
+    }
+
+    /**
+     * Chooses the context indicator among tracked matches: the first occurrence of the
+     * highest priority indicator inside the trimmed input, other than at its very start.
+     *
+     * @param matches The context indicator occurrences in the text
+     * @param from The start of the trimmed input
+     * @param to The end of the trimmed input
+     * @return The end of the chosen indicator, or -1 if there is none
+     */
+    int contextIndicatorEnd(IncrementalKeywordMatches matches, int from, int to) {
+        int[] best = {Integer.MAX_VALUE, Integer.MAX_VALUE, -1};
+        matches.forEach((keywordId, start, end) -> {
+            int priority = contextIndicators.category(keywordId);
+            if (start > from && end <= to && (priority < best[0] || priority == best[0] && start < best[1])) {
+                best[0] = priority;
+                best[1] = start;
+                best[2] = end;
+            }
+            return true;
+        });
+        return best[2];
+    }
+
+    /**
+     * Finds the task as {start, end, usesOriginal}.
+     */
+    private int[] taskRange(String text, int from, int to) {
+        int start = from;
+        int prefixEnd = taskPrefixes.prefixEnd(text, from, to);
+        if (prefixEnd >= 0) {
+            start = prefixEnd;
+        }
+        int end = to;
+        start = skipWhitespaceForward(text, start, end);
+        end = skipWhitespaceBackward(text, start, end);
+
+        // If the cleaning removed too much, use the original
+        if (end - start < (to - from) / 2) {
+            return new int[] {from, to, 1};
+        }
+        return new int[] {start, end, 0};
+    }
+
+    /**
+     * Uppercases a character; Character.toUpperCase ignores the locale, which only matters for i.
+     */
+    private char capitalize(char c) {
+        return c == 'i' && dottedCapitalI ? '\u0130' : Character.toUpperCase(c);
+    }
+
+    private int contextIndicatorEnd(String text, int from, int to) {
+        int[] best = {Integer.MAX_VALUE, -1};
+        contextIndicators.forEachMatch(text, from, to, (keywordId, start, end) -> {
+            int priority = contextIndicators.category(keywordId);
+            if (start > from && priority < best[0]) {
+                best[0] = priority;
+                best[1] = end;
+            }
+            return best[0] != 0;
+        });
+        return best[1];
+    }
+
+    private static int[] contextRange(String text, int to, int indicatorEnd) {
+        if (indicatorEnd < 0) {
+            return new int[] {0, 0};
+        }
+        // Context starts after the indicator, at its trailing space
+        int start = skipWhitespaceForward(text, indicatorEnd - 1, to);
+        return new int[] {start, skipWhitespaceBackward(text, start, to)};
+    }
+
+    // Whitespace as defined by String.trim()
+    private static int skipWhitespaceForward(String text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipWhitespaceBackward(String text, int from, int to) {
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static final class English {
+
+        static final PromptTextAnalyzer INSTANCE =
+                new PromptTextAnalyzer(LanguagePackRegistry.standard().get(LanguagePackRegistry.ENGLISH));
+    }
+}
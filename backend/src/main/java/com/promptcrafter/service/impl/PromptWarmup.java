@@ -0,0 +1,75 @@
+package com.promptcrafter.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runs sample requests through prompt generation so the JIT compiles the hot paths before
+ * real traffic arrives.
+ * <p>
+ * The samples cover every content type, tone selections with and without conflicts, and a
+ * token budget small enough to compact the prompt. Each one is read from JSON, validated
+ * and written back to JSON like a request on the generate endpoint, so Jackson's
+ * serializers and the validator's constraint metadata are built as well; building those
+ * otherwise makes up most of the first request's latency. The samples bypass the cache,
+ * history and metrics decorators.
+ */
+public class PromptWarmup {
+
+    private static final List<String> SAMPLES = List.of(
+            "{\"inputText\":\"Fix the null pointer exception in my Java service when the database "
+                    + "connection times out\",\"selectedTones\":[\"Technical\",\"Concise\"]}",
+            "{\"inputText\":\"Write an email to my team announcing the new release because customers "
+                    + "asked for it\",\"selectedTones\":[\"Friendly\",\"Clear\",\"Formal\"]}",
+            "{\"inputText\":\"Write a short story about a lighthouse keeper who finds a message in a "
+                    + "bottle\",\"selectedTones\":[\"Whimsical\",\"Descriptive\",\"Brief\"]}",
+            "{\"inputText\":\"Explain how to design a REST API for a library system with books, members "
+                    + "and loans, and how to version it\",\"selectedTones\":[],\"maxTokens\":40}");
+
+    private final PromptService promptService;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final ObjectWriter responseWriter;
+
+    public PromptWarmup(PromptService promptService, Validator validator, ObjectMapper objectMapper) {
+        this.promptService = promptService;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(PromptRequest.class);
+        this.responseWriter = objectMapper.writerFor(PromptResponse.class);
+    }
+
+    /**
+     * Generates sample prompts until the iteration count or the time limit is reached.
+     *
+     * @param iterations Number of prompts to generate
+     * @param timeLimit Longest time to spend
+     * @return The number of prompts generated
+     */
+    public int run(int iterations, Duration timeLimit) {
+        long deadline = System.nanoTime() + timeLimit.toNanos();
+        int done = 0;
+        try {
+            while (done < iterations && System.nanoTime() - deadline < 0) {
+                PromptRequest request = requestReader.readValue(SAMPLES.get(done % SAMPLES.size()));
+                if (!validator.validate(request).isEmpty()) {
+                    throw new IllegalStateException("Warmup sample is not a valid request: " + request);
+                }
+                responseWriter.writeValueAsBytes(promptService.generatePrompt(request));
+                done++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Warmup sample is not a valid request", e);
+        }
+        return done;
+    }
+}
@@ -0,0 +1,107 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * PromptService decorator that coalesces concurrent identical requests.
+ * <p>
+ * The first request for a {@link PromptRequestKey} runs the delegate; requests with the
+ * same key that arrive while it is running wait for its result instead of generating the
+ * prompt again. The entry is removed as soon as the computation finishes, so only
+ * in-flight work is shared and a failure is reported to the waiting callers without
+ * being remembered. Every caller receives its own copy of the response.
+ */
+public class SingleFlightPromptService implements PromptService {
+
+    private final PromptService delegate;
+    private final BatchPromptExecutor batchExecutor;
+    private final ConcurrentMap<PromptRequestKey, CompletableFuture<PromptResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public SingleFlightPromptService(PromptService delegate, BatchPromptExecutor batchExecutor, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.batchExecutor = batchExecutor;
+        this.coalesced = Counter.builder("promptcrafter.prompt.coalesced")
+                .description("Requests answered by an identical request that was already in flight")
+                .register(registry);
+        Gauge.builder("promptcrafter.prompt.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct prompts currently being generated")
+                .register(registry);
+    }
+
+    @Override
+    public PromptResponse generatePrompt(PromptRequest request) {
+        if (request.getInputText() == null) {
+            return delegate.generatePrompt(request);
+        }
+        PromptRequestKey key = PromptRequestKey.of(request);
+        CompletableFuture<PromptResponse> flight = new CompletableFuture<>();
+        CompletableFuture<PromptResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return copyOf(await(existing));
+        }
+        try {
+            PromptResponse response = delegate.generatePrompt(request);
+            inFlight.remove(key, flight);
+            flight.complete(response);
+            return copyOf(response);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+        return batchExecutor.execute(requests, this::generatePrompt);
+    }
+
+    /**
+     * Gets the number of distinct prompts currently being generated.
+     *
+     * @return The number of in-flight computations
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static PromptResponse await(CompletableFuture<PromptResponse> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's failure as it was thrown
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Copies the shared response, since decorators further out set per-caller fields
+     * such as the history id on it.
+     */
+    private static PromptResponse copyOf(PromptResponse response) {
+        return response.toBuilder()
+                .appliedTones(response.getAppliedTones() != null ? response.getAppliedTones().clone() : null)
+                .droppedTones(response.getDroppedTones() != null ? response.getDroppedTones().clone() : null)
+                .build();
+    }
+}
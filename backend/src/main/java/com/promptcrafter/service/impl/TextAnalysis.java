@@ -0,0 +1,138 @@
+package com.promptcrafter.service.impl;
+
+/**
+ * Result of analyzing a single input text. The task and context are kept as index
+ * ranges into the input, so they can be appended to a prompt without intermediate
+ * substring copies.
+ */
+public final class TextAnalysis {
+
+    private final String text;
+    private final int taskStart;
+    private final int taskEnd;
+    /** The first character of the task as it is appended, capitalized if needed. */
+    private final char taskInitial;
+    private final int contextStart;
+    private final int contextEnd;
+    private final boolean toneCue;
+
+    TextAnalysis(String text, int taskStart, int taskEnd, char taskInitial,
+                 int contextStart, int contextEnd, boolean toneCue) {
+        this.text = text;
+        this.taskStart = taskStart;
+        this.taskEnd = taskEnd;
+        this.taskInitial = taskInitial;
+        this.contextStart = contextStart;
+        this.contextEnd = contextEnd;
+        this.toneCue = toneCue;
+    }
+
+    /**
+     * Gets the analyzed input text.
+     *
+     * @return The input text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the length of the extracted task.
+     *
+     * @return The task length in characters
+     */
+    public int taskLength() {
+        return taskEnd - taskStart;
+    }
+
+    /**
+     * Appends the extracted task, capitalized if needed.
+     *
+     * @param target The builder to append to
+     */
+    public void appendTask(StringBuilder target) {
+        if (taskEnd == taskStart) {
+            return;
+        }
+        target.append(taskInitial);
+        target.append(text, taskStart + 1, taskEnd);
+    }
+
+    /**
+     * Gets the extracted task as a string.
+     *
+     * @return The task
+     */
+    public String task() {
+        if (taskEnd == taskStart || taskInitial == text.charAt(taskStart)) {
+            return text.substring(taskStart, taskEnd);
+        }
+        StringBuilder task = new StringBuilder(taskLength());
+        appendTask(task);
+        return task.toString();
+    }
+
+    /**
+     * Indicates whether context information was found.
+     *
+     * @return True if the input contains a context clause
+     */
+    public boolean hasContext() {
+        return contextEnd > contextStart;
+    }
+
+    /**
+     * Gets the length of the extracted context.
+     *
+     * @return The context length in characters, or 0 if there is none
+     */
+    public int contextLength() {
+        return contextEnd - contextStart;
+    }
+
+    /**
+     * Gets the offset of the extracted context in the input text.
+     *
+     * @return The context start
+     */
+    public int contextStart() {
+        return contextStart;
+    }
+
+    /**
+     * Appends the extracted context.
+     *
+     * @param target The builder to append to
+     */
+    public void appendContext(StringBuilder target) {
+        target.append(text, contextStart, contextEnd);
+    }
+
+    /**
+     * Appends the start of the extracted context.
+     *
+     * @param target The builder to append to
+     * @param length Number of context characters to append
+     */
+    public void appendContext(StringBuilder target, int length) {
+        target.append(text, contextStart, contextStart + length);
+    }
+
+    /**
+     * Gets the extracted context as a string.
+     *
+     * @return The context, or an empty string if there is none
+     */
+    public String context() {
+        return text.substring(contextStart, contextEnd);
+    }
+
+    /**
+     * Indicates whether the input explicitly mentions tone, style or voice.
+     *
+     * @return True if the input contains a tone cue
+     */
+    public boolean hasToneCue() {
+        return toneCue;
+    }
+}
@@ -0,0 +1,191 @@
+package com.promptcrafter.template;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A prompt template parsed once into a flat list of segments.
+ * <p>
+ * Syntax, a subset of Mustache:
+ * <ul>
+ *     <li>{@code {{name}}} appends the value of a variable</li>
+ *     <li>{@code {{#name}}...{{/name}}} renders its content only if the variable is present</li>
+ *     <li>{@code {{^name}}...{{/name}}} renders its content only if the variable is absent</li>
+ * </ul>
+ * Sections compile to conditional jumps, so rendering is a single loop over the segments.
+ * The output length is computed in a first pass and the builder allocated at that size.
+ */
+public final class PromptTemplate {
+
+    private static final int LITERAL = 0;
+    private static final int VARIABLE = 1;
+    private static final int SKIP_IF_ABSENT = 2;
+    private static final int SKIP_IF_PRESENT = 3;
+
+    /** Segment opcodes. */
+    private final int[] ops;
+    /** Literal index for LITERAL, variable id otherwise. */
+    private final int[] operands;
+    /** Segment to continue at when a section is skipped. */
+    private final int[] jumps;
+    private final String[] literals;
+
+    private PromptTemplate(int[] ops, int[] operands, int[] jumps, String[] literals) {
+        this.ops = ops;
+        this.operands = operands;
+        this.jumps = jumps;
+        this.literals = literals;
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param source The template text
+     * @param variables The variable names the template may use; a name's index is its id
+     * @return The compiled template
+     * @throws TemplateException if the template is malformed or uses an unknown variable
+     */
+    public static PromptTemplate compile(String source, List<String> variables) {
+        List<Integer> ops = new ArrayList<>();
+        List<Integer> operands = new ArrayList<>();
+        List<Integer> jumps = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        Deque<int[]> openSections = new ArrayDeque<>();
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            int literalEnd = open < 0 ? source.length() : open;
+            if (literalEnd > position) {
+                ops.add(LITERAL);
+                operands.add(literals.size());
+                jumps.add(-1);
+                literals.add(source.substring(position, literalEnd));
+            }
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new TemplateException("Unclosed tag at offset " + open);
+            }
+            String tag = source.substring(open + 2, close).trim();
+            position = close + 2;
+            if (tag.isEmpty()) {
+                throw new TemplateException("Empty tag at offset " + open);
+            }
+
+            char sigil = tag.charAt(0);
+            if (sigil == '#' || sigil == '^') {
+                int variable = variableId(tag.substring(1).trim(), variables, open);
+                openSections.push(new int[] {variable, ops.size()});
+                ops.add(sigil == '#' ? SKIP_IF_ABSENT : SKIP_IF_PRESENT);
+                operands.add(variable);
+                jumps.add(-1);
+            } else if (sigil == '/') {
+                int variable = variableId(tag.substring(1).trim(), variables, open);
+                if (openSections.isEmpty() || openSections.peek()[0] != variable) {
+                    throw new TemplateException("Unexpected closing tag {{" + tag + "}} at offset " + open);
+                }
+                jumps.set(openSections.pop()[1], ops.size());
+            } else {
+                ops.add(VARIABLE);
+                operands.add(variableId(tag, variables, open));
+                jumps.add(-1);
+            }
+        }
+        if (!openSections.isEmpty()) {
+            throw new TemplateException("Unclosed section {{#" + variables.get(openSections.peek()[0]) + "}}");
+        }
+
+        return new PromptTemplate(
+                ops.stream().mapToInt(Integer::intValue).toArray(),
+                operands.stream().mapToInt(Integer::intValue).toArray(),
+                jumps.stream().mapToInt(Integer::intValue).toArray(),
+                literals.toArray(new String[0]));
+    }
+
+    /**
+     * Computes the exact length of the rendered output.
+     *
+     * @param values The variable values
+     * @return The output length in characters
+     */
+    public int measure(TemplateValues values) {
+        int length = 0;
+        int pc = 0;
+        while (pc < ops.length) {
+            switch (ops[pc]) {
+                case LITERAL -> length += literals[operands[pc]].length();
+                case VARIABLE -> length += values.length(operands[pc]);
+                case SKIP_IF_ABSENT -> {
+                    if (!values.isPresent(operands[pc])) {
+                        pc = jumps[pc];
+                        continue;
+                    }
+                }
+                case SKIP_IF_PRESENT -> {
+                    if (values.isPresent(operands[pc])) {
+                        pc = jumps[pc];
+                        continue;
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown segment type " + ops[pc]);
+            }
+            pc++;
+        }
+        return length;
+    }
+
+    /**
+     * Renders the template.
+     *
+     * @param values The variable values
+     * @return The rendered text
+     */
+    public String render(TemplateValues values) {
+        StringBuilder target = new StringBuilder(measure(values));
+        renderTo(values, target);
+        return target.toString();
+    }
+
+    /**
+     * Renders the template into an existing builder.
+     *
+     * @param values The variable values
+     * @param target The builder to append to
+     */
+    public void renderTo(TemplateValues values, StringBuilder target) {
+        int pc = 0;
+        while (pc < ops.length) {
+            switch (ops[pc]) {
+                case LITERAL -> target.append(literals[operands[pc]]);
+                case VARIABLE -> values.appendTo(operands[pc], target);
+                case SKIP_IF_ABSENT -> {
+                    if (!values.isPresent(operands[pc])) {
+                        pc = jumps[pc];
+                        continue;
+                    }
+                }
+                case SKIP_IF_PRESENT -> {
+                    if (values.isPresent(operands[pc])) {
+                        pc = jumps[pc];
+                        continue;
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown segment type " + ops[pc]);
+            }
+            pc++;
+        }
+    }
+
+    private static int variableId(String name, List<String> variables, int offset) {
+        int id = variables.indexOf(name);
+        if (id < 0) {
+            throw new TemplateException("Unknown variable '" + name + "' at offset " + offset);
+        }
+        return id;
+    }
+}
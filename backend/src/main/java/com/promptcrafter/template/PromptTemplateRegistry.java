@@ -0,0 +1,232 @@
+package com.promptcrafter.template;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Holds the compiled prompt template for each content type.
+ * <p>
+ * Templates are read from {@code templates/prompts/<content-type>.tmpl} on the classpath,
+ * optionally overridden by files of the same name in a directory. When a directory is
+ * watched, a changed file is recompiled and swapped in atomically; a template that fails
+ * to compile is reported and the previous version stays in use. Lookups never block.
+ * Reload listeners are told about every replaced template, so results rendered from the
+ * previous version can be dropped.
+ */
+public class PromptTemplateRegistry implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptTemplateRegistry.class);
+
+    static final String CLASSPATH_PREFIX = "templates/prompts/";
+    static final String EXTENSION = ".tmpl";
+
+    private final List<String> contentTypes;
+    private final String fallbackContentType;
+    private final List<String> variables;
+    private final Path directory;
+    private final WatchService watchService;
+    private final List<Consumer<String>> reloadListeners = new CopyOnWriteArrayList<>();
+
+    /** Replaced as a whole on reload, so readers always see a consistent set. */
+    private volatile Map<String, PromptTemplate> templates;
+
+    /**
+     * Creates a registry.
+     *
+     * @param contentTypes The content types to load templates for
+     * @param fallbackContentType The content type used for unknown ones
+     * @param variables The variable names templates may use
+     * @param directory Directory with overrides, or null for bundled templates only
+     * @param hotReload Whether to watch the directory for changes
+     * @throws TemplateException if a template cannot be loaded or compiled
+     */
+    public PromptTemplateRegistry(List<String> contentTypes, String fallbackContentType, List<String> variables,
+                                  Path directory, boolean hotReload) {
+        this.contentTypes = List.copyOf(contentTypes);
+        this.fallbackContentType = fallbackContentType;
+        this.variables = List.copyOf(variables);
+        this.directory = directory;
+
+        Map<String, PromptTemplate> loaded = new HashMap<>();
+        for (String contentType : this.contentTypes) {
+            loaded.put(contentType, load(contentType));
+        }
+        this.templates = Map.copyOf(loaded);
+        if (!loaded.containsKey(fallbackContentType)) {
+            throw new TemplateException("No template for fallback content type " + fallbackContentType);
+        }
+
+        this.watchService = directory != null && hotReload ? startWatching(directory) : null;
+    }
+
+    /**
+     * Creates a registry with the bundled templates only.
+     *
+     * @param contentTypes The content types to load templates for
+     * @param fallbackContentType The content type used for unknown ones
+     * @param variables The variable names templates may use
+     * @return The registry
+     */
+    public static PromptTemplateRegistry bundled(List<String> contentTypes, String fallbackContentType,
+                                                 List<String> variables) {
+        return new PromptTemplateRegistry(contentTypes, fallbackContentType, variables, null, false);
+    }
+
+    /**
+     * Gets the template for a content type.
+     *
+     * @param contentType The content type
+     * @return Its template, or the fallback template if the type is unknown
+     */
+    public PromptTemplate get(String contentType) {
+        Map<String, PromptTemplate> current = templates;
+        PromptTemplate template = current.get(contentType);
+        return template != null ? template : current.get(fallbackContentType);
+    }
+
+    /**
+     * Registers a listener called with the content type after its template was replaced.
+     *
+     * @param listener The listener
+     */
+    public void addReloadListener(Consumer<String> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Reloads one content type's template from its source.
+     *
+     * @param contentType The content type
+     * @return True if the template was replaced, false if it failed to load and the old one was kept
+     */
+    public boolean reload(String contentType) {
+        if (!contentTypes.contains(contentType)) {
+            return false;
+        }
+        PromptTemplate template;
+        try {
+            template = load(contentType);
+        } catch (TemplateException e) {
+            log.warn("Keeping the previous {} template: {}", contentType, e.getMessage());
+            return false;
+        }
+        synchronized (this) {
+            Map<String, PromptTemplate> updated = new HashMap<>(templates);
+            updated.put(contentType, template);
+            templates = Map.copyOf(updated);
+        }
+        log.info("Reloaded the {} prompt template", contentType);
+        for (Consumer<String> listener : reloadListeners) {
+            listener.accept(contentType);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private PromptTemplate load(String contentType) {
+        String fileName = contentType + EXTENSION;
+        String source;
+        if (directory != null && Files.isRegularFile(directory.resolve(fileName))) {
+            try {
+                source = Files.readString(directory.resolve(fileName), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new TemplateException("Could not read " + directory.resolve(fileName), e);
+            }
+        } else {
+            source = readClasspath(CLASSPATH_PREFIX + fileName);
+        }
+        try {
+            return PromptTemplate.compile(stripFinalNewline(source), variables);
+        } catch (TemplateException e) {
+            throw new TemplateException(fileName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String readClasspath(String resource) {
+        ClassLoader classLoader = PromptTemplateRegistry.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new TemplateException("Missing template resource " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drops the newline editors add at the end of a file, so a template's last line
+     * does not end the prompt with a line break.
+     */
+    private static String stripFinalNewline(String source) {
+        if (source.endsWith("\r\n")) {
+            return source.substring(0, source.length() - 2);
+        }
+        if (source.endsWith("\n")) {
+            return source.substring(0, source.length() - 1);
+        }
+        return source;
+    }
+
+    private WatchService startWatching(Path directory) {
+        WatchService service;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new TemplateException("Could not watch template directory " + directory, e);
+        }
+        Thread watcher = new Thread(() -> watch(service), "prompt-template-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return service;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path changed) {
+                        String fileName = changed.getFileName().toString();
+                        if (fileName.endsWith(EXTENSION)) {
+                            reload(fileName.substring(0, fileName.length() - EXTENSION.length()));
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Template directory {} is no longer watched", directory);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Registry closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
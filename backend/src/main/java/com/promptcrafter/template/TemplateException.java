@@ -0,0 +1,15 @@
+package com.promptcrafter.template;
+
+/**
+ * Thrown when a prompt template cannot be parsed or loaded.
+ */
+public class TemplateException extends RuntimeException {
+
+    public TemplateException(String message) {
+        super(message);
+    }
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
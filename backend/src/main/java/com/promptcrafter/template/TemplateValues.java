@@ -0,0 +1,33 @@
+package com.promptcrafter.template;
+
+/**
+ * Supplies variable values while a {@link PromptTemplate} renders. Variables are
+ * addressed by the ids they were given at compile time, so rendering needs no map
+ * lookups, and values are appended directly instead of being materialized first.
+ */
+public interface TemplateValues {
+
+    /**
+     * Indicates whether a variable has a value; sections render only for present variables.
+     *
+     * @param variableId The variable id
+     * @return True if the variable is present
+     */
+    boolean isPresent(int variableId);
+
+    /**
+     * Gets the exact number of characters {@link #appendTo} will append.
+     *
+     * @param variableId The variable id
+     * @return The value length
+     */
+    int length(int variableId);
+
+    /**
+     * Appends the value of a variable.
+     *
+     * @param variableId The variable id
+     * @param target The builder to append to
+     */
+    void appendTo(int variableId, StringBuilder target);
+}
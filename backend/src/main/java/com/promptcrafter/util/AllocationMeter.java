@@ -0,0 +1,57 @@
+package com.promptcrafter.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures heap allocation of the current thread, using the HotSpot per-thread
+ * allocation counters where the JVM provides them.
+ */
+public final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = hotSpotThreadBean();
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * Indicates whether allocation measurement is available on this JVM.
+     *
+     * @return True if allocated bytes can be measured
+     */
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Gets the total number of bytes the current thread has allocated so far.
+     *
+     * @return The allocated bytes, or -1 if measurement is not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getCurrentThreadAllocatedBytes() : -1L;
+    }
+
+    /**
+     * Measures the bytes allocated on the current thread while running a task.
+     *
+     * @param task The task to measure
+     * @return The allocated bytes, or -1 if measurement is not supported
+     */
+    public static long measure(Runnable task) {
+        long before = currentThreadAllocatedBytes();
+        task.run();
+        long after = currentThreadAllocatedBytes();
+        return before < 0 ? -1L : after - before;
+    }
+
+    private static com.sun.management.ThreadMXBean hotSpotThreadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotSpotBean
+                && hotSpotBean.isThreadAllocatedMemorySupported()) {
+            hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+            return hotSpotBean;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.promptcrafter.util;
+
+import com.promptcrafter.admission.RequestTooLargeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines from a stream, failing as soon as a line grows past a size limit.
+ * <p>
+ * {@link java.io.BufferedReader#readLine()} buffers a whole line before returning it, so a
+ * body without line breaks would be held in memory however large it is. This reader
+ * counts the bytes of the current line as they arrive and throws a
+ * {@link RequestTooLargeException} once the limit is passed. Lines end at {@code \n}, with
+ * an optional {@code \r} before it; the byte {@code \n} never occurs inside a multi-byte
+ * UTF-8 character, so lines are split before decoding. The stream is not closed.
+ */
+public final class BoundedLineReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final long maxLineBytes;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private byte[] line = new byte[256];
+
+    /**
+     * Creates a reader.
+     *
+     * @param in The stream to read
+     * @param maxLineBytes Largest accepted line in bytes, without its line break
+     */
+    public BoundedLineReader(InputStream in, long maxLineBytes) {
+        this.in = in;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return The line without its line break, or null at the end of the stream
+     * @throws RequestTooLargeException if the line is longer than the limit
+     * @throws IOException if reading the stream fails
+     */
+    public String readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return length > 0 ? decode(length) : null;
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            int chunk = position - start;
+            if (length + (long) chunk > maxLineBytes + 1) {
+                // One byte of slack for a \r that turns out to end the line
+                throw new RequestTooLargeException("Line exceeds " + maxLineBytes + " bytes");
+            }
+            if (length + chunk > line.length) {
+                line = Arrays.copyOf(line, Math.max(length + chunk, line.length * 2));
+            }
+            System.arraycopy(buffer, start, line, length, chunk);
+            length += chunk;
+            if (position < limit) {
+                // Skip the \n
+                position++;
+                return decode(length);
+            }
+        }
+    }
+
+    private String decode(int length) throws RequestTooLargeException {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        if (length > maxLineBytes) {
+            throw new RequestTooLargeException("Line exceeds " + maxLineBytes + " bytes");
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,51 @@
+package com.promptcrafter.util;
+
+/**
+ * Locale-independent case folding of single characters.
+ * <p>
+ * A character folds to the lowercase of its uppercase, which makes all case variants of a
+ * letter equal: {@code ſ} and {@code s}, {@code ς} and {@code σ}, and the Turkish
+ * {@code İ} and {@code ı} both fold to {@code i}, so Turkish and English spellings of the
+ * same keyword match whatever the default locale is. Mappings that need more than one
+ * character, such as {@code ß} to {@code ss}, are left out, so folding never changes the
+ * length of a text and offsets into the input stay valid. Folds are precomputed for every
+ * {@code char}, so folding is a single table lookup and never allocates. Characters outside
+ * the Basic Multilingual Plane are not folded.
+ */
+public final class CaseFolding {
+
+    private static final char[] FOLDED = new char[Character.MAX_VALUE + 1];
+
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            FOLDED[c] = Character.toLowerCase(Character.toUpperCase((char) c));
+        }
+    }
+
+    private CaseFolding() {
+    }
+
+    /**
+     * Folds a character.
+     *
+     * @param c The character
+     * @return The folded character
+     */
+    public static char fold(char c) {
+        return FOLDED[c];
+    }
+
+    /**
+     * Folds every character of a string.
+     *
+     * @param text The text
+     * @return The folded text, of the same length
+     */
+    public static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = FOLDED[chars[i]];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,143 @@
+package com.promptcrafter.util;
+
+import java.util.Arrays;
+
+/**
+ * The keyword occurrences of a {@link KeywordAutomaton} in a text that is edited in place.
+ * <p>
+ * Whether a keyword occurs at a position only depends on the characters it covers, so an
+ * edit can only remove occurrences that overlap the replaced range and add occurrences
+ * within {@code maxKeywordLength - 1} characters of the inserted text. {@link #update}
+ * rescans just that window and shifts the occurrences after it, instead of rescanning
+ * the whole text. Occurrences are kept in parallel arrays in no particular order, with a
+ * count per category.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class IncrementalKeywordMatches {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final KeywordAutomaton automaton;
+    private final int[] categoryCounts = new int[Long.SIZE];
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int[] keywordIds = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public IncrementalKeywordMatches(KeywordAutomaton automaton) {
+        this.automaton = automaton;
+    }
+
+    /**
+     * Forgets all occurrences and scans the whole text.
+     *
+     * @param text The current text
+     */
+    public void reset(CharSequence text) {
+        size = 0;
+        Arrays.fill(categoryCounts, 0);
+        automaton.forEachMatch(text, 0, text.length(), (keywordId, start, end) -> {
+            add(keywordId, start, end);
+            return true;
+        });
+    }
+
+    /**
+     * Brings the occurrences up to date after {@code removed} characters at {@code offset}
+     * were replaced by {@code inserted} characters.
+     *
+     * @param text The text after the edit
+     * @param offset Where the edit starts
+     * @param removed Number of characters the edit removed
+     * @param inserted Number of characters the edit inserted
+     */
+    public void update(CharSequence text, int offset, int removed, int inserted) {
+        int shift = inserted - removed;
+        int removedEnd = offset + removed;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int start = starts[i];
+            int end = ends[i];
+            if (end <= offset) {
+                // Entirely before the edit
+            } else if (start >= removedEnd) {
+                start += shift;
+                end += shift;
+            } else {
+                categoryCounts[automaton.category(keywordIds[i])]--;
+                continue;
+            }
+            starts[kept] = start;
+            ends[kept] = end;
+            keywordIds[kept] = keywordIds[i];
+            kept++;
+        }
+        size = kept;
+
+        // Occurrences that touch the inserted text, or span the junction of a pure deletion
+        int insertedEnd = offset + inserted;
+        int startLimit = inserted > 0 ? insertedEnd : offset;
+        int reach = automaton.maxKeywordLength() - 1;
+        int from = Math.max(0, offset - reach);
+        int to = Math.min(text.length(), insertedEnd + reach);
+        automaton.forEachMatch(text, from, to, (keywordId, start, end) -> {
+            if (end > offset && start < startLimit) {
+                add(keywordId, start, end);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Gets the categories that have at least one occurrence.
+     *
+     * @return Bitmask of the matched categories
+     */
+    public long categoryMask() {
+        long mask = 0L;
+        for (int category = 0; category < categoryCounts.length; category++) {
+            if (categoryCounts[category] > 0) {
+                mask |= 1L << category;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Reports every tracked occurrence, in no particular order.
+     *
+     * @param listener Receives the occurrences; returning false stops the iteration
+     */
+    public void forEach(KeywordAutomaton.MatchListener listener) {
+        for (int i = 0; i < size; i++) {
+            if (!listener.onMatch(keywordIds[i], starts[i], ends[i])) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of tracked occurrences.
+     *
+     * @return The occurrence count
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(int keywordId, int start, int end) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            keywordIds = Arrays.copyOf(keywordIds, capacity);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        keywordIds[size] = keywordId;
+        size++;
+        categoryCounts[automaton.category(keywordId)]++;
+    }
+}
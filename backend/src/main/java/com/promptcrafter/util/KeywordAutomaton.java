@@ -0,0 +1,364 @@
+package com.promptcrafter.util;
+
+import java.util.*;
+
+/**
+ * Precompiled Aho-Corasick automaton for case-insensitive multi-keyword matching.
+ * <p>
+ * The automaton is compiled once into a dense transition table, so scanning an input
+ * is a single left-to-right pass that folds each character on the fly with
+ * {@link CaseFolding} instead of lowercasing a copy of the input, so matching does not
+ * depend on the default locale. Scans allocate nothing; matches are reported either
+ * as a category bitmask or through a {@link MatchListener} callback.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    /**
+     * Receives keyword matches in the order their last character is reached.
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+
+        /**
+         * Called for every keyword occurrence.
+         *
+         * @param keywordId The id of the matched keyword (its index at compile time)
+         * @param start The offset of the first matched character in the input
+         * @param end The offset just past the last matched character
+         * @return True to continue scanning, false to stop
+         */
+        boolean onMatch(int keywordId, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final String[] keywords;
+    private final int[] categories;
+
+    /** Maps an ASCII character (after folding) to its alphabet class; 0 means "not in any keyword". */
+    private final int[] asciiClasses = new int[128];
+
+    /** Sorted non-ASCII keyword characters and their alphabet classes. */
+    private final char[] extraChars;
+    private final int[] extraClasses;
+
+    private final int alphabetSize;
+
+    /** Dense DFA: {@code transitions[state * alphabetSize + class]}. */
+    private final int[] transitions;
+
+    /** Keyword ids ending at each state, including those inherited through failure links. */
+    private final int[][] outputs;
+
+    /** Union of the categories of {@link #outputs} per state. */
+    private final long[] categoryMasks;
+
+    /** Length of the keyword prefix each state stands for in the trie. */
+    private final int[] depths;
+
+    private final int maxKeywordLength;
+
+    private KeywordAutomaton(String[] keywords, int[] categories) {
+        this.keywords = keywords;
+        this.categories = categories;
+
+        // Build the alphabet from the folded keyword characters
+        TreeSet<Character> alphabet = new TreeSet<>();
+        int maxLength = 0;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                alphabet.add(keyword.charAt(i));
+            }
+            maxLength = Math.max(maxLength, keyword.length());
+        }
+        this.maxKeywordLength = maxLength;
+
+        List<Character> extras = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClasses[c] = nextClass++;
+            } else {
+                extras.add(c);
+            }
+        }
+        this.extraChars = new char[extras.size()];
+        this.extraClasses = new int[extras.size()];
+        for (int i = 0; i < extras.size(); i++) {
+            extraChars[i] = extras.get(i);
+            extraClasses[i] = nextClass++;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            asciiClasses[c] = asciiClasses[CaseFolding.fold(c)];
+        }
+        this.alphabetSize = nextClass;
+
+        // Build the keyword trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> trieOutputs = new ArrayList<>();
+        List<Integer> trieDepths = new ArrayList<>();
+        trie.add(new int[alphabetSize]);
+        trieOutputs.add(new ArrayList<>());
+        trieDepths.add(0);
+        for (int id = 0; id < keywords.length; id++) {
+            int state = 0;
+            String keyword = keywords[id];
+            for (int i = 0; i < keyword.length(); i++) {
+                int cls = classOf(keyword.charAt(i));
+                if (trie.get(state)[cls] == 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(new int[alphabetSize]);
+                    trieOutputs.add(new ArrayList<>());
+                    trieDepths.add(i + 1);
+                }
+                state = trie.get(state)[cls];
+            }
+            trieOutputs.get(state).add(id);
+        }
+
+        // Breadth-first pass: resolve failure links and fold them into a full DFA
+        int stateCount = trie.size();
+        this.transitions = new int[stateCount * alphabetSize];
+        this.outputs = new int[stateCount][];
+        this.categoryMasks = new long[stateCount];
+        this.depths = trieDepths.stream().mapToInt(Integer::intValue).toArray();
+        int[] failure = new int[stateCount];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        for (int cls = 1; cls < alphabetSize; cls++) {
+            int next = trie.get(0)[cls];
+            transitions[cls] = next;
+            if (next != 0) {
+                queue.add(next);
+            }
+        }
+        finishState(0, trieOutputs.get(0), failure);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            finishState(state, trieOutputs.get(state), failure);
+            for (int cls = 1; cls < alphabetSize; cls++) {
+                int next = trie.get(state)[cls];
+                int fallback = transitions[failure[state] * alphabetSize + cls];
+                if (next != 0) {
+                    failure[next] = fallback;
+                    transitions[state * alphabetSize + cls] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * alphabetSize + cls] = fallback;
+                }
+            }
+        }
+    }
+
+    private void finishState(int state, List<Integer> ownOutputs, int[] failure) {
+        int[] inherited = state == 0 ? NO_OUTPUT : outputs[failure[state]];
+        if (ownOutputs.isEmpty()) {
+            outputs[state] = inherited;
+        } else {
+            int[] merged = new int[ownOutputs.size() + inherited.length];
+            for (int i = 0; i < ownOutputs.size(); i++) {
+                merged[i] = ownOutputs.get(i);
+            }
+            System.arraycopy(inherited, 0, merged, ownOutputs.size(), inherited.length);
+            outputs[state] = merged;
+        }
+        long mask = 0L;
+        for (int id : outputs[state]) {
+            mask |= 1L << categories[id];
+        }
+        categoryMasks[state] = mask;
+    }
+
+    /**
+     * Compiles an automaton where every keyword belongs to category 0.
+     *
+     * @param keywords The keywords to match
+     * @return The compiled automaton
+     */
+    public static KeywordAutomaton compile(Collection<String> keywords) {
+        return compile(Collections.singletonList(keywords));
+    }
+
+    /**
+     * Compiles an automaton from groups of keywords. The index of each group becomes the
+     * category of its keywords, and keyword ids are assigned in iteration order.
+     *
+     * @param keywordGroups The keyword groups, at most 64
+     * @return The compiled automaton
+     */
+    public static KeywordAutomaton compile(List<? extends Collection<String>> keywordGroups) {
+        if (keywordGroups.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " keyword categories are supported");
+        }
+        List<String> keywords = new ArrayList<>();
+        List<Integer> categories = new ArrayList<>();
+        for (int category = 0; category < keywordGroups.size(); category++) {
+            for (String keyword : keywordGroups.get(category)) {
+                if (keyword == null || keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Keywords must not be empty");
+                }
+                keywords.add(CaseFolding.fold(keyword));
+                categories.add(category);
+            }
+        }
+        return new KeywordAutomaton(
+                keywords.toArray(new String[0]),
+                categories.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Scans a range of the input and returns the categories of every keyword found,
+     * stopping as soon as any category in {@code stopMask} has been seen.
+     *
+     * @param text The input text
+     * @param from The first offset to scan (inclusive)
+     * @param to The last offset to scan (exclusive)
+     * @param stopMask Category bits that end the scan early, or 0 to scan everything
+     * @return Bitmask of the matched categories
+     */
+    public long matchCategories(CharSequence text, int from, int to, long stopMask) {
+        long mask = 0L;
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            mask |= categoryMasks[state];
+            if ((mask & stopMask) != 0) {
+                break;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Scans the whole input and returns the categories of every keyword found.
+     *
+     * @param text The input text
+     * @return Bitmask of the matched categories
+     */
+    public long matchCategories(CharSequence text) {
+        return matchCategories(text, 0, text.length(), 0L);
+    }
+
+    /**
+     * Reports every keyword occurrence in a range of the input, overlapping ones included.
+     *
+     * @param text The input text
+     * @param from The first offset to scan (inclusive)
+     * @param to The last offset to scan (exclusive)
+     * @param listener Receives the matches
+     */
+    public void forEachMatch(CharSequence text, int from, int to, MatchListener listener) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            int[] ids = outputs[state];
+            for (int id : ids) {
+                if (!listener.onMatch(id, i + 1 - keywords[id].length(), i + 1)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the offset of the first occurrence of any keyword in a range, or -1.
+     *
+     * @param text The input text
+     * @param from The first offset to scan (inclusive)
+     * @param to The last offset to scan (exclusive)
+     * @return The start offset of the first match, or -1 if there is none
+     */
+    public int indexOfAny(CharSequence text, int from, int to) {
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            int[] ids = outputs[state];
+            if (ids.length > 0) {
+                int start = i + 1;
+                for (int id : ids) {
+                    start = Math.min(start, i + 1 - keywords[id].length());
+                }
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the longest keyword that starts exactly at {@code from}.
+     *
+     * @param text The input text
+     * @param from The offset the keyword must start at
+     * @param to The last offset it may extend to (exclusive)
+     * @return The end of the longest keyword found, or -1 if none starts there
+     */
+    public int prefixEnd(CharSequence text, int from, int to) {
+        int end = -1;
+        int state = 0;
+        int limit = Math.min(to, from + maxKeywordLength);
+        for (int i = from; i < limit; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            // A shallower state means the transition followed a failure link off the path from the start
+            if (depths[state] != i + 1 - from) {
+                break;
+            }
+            int[] ids = outputs[state];
+            if (ids.length > 0 && keywords[ids[0]].length() == depths[state]) {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Gets the folded form of a keyword.
+     *
+     * @param keywordId The keyword id
+     * @return The keyword as it is matched
+     */
+    public String keyword(int keywordId) {
+        return keywords[keywordId];
+    }
+
+    /**
+     * Gets the category a keyword was compiled under.
+     *
+     * @param keywordId The keyword id
+     * @return The category index
+     */
+    public int category(int keywordId) {
+        return categories[keywordId];
+    }
+
+    /**
+     * Gets the number of compiled keywords.
+     *
+     * @return The keyword count
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Gets the length of the longest keyword, which bounds how far a match can span.
+     *
+     * @return The maximum keyword length
+     */
+    public int maxKeywordLength() {
+        return maxKeywordLength;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        char folded = CaseFolding.fold(c);
+        if (folded < 128) {
+            return asciiClasses[folded];
+        }
+        int index = Arrays.binarySearch(extraChars, folded);
+        return index >= 0 ? extraClasses[index] : 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.promptcrafter.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once, with a gzip variant and strong entity tags.
+ * Used for static data that only changes between deployments.
+ */
+public final class PrecomputedPayload {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PrecomputedPayload(byte[] identity) {
+        this.identity = identity;
+        this.gzip = gzip(identity);
+        String hash = hash(identity);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+    }
+
+    /**
+     * Precomputes the variants of a serialized body.
+     *
+     * @param body The uncompressed body
+     * @return The precomputed payload
+     */
+    public static PrecomputedPayload of(byte[] body) {
+        return new PrecomputedPayload(body.clone());
+    }
+
+    /**
+     * Gets the body for a client.
+     *
+     * @param useGzip Whether the gzip variant is served
+     * @return The body bytes; callers must not modify them
+     */
+    public byte[] body(boolean useGzip) {
+        return useGzip ? gzip : identity;
+    }
+
+    /**
+     * Gets the strong entity tag of a variant.
+     *
+     * @param useGzip Whether the gzip variant is served
+     * @return The quoted entity tag
+     */
+    public String etag(boolean useGzip) {
+        return useGzip ? gzipEtag : etag;
+    }
+
+    /**
+     * Checks an If-None-Match header against the entity tags of every variant, using the
+     * weak comparison RFC 9110 prescribes for that header.
+     *
+     * @param ifNoneMatch The header value, may be null
+     * @return True if the client's copy is current
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows gzip. A q-value of zero, however it
+     * is written, refuses it; a q-value that is not a number is treated as a refusal too.
+     *
+     * @param acceptEncoding The header value, may be null
+     * @return True if gzip is acceptable
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return quality(parts) > 0;
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
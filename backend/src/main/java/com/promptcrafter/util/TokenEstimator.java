@@ -0,0 +1,315 @@
+package com.promptcrafter.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates how many tokens a byte-pair-encoding tokenizer splits a text into.
+ * <p>
+ * The text is first split the way BPE tokenizers pre-tokenize: runs of letters, runs of
+ * at most three digits, runs of other symbols and runs of whitespace, where a single space
+ * before a word belongs to the word. Each run is then covered greedily by the longest
+ * vocabulary entries that match, ignoring ASCII case. Where no entry matches, a pair of
+ * ASCII letters counts as one token, as every English-trained vocabulary has them, and any
+ * other character as one token.
+ * <p>
+ * The vocabulary is compiled into a trie whose transitions live in one open-addressing
+ * table keyed by an {@code int} packing the state and the character, so a lookup neither
+ * boxes nor allocates. A match never runs longer than the longest entry, so counting is
+ * linear in the length of the text. Instances are immutable and safe to share between
+ * threads.
+ */
+public final class TokenEstimator {
+
+    /** Classpath location of the bundled vocabulary, one entry per line. */
+    public static final String BUNDLED_VOCABULARY = "tokenizer/vocabulary.txt";
+
+    private static final int MAX_DIGITS_PER_TOKEN = 3;
+
+    /** States are packed into the upper half of a transition key. */
+    private static final int MAX_STATES = 0xFFFF;
+
+    private static final byte SYMBOL = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte SPACE = 3;
+
+    /** Character classes of ASCII characters, so the common case skips the Unicode tables. */
+    private static final byte[] ASCII_CLASSES = new byte[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_CLASSES[c] = classify(c);
+        }
+    }
+
+    private final int[] keys;
+    /** Target state shifted left by one, with the low bit set if an entry ends there. */
+    private final int[] targets;
+    private final int mask;
+    private final int shift;
+
+    private TokenEstimator(Collection<String> entries) {
+        // Build the trie edges; state 0 is the root
+        Map<Integer, Integer> edges = new HashMap<>();
+        List<Boolean> ends = new ArrayList<>();
+        ends.add(false);
+        for (String entry : entries) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < entry.length(); i++) {
+                int key = key(state, fold(entry.charAt(i)));
+                Integer next = edges.get(key);
+                if (next == null) {
+                    next = ends.size();
+                    if (next >= MAX_STATES) {
+                        throw new IllegalArgumentException("Vocabulary needs more than " + MAX_STATES + " trie states");
+                    }
+                    edges.put(key, next);
+                    ends.add(false);
+                }
+                state = next;
+            }
+            ends.set(state, true);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, edges.size() * 2) - 1) << 1;
+        this.keys = new int[capacity];
+        this.targets = new int[capacity];
+        this.mask = capacity - 1;
+        this.shift = Integer.numberOfLeadingZeros(mask);
+        for (Map.Entry<Integer, Integer> edge : edges.entrySet()) {
+            int slot = slot(edge.getKey());
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = edge.getKey();
+            int state = edge.getValue();
+            targets[slot] = state << 1 | (ends.get(state) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Creates an estimator over a vocabulary.
+     *
+     * @param vocabulary The vocabulary entries; case is ignored
+     * @return The estimator
+     */
+    public static TokenEstimator of(Collection<String> vocabulary) {
+        return new TokenEstimator(vocabulary);
+    }
+
+    /**
+     * Gets the estimator over the vocabulary bundled with the application, loaded on first use.
+     *
+     * @return The shared estimator
+     */
+    public static TokenEstimator standard() {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * Estimates the number of tokens in a text.
+     *
+     * @param text The text
+     * @return The estimated token count
+     */
+    public int estimate(CharSequence text) {
+        return estimate(text, 0, text.length());
+    }
+
+    /**
+     * Estimates the number of tokens in a range of a text.
+     *
+     * @param text The text
+     * @param from Start of the range
+     * @param to End of the range, exclusive
+     * @return The estimated token count
+     */
+    public int estimate(CharSequence text, int from, int to) {
+        return (int) (scan(text, from, to, Integer.MAX_VALUE) >>> 32);
+    }
+
+    /**
+     * Finds where a range of a text has to end to fit a token budget. The end falls on a
+     * token boundary.
+     *
+     * @param text The text
+     * @param from Start of the range
+     * @param to End of the range, exclusive
+     * @param maxTokens The token budget
+     * @return The end of the longest prefix of the range within the budget
+     */
+    public int fit(CharSequence text, int from, int to, int maxTokens) {
+        return (int) scan(text, from, to, maxTokens);
+    }
+
+    /**
+     * Counts tokens until the budget would be exceeded.
+     *
+     * @return The token count in the high half and the offset the count covers in the low half
+     */
+    private long scan(CharSequence text, int from, int to, int budget) {
+        int tokens = 0;
+        int i = from;
+        while (i < to) {
+            int pieceStart = i;
+            byte type = classOf(text.charAt(i));
+            if (type == SPACE) {
+                int end = i + 1;
+                while (end < to && classOf(text.charAt(end)) == SPACE) {
+                    end++;
+                }
+                // A single space before a word is merged into the word's first token
+                boolean joinsWord = end < to && text.charAt(end - 1) == ' ' && classOf(text.charAt(end)) == LETTER;
+                int runEnd = joinsWord ? end - 1 : end;
+                if (runEnd > i) {
+                    if (tokens == budget) {
+                        break;
+                    }
+                    tokens++;
+                }
+                if (!joinsWord) {
+                    i = end;
+                    continue;
+                }
+                pieceStart = runEnd;
+                i = end;
+                type = LETTER;
+            }
+
+            int end = i + 1;
+            int maxEnd = type == DIGIT ? Math.min(to, i + MAX_DIGITS_PER_TOKEN) : to;
+            while (end < maxEnd && classOf(text.charAt(end)) == type) {
+                end++;
+            }
+
+            // Cover the piece with the longest matching entries
+            while (i < end) {
+                int length = type == DIGIT ? end - i : longestEntry(text, i, end);
+                if (length == 0) {
+                    length = fallbackLength(text, i, end);
+                }
+                if (tokens == budget) {
+                    return (long) tokens << 32 | pieceStart;
+                }
+                tokens++;
+                i += length;
+                pieceStart = i;
+            }
+        }
+        return (long) tokens << 32 | i;
+    }
+
+    private int longestEntry(CharSequence text, int from, int to) {
+        int state = 0;
+        int longest = 0;
+        for (int i = from; i < to; i++) {
+            int target = next(state, fold(text.charAt(i)));
+            if (target < 0) {
+                break;
+            }
+            if ((target & 1) != 0) {
+                longest = i + 1 - from;
+            }
+            state = target >>> 1;
+        }
+        return longest;
+    }
+
+    private static int fallbackLength(CharSequence text, int from, int to) {
+        char c = text.charAt(from);
+        if (from + 1 < to) {
+            char next = text.charAt(from + 1);
+            if (isAsciiLetter(c) && isAsciiLetter(next)) {
+                return 2;
+            }
+            // Never split a surrogate pair
+            if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) {
+                return 2;
+            }
+        }
+        return 1;
+    }
+
+    /** Gets the packed target of a transition, or -1 if there is none. */
+    private int next(int state, char c) {
+        int key = key(state, c);
+        int slot = slot(key);
+        while (true) {
+            int candidate = keys[slot];
+            if (candidate == key) {
+                return targets[slot];
+            }
+            if (candidate == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slot(int key) {
+        return key * 0x9E3779B9 >>> shift;
+    }
+
+    /** Never 0, which marks an empty slot. */
+    private static int key(int state, char c) {
+        return (state + 1) << 16 | c;
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static byte classOf(char c) {
+        return c < 128 ? ASCII_CLASSES[c] : classify(c);
+    }
+
+    private static byte classify(char c) {
+        if (Character.isWhitespace(c)) {
+            return SPACE;
+        }
+        if (Character.isLetter(c)) {
+            return LETTER;
+        }
+        return Character.isDigit(c) ? DIGIT : SYMBOL;
+    }
+
+    /** Loads the bundled vocabulary once, on first use. */
+    private static final class Bundled {
+
+        static final TokenEstimator INSTANCE = new TokenEstimator(read());
+
+        private static List<String> read() {
+            ClassLoader classLoader = TokenEstimator.class.getClassLoader();
+            try (InputStream in = classLoader.getResourceAsStream(BUNDLED_VOCABULARY)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing vocabulary resource " + BUNDLED_VOCABULARY);
+                }
+                List<String> entries = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    entries.add(line.strip());
+                }
+                return entries;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
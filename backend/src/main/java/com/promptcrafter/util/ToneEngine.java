@@ -0,0 +1,274 @@
+package com.promptcrafter.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Turns a tone selection into a short, consistent tone directive.
+ * <p>
+ * Every tone and category in the {@link ToneUtils} catalog gets an id, and tone sets are
+ * bitsets over those ids. Two tables are precomputed per tone: its affinity (the tones
+ * sharing a category with it) and its conflicts (tones asking for the opposite, such as
+ * Blunt and Diplomatic). Resolving a selection then only takes bitwise operations:
+ * <ol>
+ *     <li>duplicates are dropped,</li>
+ *     <li>each tone is weighted by how many selected tones share a category with it, so
+ *     the direction most of the selection points to ranks first, ties keeping the
+ *     selection order,</li>
+ *     <li>tones are accepted in rank order unless they conflict with an accepted tone,
+ *     up to {@link #MAX_APPLIED_TONES}.</li>
+ * </ol>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ToneEngine {
+
+    /**
+     * Most tones a directive names; more add prompt length without adding guidance.
+     */
+    public static final int MAX_APPLIED_TONES = 5;
+
+    /**
+     * Groups of tones that contradict each other: every tone on the left conflicts with
+     * every tone on the right. A category name only stands for the category itself when it
+     * is selected, so the member tones that conflict are listed too.
+     */
+    private static final List<List<List<String>>> CONFLICTS = List.of(
+            List.of(List.of("Formal"),
+                    List.of("Casual", "Informal", "Chatty", "Playful", "Quirky", "Whimsical", "Conversational",
+                            "Friendly", "Approachable", "Relatable", "Personable", "Warm", "Inviting", "Engaging")),
+            List.of(List.of("Professional"),
+                    List.of("Casual", "Informal", "Chatty")),
+            List.of(List.of("Blunt", "Frank", "No-nonsense", "Direct"),
+                    List.of("Diplomatic", "Sensitive", "Accommodating", "Consensus-building")),
+            List.of(List.of("Brief", "Concise"),
+                    List.of("Elaborate", "Detailed", "Comprehensive", "Thorough", "Chatty", "Rich", "Descriptive")),
+            List.of(List.of("Objective", "Factual", "Analytical"),
+                    List.of("Passionate", "Heartfelt", "Promotional", "Emotional",
+                            "Empathetic", "Compassionate", "Sympathetic", "Caring")),
+            List.of(List.of("Assertive", "Authoritative"),
+                    List.of("Accommodating", "Consensus-building", "Participatory")));
+
+    private static final ToneEngine STANDARD = new ToneEngine(ToneUtils.getToneCategories(), CONFLICTS);
+
+    /**
+     * The outcome of resolving a tone selection.
+     */
+    public static final class Resolution {
+
+        private static final Resolution EMPTY = new Resolution(List.of(), List.of());
+
+        private final List<String> applied;
+        private final List<String> dropped;
+
+        private Resolution(List<String> applied, List<String> dropped) {
+            this.applied = applied;
+            this.dropped = dropped;
+        }
+
+        /**
+         * Gets the tones to apply, strongest first.
+         *
+         * @return The applied tones
+         */
+        public List<String> getApplied() {
+            return applied;
+        }
+
+        /**
+         * Gets the selected tones left out because they conflict with a stronger tone or
+         * exceed the limit, in selection order.
+         *
+         * @return The dropped tones
+         */
+        public List<String> getDropped() {
+            return dropped;
+        }
+    }
+
+    private final String[] names;
+    private final Map<String, Integer> ids;
+    private final int words;
+    private final long[][] affinity;
+    private final long[][] conflicts;
+
+    private ToneEngine(Map<String, List<String>> categories, List<List<List<String>>> conflictGroups) {
+        // Tones first, then the category names that are not tones themselves
+        Map<String, Integer> idMap = new HashMap<>();
+        List<String> nameList = new ArrayList<>();
+        for (List<String> tones : categories.values()) {
+            for (String tone : tones) {
+                assign(tone, idMap, nameList);
+            }
+        }
+        for (String category : categories.keySet()) {
+            assign(category, idMap, nameList);
+        }
+        this.names = nameList.toArray(new String[0]);
+        this.ids = Map.copyOf(idMap);
+        this.words = (names.length + Long.SIZE - 1) / Long.SIZE;
+        this.affinity = new long[names.length][words];
+        this.conflicts = new long[names.length][words];
+
+        for (Map.Entry<String, List<String>> category : categories.entrySet()) {
+            long[] members = new long[words];
+            set(members, id(category.getKey()));
+            for (String tone : category.getValue()) {
+                set(members, id(tone));
+            }
+            forEach(members, id -> or(affinity[id], members));
+        }
+        for (List<List<String>> group : conflictGroups) {
+            long[] left = setOf(group.get(0));
+            long[] right = setOf(group.get(1));
+            forEach(left, id -> or(conflicts[id], right));
+            forEach(right, id -> or(conflicts[id], left));
+        }
+    }
+
+    /**
+     * Gets the engine for the tone catalog.
+     *
+     * @return The standard engine
+     */
+    public static ToneEngine standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Resolves a tone selection into the tones to apply.
+     *
+     * @param tones Selected tones in catalog spelling, in selection order
+     * @return The applied and dropped tones
+     * @throws IllegalArgumentException if a tone is not in the catalog
+     */
+    public Resolution resolve(List<String> tones) {
+        if (tones.isEmpty()) {
+            return Resolution.EMPTY;
+        }
+        // Deduplicate, keeping the first selection of each tone
+        long[] selected = new long[words];
+        int[] order = new int[tones.size()];
+        int count = 0;
+        for (String tone : tones) {
+            int id = id(tone);
+            if (!get(selected, id)) {
+                set(selected, id);
+                order[count++] = id;
+            }
+        }
+
+        // Rank by weight, then by selection order; insertion sort keeps ties stable
+        int[] ranked = Arrays.copyOf(order, count);
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            int id = ranked[i];
+            int weight = intersectionSize(affinity[id], selected);
+            int j = i - 1;
+            while (j >= 0 && weights[j] < weight) {
+                ranked[j + 1] = ranked[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            ranked[j + 1] = id;
+            weights[j + 1] = weight;
+        }
+
+        long[] accepted = new long[words];
+        int acceptedCount = 0;
+        List<String> applied = new ArrayList<>(Math.min(count, MAX_APPLIED_TONES));
+        for (int i = 0; i < count; i++) {
+            int id = ranked[i];
+            if (acceptedCount < MAX_APPLIED_TONES && !intersects(conflicts[id], accepted)) {
+                set(accepted, id);
+                acceptedCount++;
+                applied.add(names[id]);
+            }
+        }
+        List<String> dropped = new ArrayList<>(count - acceptedCount);
+        for (int i = 0; i < count; i++) {
+            if (!get(accepted, order[i])) {
+                dropped.add(names[order[i]]);
+            }
+        }
+        return new Resolution(applied, dropped);
+    }
+
+    /**
+     * Indicates whether two tones contradict each other.
+     *
+     * @param tone The first tone, in catalog spelling
+     * @param other The second tone, in catalog spelling
+     * @return True if the tones conflict
+     */
+    public boolean conflicts(String tone, String other) {
+        return get(conflicts[id(tone)], id(other));
+    }
+
+    private int id(String tone) {
+        Integer id = ids.get(tone);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown tone: " + tone);
+        }
+        return id;
+    }
+
+    private long[] setOf(List<String> tones) {
+        long[] set = new long[words];
+        for (String tone : tones) {
+            set(set, id(tone));
+        }
+        return set;
+    }
+
+    private static void assign(String name, Map<String, Integer> ids, List<String> names) {
+        if (!ids.containsKey(name)) {
+            ids.put(name, names.size());
+            names.add(name);
+        }
+    }
+
+    private static boolean get(long[] set, int id) {
+        return (set[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private static void set(long[] set, int id) {
+        set[id >>> 6] |= 1L << id;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] |= source[i];
+        }
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int intersectionSize(long[] a, long[] b) {
+        int size = 0;
+        for (int i = 0; i < a.length; i++) {
+            size += Long.bitCount(a[i] & b[i]);
+        }
+        return size;
+    }
+
+    private static void forEach(long[] set, IntConsumer action) {
+        for (int word = 0; word < set.length; word++) {
+            long bits = set[word];
+            while (bits != 0) {
+                action.accept(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+}
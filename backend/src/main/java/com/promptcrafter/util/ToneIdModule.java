@@ -0,0 +1,101 @@
+package com.promptcrafter.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.promptcrafter.model.LiveEditRequest;
+import com.promptcrafter.model.LivePromptUpdate;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Jackson module for the compact wire formats, sending tones as their
+ * {@linkplain ToneUtils#getToneId(String) catalog ids} instead of their names.
+ * <p>
+ * It applies to the selected tones of prompt and live edit requests and to the applied
+ * and dropped tones of prompt responses and live updates. Names are still accepted when
+ * reading, so a client only needs the id table for the tones it sends as ids; a name that
+ * has no id is written as the name. Only the binary formats register the module: JSON
+ * keeps tone names, which the frontend shows as they are.
+ */
+public class ToneIdModule extends SimpleModule {
+
+    public ToneIdModule() {
+        super("ToneIdModule");
+        setMixInAnnotation(PromptRequest.class, SelectedTonesMixIn.class);
+        setMixInAnnotation(LiveEditRequest.class, SelectedTonesMixIn.class);
+        setMixInAnnotation(PromptResponse.class, ResultTonesMixIn.class);
+        setMixInAnnotation(LivePromptUpdate.class, ResultTonesMixIn.class);
+    }
+
+    private abstract static class SelectedTonesMixIn {
+
+        @JsonSerialize(contentUsing = ToneIdSerializer.class)
+        @JsonDeserialize(contentUsing = ToneIdDeserializer.class)
+        private List<String> selectedTones;
+    }
+
+    private abstract static class ResultTonesMixIn {
+
+        @JsonSerialize(contentUsing = ToneIdSerializer.class)
+        @JsonDeserialize(contentUsing = ToneIdDeserializer.class)
+        private String[] appliedTones;
+
+        @JsonSerialize(contentUsing = ToneIdSerializer.class)
+        @JsonDeserialize(contentUsing = ToneIdDeserializer.class)
+        private String[] droppedTones;
+    }
+
+    /**
+     * Writes a tone as its id, or as its name if it has none.
+     */
+    static class ToneIdSerializer extends StdScalarSerializer<String> {
+
+        ToneIdSerializer() {
+            super(String.class);
+        }
+
+        @Override
+        public void serialize(String tone, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            int id = ToneUtils.getToneId(tone);
+            if (id >= 0) {
+                generator.writeNumber(id);
+            } else {
+                generator.writeString(tone);
+            }
+        }
+    }
+
+    /**
+     * Reads a tone from its id or its name.
+     */
+    static class ToneIdDeserializer extends StdScalarDeserializer<String> {
+
+        ToneIdDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                String tone = ToneUtils.getToneById(parser.getIntValue());
+                if (tone == null) {
+                    return (String) context.handleWeirdNumberValue(String.class, parser.getNumberValue(),
+                            "not a tone id");
+                }
+                return tone;
+            }
+            return _parseString(parser, context, this);
+        }
+    }
+}
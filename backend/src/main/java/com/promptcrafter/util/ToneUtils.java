@@ -1,74 +1,185 @@
 package com.promptcrafter.util;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * Utility class for managing communication tones.
+ * <p>
+ * The catalog is fixed, so every lookup structure is built once at class initialization
+ * and is immutable afterwards. Categories keep their declaration order, which makes
+ * lookups for tones listed in several categories deterministic. Wire ids are not derived
+ * from that order but read from the append-only table in {@value #TONE_IDS_RESOURCE}, so
+ * reordering the catalog never changes them; a tone missing from the table fails class
+ * initialization.
  */
 public class ToneUtils {
 
     /**
-     * Map of tone categories and their associated tones.
+     * Category returned for tones that are not in the catalog.
      */
-    private static final Map<String, List<String>> TONE_CATEGORIES = new HashMap<>();
-    
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    /**
+     * Classpath resource holding the append-only id table.
+     */
+    public static final String TONE_IDS_RESOURCE = "tones/ids.txt";
+
+    /**
+     * Map of tone categories and their associated tones, in declaration order.
+     */
+    private static final Map<String, List<String>> TONE_CATEGORIES;
+
+    /**
+     * All tones without duplicates, in declaration order.
+     */
+    private static final List<String> ALL_TONES;
+
+    /**
+     * Lowercased tone to every category containing it.
+     */
+    private static final Map<String, List<String>> CATEGORIES_BY_TONE;
+
+    /**
+     * Lowercased tone or category name to its canonical spelling.
+     */
+    private static final Map<String, String> CANONICAL_NAMES;
+
+    /**
+     * Names indexed by their id, as listed in the id table.
+     */
+    private static final List<String> TONE_NAMES_BY_ID;
+
+    /**
+     * Canonical tone or category name to its id.
+     */
+    private static final Map<String, Integer> TONE_IDS;
+
     static {
+        Map<String, List<String>> categories = new LinkedHashMap<>();
+        defineCategories(categories);
+        TONE_CATEGORIES = Collections.unmodifiableMap(categories);
+
+        Set<String> allTones = new LinkedHashSet<>();
+        Map<String, List<String>> categoriesByTone = new HashMap<>();
+        Map<String, String> canonicalNames = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : categories.entrySet()) {
+            canonicalNames.putIfAbsent(key(entry.getKey()), entry.getKey());
+            for (String tone : entry.getValue()) {
+                allTones.add(tone);
+                canonicalNames.put(key(tone), tone);
+                categoriesByTone.computeIfAbsent(key(tone), k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        categoriesByTone.replaceAll((tone, toneCategories) -> List.copyOf(toneCategories));
+        ALL_TONES = List.copyOf(allTones);
+        CATEGORIES_BY_TONE = Map.copyOf(categoriesByTone);
+        CANONICAL_NAMES = Map.copyOf(canonicalNames);
+
+        List<String> names = readToneIds();
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            ids.put(names.get(i), i);
+        }
+        for (String name : canonicalNames.values()) {
+            if (!ids.containsKey(name)) {
+                throw new IllegalStateException("Tone " + name + " has no id; append it to " + TONE_IDS_RESOURCE);
+            }
+        }
+        TONE_NAMES_BY_ID = List.copyOf(names);
+        TONE_IDS = Map.copyOf(ids);
+    }
+
+    /**
+     * Reads the id table, whose line for id {@code n} is {@code "n Name"}.
+     */
+    private static List<String> readToneIds() {
+        try (InputStream in = ToneUtils.class.getClassLoader().getResourceAsStream(TONE_IDS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing tone id table " + TONE_IDS_RESOURCE);
+            }
+            List<String> names = new ArrayList<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                if (space < 0 || !line.substring(0, space).equals(String.valueOf(names.size()))) {
+                    throw new IllegalStateException("Expected id " + names.size() + " in " + TONE_IDS_RESOURCE
+                            + ": " + line);
+                }
+                names.add(line.substring(space + 1).trim());
+            }
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + TONE_IDS_RESOURCE, e);
+        }
+    }
+
+    private static void defineCategories(Map<String, List<String>> categories) {
         // Professional tones
-        TONE_CATEGORIES.put("Professional", Arrays.asList(
+        categories.put("Professional", List.of(
             "Formal", "Authoritative", "Confident", "Analytical", "Objective", 
             "Diplomatic", "Precise", "Respectful", "Informative", "Instructional"
         ));
         
         // Persuasive tones
-        TONE_CATEGORIES.put("Persuasive", Arrays.asList(
+        categories.put("Persuasive", List.of(
             "Convincing", "Compelling", "Urgent", "Promotional", "Assertive", 
             "Motivational", "Inspirational", "Enthusiastic", "Passionate", "Persuasive"
         ));
         
         // Conversational tones
-        TONE_CATEGORIES.put("Conversational", Arrays.asList(
+        categories.put("Conversational", List.of(
             "Casual", "Friendly", "Approachable", "Relatable", "Personable", 
             "Warm", "Inviting", "Engaging", "Chatty", "Informal"
         ));
         
         // Creative tones
-        TONE_CATEGORIES.put("Creative", Arrays.asList(
+        categories.put("Creative", List.of(
             "Imaginative", "Playful", "Humorous", "Witty", "Quirky", 
             "Whimsical", "Entertaining", "Surprising", "Artistic", "Innovative"
         ));
         
         // Emotional tones
-        TONE_CATEGORIES.put("Emotional", Arrays.asList(
+        categories.put("Emotional", List.of(
             "Empathetic", "Compassionate", "Supportive", "Encouraging", "Reassuring", 
             "Sympathetic", "Caring", "Sensitive", "Heartfelt", "Sincere"
         ));
         
         // Direct tones
-        TONE_CATEGORIES.put("Direct", Arrays.asList(
+        categories.put("Direct", List.of(
             "Straightforward", "Clear", "Concise", "Brief", "Blunt", 
             "Candid", "Frank", "Explicit", "Direct", "No-nonsense"
         ));
         
         // Descriptive tones
-        TONE_CATEGORIES.put("Descriptive", Arrays.asList(
+        categories.put("Descriptive", List.of(
             "Detailed", "Vivid", "Expressive", "Elaborate", "Illustrative", 
             "Colorful", "Rich", "Evocative", "Picturesque", "Comprehensive"
         ));
         
         // Technical tones
-        TONE_CATEGORIES.put("Technical", Arrays.asList(
+        categories.put("Technical", List.of(
             "Specialized", "Precise", "Factual", "Methodical", "Systematic", 
             "Logical", "Detailed", "Accurate", "Thorough", "Rigorous"
         ));
         
         // Collaborative tones
-        TONE_CATEGORIES.put("Collaborative", Arrays.asList(
+        categories.put("Collaborative", List.of(
             "Inclusive", "Cooperative", "Supportive", "Team-oriented", "Participatory", 
             "Unifying", "Collective", "Facilitative", "Accommodating", "Consensus-building"
         ));
         
         // Urgent tones
-        TONE_CATEGORIES.put("Urgent", Arrays.asList(
+        categories.put("Urgent", List.of(
             "Time-sensitive", "Critical", "Immediate", "Pressing", "Crucial", 
             "Vital", "Essential", "Imperative", "Expedient", "Priority"
         ));
@@ -80,32 +191,117 @@ public class ToneUtils {
      * @return Map of tone categories and their associated tones
      */
     public static Map<String, List<String>> getToneCategories() {
-        return Collections.unmodifiableMap(TONE_CATEGORIES);
+        return TONE_CATEGORIES;
     }
     
     /**
-     * Gets all tones as a flat list.
+     * Gets all tones as a flat list, without duplicates.
      *
      * @return List of all tones
      */
     public static List<String> getAllTones() {
-        List<String> allTones = new ArrayList<>();
-        TONE_CATEGORIES.values().forEach(allTones::addAll);
-        return allTones;
+        return ALL_TONES;
     }
     
     /**
-     * Gets the category for a specific tone.
+     * Gets the category for a specific tone. Tones that belong to several categories
+     * resolve to the first one in declaration order.
      *
-     * @param tone The tone to find the category for
+     * @param tone The tone to find the category for, in any case
      * @return The category name, or "Uncategorized" if not found
      */
     public static String getCategoryForTone(String tone) {
-        for (Map.Entry<String, List<String>> entry : TONE_CATEGORIES.entrySet()) {
-            if (entry.getValue().contains(tone)) {
-                return entry.getKey();
+        List<String> categories = getCategoriesForTone(tone);
+        return categories.isEmpty() ? UNCATEGORIZED : categories.get(0);
+    }
+    
+    /**
+     * Gets every category a tone belongs to.
+     *
+     * @param tone The tone to look up, in any case
+     * @return The categories in declaration order, or an empty list if not found
+     */
+    public static List<String> getCategoriesForTone(String tone) {
+        if (tone == null) {
+            return List.of();
+        }
+        return CATEGORIES_BY_TONE.getOrDefault(key(tone), List.of());
+    }
+    
+    /**
+     * Checks whether a tone can be requested. Category names are accepted as tones too.
+     *
+     * @param tone The tone to check, in any case
+     * @return True if the tone or category exists
+     */
+    public static boolean isValidTone(String tone) {
+        return canonicalTone(tone) != null;
+    }
+    
+    /**
+     * Gets the catalog spelling of a tone or category name.
+     *
+     * @param tone The tone to look up, in any case
+     * @return The canonical name, or null if not found
+     */
+    public static String canonicalTone(String tone) {
+        return tone == null ? null : CANONICAL_NAMES.get(key(tone));
+    }
+    
+    /**
+     * Converts requested tones to their catalog spelling.
+     *
+     * @param tones The requested tones, may be null
+     * @return The canonical tones in request order
+     * @throws IllegalArgumentException if a tone is not in the catalog
+     */
+    public static List<String> canonicalTones(List<String> tones) {
+        if (tones == null || tones.isEmpty()) {
+            return List.of();
+        }
+        List<String> canonical = new ArrayList<>(tones.size());
+        for (String tone : tones) {
+            String name = canonicalTone(tone);
+            if (name == null) {
+                throw new IllegalArgumentException("Unknown tone: " + tone);
             }
+            canonical.add(name);
         }
-        return "Uncategorized";
+        return canonical;
+    }
+    
+    /**
+     * Gets the ids of tones and category names, as compact wire formats send them. Ids
+     * are assigned in the append-only id table and never change.
+     *
+     * @return The names indexed by their id
+     */
+    public static List<String> getToneNamesById() {
+        return TONE_NAMES_BY_ID;
+    }
+    
+    /**
+     * Gets the id of a tone or category name.
+     *
+     * @param tone The tone in catalog spelling
+     * @return The id, or -1 if the name is not in the catalog
+     */
+    public static int getToneId(String tone) {
+        Integer id = tone == null ? null : TONE_IDS.get(tone);
+        return id != null ? id : -1;
+    }
+    
+    /**
+     * Gets the tone or category name with an id.
+     *
+     * @param id The id
+     * @return The name in catalog spelling, or null if there is no such id
+     */
+    public static String getToneById(int id) {
+        return id >= 0 && id < TONE_NAMES_BY_ID.size() ? TONE_NAMES_BY_ID.get(id) : null;
+    }
+    
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.promptcrafter.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Validates that an input text is within {@code promptcrafter.input.max-length}.
+ * Always valid when oversized inputs are configured to be truncated; null is valid.
+ */
+@Documented
+@Constraint(validatedBy = InputLengthValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BoundedInput {
+
+    String message() default "is too long";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
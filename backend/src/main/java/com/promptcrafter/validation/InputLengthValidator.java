@@ -0,0 +1,35 @@
+package com.promptcrafter.validation;
+
+import com.promptcrafter.config.InputLimitProperties;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Checks input texts against the configured {@link InputLimitProperties}.
+ */
+public class InputLengthValidator implements ConstraintValidator<BoundedInput, CharSequence> {
+
+    private final InputLimitProperties properties;
+
+    public InputLengthValidator() {
+        this(new InputLimitProperties());
+    }
+
+    @Autowired
+    public InputLengthValidator(InputLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean isValid(CharSequence input, ConstraintValidatorContext context) {
+        if (input == null || properties.getOverflow() == InputLimitProperties.OverflowMode.TRUNCATE
+                || input.length() <= properties.getMaxLength()) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate("exceeds " + properties.getMaxLength() + " characters")
+                .addConstraintViolation();
+        return false;
+    }
+}
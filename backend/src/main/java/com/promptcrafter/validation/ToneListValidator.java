@@ -0,0 +1,31 @@
+package com.promptcrafter.validation;
+
+import com.promptcrafter.util.ToneUtils;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks tone lists against the catalog in {@link ToneUtils}.
+ */
+public class ToneListValidator implements ConstraintValidator<ValidTones, List<String>> {
+
+    @Override
+    public boolean isValid(List<String> tones, ConstraintValidatorContext context) {
+        if (tones == null) {
+            return true;
+        }
+        List<String> unknown = tones.stream()
+                .filter(tone -> !ToneUtils.isValidTone(tone))
+                .collect(Collectors.toList());
+        if (unknown.isEmpty()) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate("contains unknown tones: " + String.join(", ", unknown))
+                .addConstraintViolation();
+        return false;
+    }
+}
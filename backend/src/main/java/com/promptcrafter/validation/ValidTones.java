@@ -0,0 +1,27 @@
+package com.promptcrafter.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Validates that every entry of a tone list is a known tone or tone category.
+ * Matching is case-insensitive; a null list is valid.
+ */
+@Documented
+@Constraint(validatedBy = ToneListValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidTones {
+
+    String message() default "contains unknown tones";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,52 @@
+package com.promptcrafter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptCrafterCliTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testWritesOneResultLinePerRequestInOrder(@TempDir Path dir) throws Exception {
+        // Arrange
+        Path input = dir.resolve("requests.ndjson");
+        Path output = dir.resolve("responses.ndjson");
+        Files.writeString(input, "{\"inputText\":\"Write an email to my team\",\"selectedTones\":[\"Formal\"]}\n"
+                + "\n"
+                + "not json\n"
+                + "{\"inputText\":\"Design a database schema\",\"selectedTones\":[]}\n");
+
+        // Act
+        PromptCrafterCli.main(new String[] {input.toString(), output.toString()});
+
+        // Assert
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(3, lines.size());
+        assertEquals("communication", objectMapper.readTree(lines.get(0)).get("contentType").asText());
+        assertEquals(1, objectMapper.readTree(lines.get(1)).get("index").intValue());
+        assertTrue(objectMapper.readTree(lines.get(1)).hasNonNull("error"));
+        assertEquals("technical", objectMapper.readTree(lines.get(2)).get("contentType").asText());
+    }
+
+    @Test
+    void testEmptyInputFileGivesEmptyOutputFile(@TempDir Path dir) throws Exception {
+        // Arrange
+        Path input = Files.createFile(dir.resolve("requests.ndjson"));
+        Path output = dir.resolve("responses.ndjson");
+
+        // Act
+        PromptCrafterCli.main(new String[] {input.toString(), output.toString()});
+
+        // Assert
+        assertTrue(Files.exists(output));
+        assertEquals(0, Files.size(output));
+    }
+}
@@ -0,0 +1,187 @@
+package com.promptcrafter.admission;
+
+import com.promptcrafter.config.AdmissionProperties;
+import com.promptcrafter.config.WebConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    @Test
+    void testTokenBucketRefillsAtConfiguredRate() {
+        // Arrange
+        StripedTokenBuckets buckets = new StripedTokenBuckets(16, 10, 2);
+
+        // Act & Assert
+        assertEquals(0, buckets.tryAcquire("client", 1));
+        assertEquals(0, buckets.tryAcquire("client", 1));
+        assertEquals(100, buckets.tryAcquire("client", 1));
+        assertEquals(50, buckets.tryAcquire("client", 51));
+        assertEquals(0, buckets.tryAcquire("client", 101));
+        assertEquals(0, buckets.tryAcquire("client", 10_000));
+        assertEquals(0, buckets.tryAcquire("client", 10_000));
+        assertTrue(buckets.tryAcquire("client", 10_000) > 0);
+    }
+
+    @Test
+    void testRateLimitRejectsPerClientWithRetryAfter() throws Exception {
+        // Arrange
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRequestsPerSecond(1);
+        properties.setBurst(1);
+        properties.setApiKeys(List.of("alpha", "beta"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, registry);
+
+        // Act
+        MockHttpServletResponse first = send(filter, "alpha", new MockFilterChain());
+        MockHttpServletResponse second = send(filter, "alpha", new MockFilterChain());
+        MockHttpServletResponse other = send(filter, "beta", new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertEquals(200, other.getStatus());
+        assertEquals(1.0, registry.get(AdmissionControlFilter.METRIC_REJECTED).tag("reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    void testRotatingUnknownApiKeysDoesNotBypassTheLimit() throws Exception {
+        // Arrange
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRequestsPerSecond(1);
+        properties.setBurst(1);
+        properties.setApiKeys(List.of("alpha"));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, new SimpleMeterRegistry());
+
+        // Act
+        MockHttpServletResponse first = send(filter, "random-1", new MockFilterChain());
+        MockHttpServletResponse second = send(filter, "random-2", new MockFilterChain());
+        MockHttpServletResponse third = send(filter, "random-3", new MockFilterChain());
+        MockHttpServletResponse known = send(filter, "alpha", new MockFilterChain());
+
+        // Assert: unknown keys share the budget of their address
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals(429, third.getStatus());
+        assertEquals(200, known.getStatus());
+    }
+
+    @Test
+    void testJobSubmissionIsAdmissionControlled() {
+        // Act
+        Collection<String> patterns = new WebConfig()
+                .admissionControlFilter(new AdmissionProperties(), new SimpleMeterRegistry())
+                .getUrlPatterns();
+
+        // Assert
+        assertTrue(patterns.contains("/api/jobs"));
+        assertTrue(patterns.contains("/api/prompts/generate"));
+    }
+
+    @Test
+    void testLiveSessionsAreAdmissionControlledExceptEventStreams() throws Exception {
+        // Arrange
+        Collection<String> patterns = new WebConfig()
+                .admissionControlFilter(new AdmissionProperties(), new SimpleMeterRegistry())
+                .getUrlPatterns();
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRateLimitEnabled(false);
+        properties.setMaxConcurrent(1);
+        properties.setQueueTimeout(Duration.ofMillis(10));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, new SimpleMeterRegistry());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<MockHttpServletResponse> stream = executor.submit(() ->
+                send(filter, "GET", "/api/prompts/live/s1/events", "alpha", slowChain));
+        entered.await();
+        MockHttpServletResponse edit = send(filter, "POST", "/api/prompts/live/s1/edits", "beta", new MockFilterChain());
+        release.countDown();
+        int streamStatus = stream.get().getStatus();
+        executor.shutdown();
+
+        // Assert: an open event stream does not use up the permits edits need
+        assertTrue(patterns.contains("/api/prompts/live"));
+        assertTrue(patterns.contains("/api/prompts/live/*"));
+        assertEquals(200, streamStatus);
+        assertEquals(200, edit.getStatus());
+    }
+
+    @Test
+    void testConcurrencyLimitShedsLoadAfterQueueTimeout() throws Exception {
+        // Arrange
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setRateLimitEnabled(false);
+        properties.setMaxConcurrent(1);
+        properties.setQueueTimeout(Duration.ofMillis(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<MockHttpServletResponse> slow = executor.submit(() -> send(filter, "alpha", slowChain));
+        entered.await();
+        MockHttpServletResponse shed = send(filter, "beta", new MockFilterChain());
+        release.countDown();
+        int slowStatus = slow.get().getStatus();
+        MockHttpServletResponse afterwards = send(filter, "gamma", new MockFilterChain());
+        executor.shutdown();
+
+        // Assert
+        assertEquals(200, slowStatus);
+        assertEquals(429, shed.getStatus());
+        assertNotNull(shed.getHeader("Retry-After"));
+        assertEquals(200, afterwards.getStatus());
+        assertEquals(1.0, registry.get(AdmissionControlFilter.METRIC_REJECTED).tag("reason", "overload").counter().count());
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, String apiKey, FilterChain chain)
+            throws Exception {
+        return send(filter, "POST", "/api/prompts/generate", apiKey, chain);
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, String method, String path,
+                                                String apiKey, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-API-Key", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,106 @@
+package com.promptcrafter.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.promptcrafter.config.AdmissionProperties;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.config.JobProperties;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import com.promptcrafter.service.impl.NdjsonPromptStreamer;
+import com.promptcrafter.util.ToneUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PromptController.class)
+@EnableConfigurationProperties({AdmissionProperties.class, InputLimitProperties.class, JobProperties.class})
+@Import(SimpleMeterRegistry.class)
+class PromptControllerTest {
+
+    private static final String REQUEST = "{\"inputText\":\"Write an email\",\"selectedTones\":[\"Formal\"]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PromptService promptService;
+
+    @MockBean
+    private NdjsonPromptStreamer promptStreamer;
+
+    @BeforeEach
+    void setUp() {
+        when(promptService.generatePrompt(any())).thenAnswer(invocation -> PromptResponse.builder()
+                .generatedPrompt("# Prompt")
+                .tonesApplied(true)
+                .appliedTones(new String[] {"Formal"})
+                .contentType("communication")
+                .build());
+    }
+
+    @Test
+    void testAnyAcceptedTypeGetsJson() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/prompts/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL)
+                        .content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        // Assert
+        JsonNode body = new ObjectMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Formal", body.get("appliedTones").get(0).asText());
+    }
+
+    @Test
+    void testCborIsNegotiatedWithToneIds() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/prompts/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // Assert
+        JsonNode body = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(ToneUtils.getToneId("Formal"), body.get("appliedTones").get(0).intValue());
+        assertEquals("# Prompt", body.get("generatedPrompt").asText());
+    }
+
+    @Test
+    void testBatchItemsAreValidatedLikeSingleRequests() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/prompts/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"requests\":[" + REQUEST + ",{\"inputText\":\" \",\"selectedTones\":[\"Loud\"]}]}"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        // Assert
+        String error = new ObjectMapper().readTree(result.getResponse().getContentAsByteArray()).get("error").asText();
+        assertTrue(error.contains("requests[1].inputText"), error);
+        assertTrue(error.contains("requests[1].selectedTones"), error);
+        assertFalse(error.contains("requests[0]"), error);
+    }
+}
@@ -0,0 +1,142 @@
+package com.promptcrafter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.config.BatchProperties;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.BatchPromptResponse;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.MeteredPromptService;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactivePromptControllerTest {
+
+    private final AtomicReference<String> generatingThread = new AtomicReference<>();
+
+    private final ReactivePromptController controller = new ReactivePromptController(new PromptServiceImpl() {
+        @Override
+        public PromptResponse generatePrompt(PromptRequest request) {
+            generatingThread.set(Thread.currentThread().getName());
+            return super.generatePrompt(request);
+        }
+    }, new ObjectMapper(), new BatchProperties(), new InputLimitProperties());
+
+    private static PromptRequest request(String inputText) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(List.of());
+        return request;
+    }
+
+    @Test
+    void testGenerateRunsOnTheBoundedElasticScheduler() {
+        // Act
+        PromptResponse response = controller.generatePrompt(request("Write an email to my team")).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals("communication", response.getContentType());
+        assertTrue(generatingThread.get().startsWith("boundedElastic-"), generatingThread.get());
+    }
+
+    @Test
+    void testBatchKeepsOrderAndReportsFailedItems() {
+        // Arrange
+        List<PromptRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(request("Task " + i));
+        }
+        requests.set(7, null);
+        BatchPromptRequest batch = new BatchPromptRequest();
+        batch.setRequests(requests);
+
+        // Act
+        BatchPromptResponse response = controller.generatePrompts(batch).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(99, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        for (int i = 0; i < 100; i++) {
+            BatchItemResult result = response.getResults().get(i);
+            assertEquals(i, result.getIndex());
+            if (i == 7) {
+                assertNotNull(result.getError());
+            } else {
+                assertTrue(result.getResponse().getGeneratedPrompt().contains("Task " + i + "\n"));
+            }
+        }
+    }
+
+    @Test
+    void testBatchIsMeteredLikeInServletMode() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReactivePromptController meteredController = new ReactivePromptController(
+                new MeteredPromptService(new PromptServiceImpl(), BatchPromptExecutor.sequential(), registry),
+                new ObjectMapper(), new BatchProperties(), new InputLimitProperties());
+        BatchPromptRequest batch = new BatchPromptRequest();
+        batch.setRequests(List.of(request("Task 1"), request("Task 2"), request("Task 3")));
+
+        // Act
+        BatchPromptResponse response = meteredController.generatePrompts(batch).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(3, response.getSucceeded());
+        assertEquals(1, registry.get("promptcrafter.prompt.batch.size").summary().count());
+        assertEquals(3.0, registry.get("promptcrafter.prompt.batch.size").summary().totalAmount());
+        assertEquals(3, registry.get("promptcrafter.prompt.generation").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testOversizedBatchIsRejected() {
+        // Arrange
+        BatchPromptRequest batch = new BatchPromptRequest();
+        batch.setRequests(new ArrayList<>(Arrays.asList(new PromptRequest[new BatchProperties().getMaxSize() + 1])));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.generatePrompts(batch).block());
+    }
+
+    @Test
+    void testStreamKeepsOrderAndReportsMalformedLines() {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            ndjson.append(i == 4 ? "{not json" : "{\"inputText\":\"Task " + i + "\",\"selectedTones\":[]}").append("\n\n");
+        }
+
+        // Act
+        List<Object> results = controller.generatePromptStream(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8))).collectList().block();
+
+        // Assert
+        assertNotNull(results);
+        assertEquals(10, results.size());
+        for (int i = 0; i < 10; i++) {
+            if (i == 4) {
+                BatchItemResult error = assertInstanceOf(BatchItemResult.class, results.get(i));
+                assertEquals(4, error.getIndex());
+                assertNotNull(error.getError());
+            } else {
+                PromptResponse response = assertInstanceOf(PromptResponse.class, results.get(i));
+                assertTrue(response.getGeneratedPrompt().contains("Task " + i + "\n"));
+            }
+        }
+    }
+}
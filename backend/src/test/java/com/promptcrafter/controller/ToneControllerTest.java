@@ -0,0 +1,87 @@
+package com.promptcrafter.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.config.AdmissionProperties;
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.config.JobProperties;
+import com.promptcrafter.util.ToneUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ToneController.class)
+@EnableConfigurationProperties({AdmissionProperties.class, InputLimitProperties.class, JobProperties.class})
+@Import(SimpleMeterRegistry.class)
+class ToneControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testRevalidationWithCurrentEtagGetsNotModified() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/api/tones"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tones").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+
+        // Assert
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+        mockMvc.perform(get("/api/tones").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGzipIsServedWhenAccepted() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/tones").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        // Assert
+        assertTrue(result.getResponse().getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        assertEquals(ToneUtils.getAllTones(), objectMapper.readValue(body, List.class));
+    }
+
+    @Test
+    void testGzipWithZeroQualityGetsIdentity() throws Exception {
+        for (String acceptEncoding : new String[] {"gzip;q=0", "gzip; q=0.0", "gzip;q=0.000, identity", "deflate"}) {
+            // Act
+            MvcResult result = mockMvc.perform(get("/api/tones").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andReturn();
+
+            // Assert
+            assertEquals(ToneUtils.getAllTones(),
+                    objectMapper.readValue(result.getResponse().getContentAsByteArray(), List.class), acceptEncoding);
+        }
+    }
+}
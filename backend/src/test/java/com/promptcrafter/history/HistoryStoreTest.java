@@ -0,0 +1,155 @@
+package com.promptcrafter.history;
+
+import com.promptcrafter.config.HistoryProperties;
+import com.promptcrafter.model.HistoryEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryStoreTest {
+
+    private HistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        store = new HistoryStore(dataSource, 128);
+        store.initialize();
+    }
+
+    private static HistoryEntry entry(long id, String inputText, String contentType) {
+        return HistoryEntry.builder()
+                .id(id)
+                .createdAt(Instant.now())
+                .inputText(inputText)
+                .selectedTones(List.of("Formal"))
+                .generatedPrompt("# Prompt for " + inputText)
+                .contentType(contentType)
+                .tonesApplied(true)
+                .appliedTones(List.of("Formal"))
+                .build();
+    }
+
+    @Test
+    void testWriterStoresEntriesInBatchesWithIncreasingIds() throws Exception {
+        // Arrange
+        HistoryProperties properties = new HistoryProperties();
+        properties.setBatchSize(7);
+        properties.setFlushInterval(Duration.ofMillis(20));
+        HistoryWriter writer = new HistoryWriter(store, properties, new SimpleMeterRegistry());
+        List<Long> ids = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            long id = writer.nextId();
+            ids.add(id);
+            assertTrue(writer.offer(entry(id, "Write an email number " + i, "communication")));
+        }
+        assertTrue(writer.awaitWritten(Duration.ofSeconds(10)));
+        writer.close();
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1));
+        }
+        HistoryEntry stored = store.findById(ids.get(3)).orElseThrow();
+        assertEquals("Write an email number 3", stored.getInputText());
+        assertEquals(List.of("Formal"), stored.getAppliedTones());
+        assertEquals(ids.get(49), store.maxId());
+    }
+
+    @Test
+    void testListPagesNewestFirstWithKeysetCursor() {
+        // Arrange
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            entries.add(entry(id, "Prompt " + id, id % 2 == 0 ? "technical" : "creative"));
+        }
+        store.insertAll(entries);
+
+        // Act
+        List<HistoryEntry> first = store.list(null, null, 10);
+        List<HistoryEntry> second = store.list(null, first.get(9).getId(), 10);
+        List<HistoryEntry> technical = store.list("technical", 10L, 100);
+
+        // Assert
+        assertEquals(25, first.get(0).getId());
+        assertEquals(16, first.get(9).getId());
+        assertEquals(15, second.get(0).getId());
+        assertEquals(List.of(8L, 6L, 4L, 2L), technical.stream().map(HistoryEntry::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSearchRequiresEveryWordAndFiltersByContentType() {
+        // Arrange
+        store.insertAll(List.of(
+                entry(1, "Write an email to my boss about the budget", "communication"),
+                entry(2, "Design a budget tracking database", "technical"),
+                entry(3, "Email the team about the new BUDGET", "communication"),
+                entry(4, "A poem about the sea", "creative")));
+
+        // Act
+        List<HistoryEntry> budget = store.search("budget", null, null, 10);
+        List<HistoryEntry> emailBudget = store.search("Budget, email!", null, null, 10);
+        List<HistoryEntry> technicalBudget = store.search("budget", "technical", null, 10);
+        List<HistoryEntry> olderThan3 = store.search("budget email", null, 3L, 10);
+
+        // Assert
+        assertEquals(List.of(3L, 2L, 1L), budget.stream().map(HistoryEntry::getId).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 1L), emailBudget.stream().map(HistoryEntry::getId).collect(Collectors.toList()));
+        assertEquals(List.of(2L), technicalBudget.stream().map(HistoryEntry::getId).collect(Collectors.toList()));
+        assertEquals(List.of(1L), olderThan3.stream().map(HistoryEntry::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testLongToneListsAreStoredInFull() {
+        // Arrange: far more than the 4000 characters the tone columns used to hold
+        List<String> tones = Collections.nCopies(500, "Consensus-building");
+        HistoryEntry entry = entry(1, "Plan the offsite", "communication");
+        entry.setSelectedTones(tones);
+        entry.setAppliedTones(tones);
+
+        // Act
+        store.insertAll(List.of(entry));
+
+        // Assert
+        HistoryEntry stored = store.findById(1).orElseThrow();
+        assertEquals(tones, stored.getSelectedTones());
+        assertEquals(tones, stored.getAppliedTones());
+    }
+
+    @Test
+    void testInitializeLiftsToneLimitOfExistingTable() {
+        // Arrange: a table created while the tone columns were VARCHAR(4000)
+        DriverManagerDataSource existing =
+                new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(existing).execute("CREATE TABLE prompt_history (id BIGINT PRIMARY KEY, "
+                + "created_at TIMESTAMP NOT NULL, content_type VARCHAR(32) NOT NULL, "
+                + "input_text CHARACTER LARGE OBJECT NOT NULL, selected_tones VARCHAR(4000), "
+                + "generated_prompt CHARACTER LARGE OBJECT NOT NULL, tones_applied BOOLEAN NOT NULL, "
+                + "applied_tones VARCHAR(4000))");
+        HistoryStore migrated = new HistoryStore(existing, 128);
+        HistoryEntry entry = entry(1, "Plan the offsite", "communication");
+        entry.setSelectedTones(Collections.nCopies(500, "Consensus-building"));
+
+        // Act
+        migrated.initialize();
+        migrated.insertAll(List.of(entry));
+
+        // Assert
+        assertEquals(500, migrated.findById(1).orElseThrow().getSelectedTones().size());
+    }
+}
@@ -0,0 +1,191 @@
+package com.promptcrafter.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.config.JobProperties;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.JobResultPage;
+import com.promptcrafter.model.JobStatus;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.PromptService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRunnerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger generated = new AtomicInteger();
+    private DriverManagerDataSource dataSource;
+    private JobStore store;
+    private JobProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        store = new JobStore(dataSource);
+        store.initialize();
+        properties = new JobProperties();
+        properties.setParallelism(4);
+        properties.setChunkSize(8);
+    }
+
+    /** Echoes the input, failing inputs that ask for it. */
+    private final PromptService countingService = new PromptService() {
+        @Override
+        public PromptResponse generatePrompt(PromptRequest request) {
+            generated.incrementAndGet();
+            if (request.getInputText().startsWith("fail")) {
+                throw new IllegalArgumentException("Cannot generate " + request.getInputText());
+            }
+            return PromptResponse.builder().generatedPrompt("# " + request.getInputText()).build();
+        }
+
+        @Override
+        public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private JobRunner runner() {
+        return new JobRunner(store, countingService, objectMapper, properties, new SimpleMeterRegistry());
+    }
+
+    private static String requestJson(String inputText) {
+        return "{\"inputText\":\"" + inputText + "\",\"selectedTones\":[]}";
+    }
+
+    private JobStatus awaitCompleted(JobRunner runner, UUID jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            JobStatus status = runner.status(jobId).orElseThrow();
+            if (JobStore.COMPLETED.equals(status.getStatus())) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Job " + jobId + " did not complete");
+        return null;
+    }
+
+    @Test
+    void testResumeProcessesOnlyPendingItems() throws Exception {
+        // Arrange: a job stopped after storing the results of its first 30 items
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(requestJson("task " + i));
+        }
+        UUID jobId = UUID.randomUUID();
+        store.createJob(jobId, Instant.now());
+        store.addItems(jobId, 0, requests);
+        store.startJob(jobId, requests.size());
+        List<JobStore.ItemOutcome> stored = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            stored.add(new JobStore.ItemOutcome(i, "{\"generatedPrompt\":\"# task " + i + "\"}", null));
+        }
+        store.completeItems(jobId, stored);
+
+        // Act
+        JobStatus status;
+        try (JobRunner runner = runner()) {
+            assertEquals(1, runner.resumeUnfinished());
+            status = awaitCompleted(runner, jobId);
+        }
+
+        // Assert
+        assertEquals(70, generated.get());
+        assertEquals(100, status.getCompletedCount());
+        assertEquals(0, status.getFailedCount());
+        assertNotNull(status.getFinishedAt());
+    }
+
+    @Test
+    void testResultPagesCoverEveryItemOnce() throws Exception {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 45; i++) {
+            ndjson.append(requestJson(i % 10 == 0 ? "fail " + i : "task " + i)).append('\n');
+        }
+        ndjson.append("\n");
+
+        try (JobRunner runner = runner()) {
+            // Act
+            JobStatus submitted = runner.submit(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+            awaitCompleted(runner, submitted.getId());
+            List<BatchItemResult> results = new ArrayList<>();
+            Long cursor = 0L;
+            int pages = 0;
+            while (cursor != null) {
+                JobResultPage page = runner.results(submitted.getId(), cursor, 10).orElseThrow();
+                results.addAll(page.getItems());
+                cursor = page.getNextCursor();
+                pages++;
+            }
+
+            // Assert
+            assertEquals(45, submitted.getItemCount());
+            assertEquals(5, pages);
+            assertEquals(45, results.size());
+            Set<Long> indexes = new TreeSet<>();
+            for (BatchItemResult result : results) {
+                assertTrue(indexes.add(result.getIndex()));
+                if (result.getIndex() % 10 == 0) {
+                    assertNull(result.getResponse());
+                    assertEquals("Cannot generate fail " + result.getIndex(), result.getError());
+                } else {
+                    assertEquals("# task " + result.getIndex(), result.getResponse().getGeneratedPrompt());
+                }
+            }
+            assertEquals(45, indexes.size());
+            assertTrue(runner.delete(submitted.getId()));
+            assertTrue(runner.status(submitted.getId()).isEmpty());
+        }
+    }
+
+    @Test
+    void testChunkWhoseResultsCannotBeStoredIsRetried() throws Exception {
+        // Arrange: the first attempt to store a chunk's results fails
+        AtomicInteger storeCalls = new AtomicInteger();
+        store = new JobStore(dataSource) {
+            @Override
+            public void completeItems(UUID jobId, List<ItemOutcome> outcomes) {
+                if (storeCalls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Disk full");
+                }
+                super.completeItems(jobId, outcomes);
+            }
+        };
+        List<PromptRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            PromptRequest request = new PromptRequest();
+            request.setInputText("task " + i);
+            request.setSelectedTones(List.of());
+            requests.add(request);
+        }
+
+        // Act
+        JobStatus status;
+        try (JobRunner runner = runner()) {
+            status = awaitCompleted(runner, runner.submit(requests).getId());
+        }
+
+        // Assert
+        assertEquals(40, status.getCompletedCount());
+        assertEquals(0, status.getFailedCount());
+        assertTrue(store.pendingItems(status.getId(), -1, 100).isEmpty());
+        assertTrue(generated.get() > 40);
+    }
+}
@@ -0,0 +1,55 @@
+package com.promptcrafter.language;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LanguagePackRegistryTest {
+
+    private final LanguagePackRegistry registry = LanguagePackRegistry.standard();
+
+    @Test
+    void testDetectsBundledLanguages() {
+        assertEquals("en", registry.detect("Summarize this article in three bullet points").getCode());
+        assertEquals("de", registry.detect("Fasse diesen Artikel in drei Punkten zusammen").getCode());
+        assertEquals("es", registry.detect("Resume este artículo en tres puntos").getCode());
+        assertEquals("fr", registry.detect("Résume cet article en trois points").getCode());
+        assertEquals("pt", registry.detect("Resuma este artigo em três pontos").getCode());
+        assertEquals("tr", registry.detect("Bu makaleyi üç maddede özetle").getCode());
+    }
+
+    @Test
+    void testShortOrRepetitiveInputFallsBackToFirstPack() {
+        assertEquals("en", registry.detect("ok").getCode());
+        assertEquals("en", registry.detect("").getCode());
+        assertEquals("en", registry.detect("Create a Java function " + "filler ".repeat(100)).getCode());
+    }
+
+    @Test
+    void testDirectoryPackOverridesBundledPack(@TempDir Path directory) throws IOException {
+        // Arrange
+        Files.writeString(directory.resolve("en.properties"), String.join("\n",
+                "task.prefixes=kindly",
+                "context.indicators=so that",
+                "tone.cues=mood",
+                "keywords.communication=telegram",
+                "keywords.technical=robot"), StandardCharsets.UTF_8);
+
+        // Act
+        LanguagePackRegistry custom = new LanguagePackRegistry(List.of("en"), directory);
+        LanguagePack pack = custom.detect("Kindly send a TELEGRAM");
+
+        // Assert: a single pack is used without detection
+        assertSame(custom.getFallback(), pack);
+        assertEquals("Kindly".length(), pack.taskPrefixes().prefixEnd("Kindly send", 0, 11));
+        assertNotEquals(0L, pack.contentKeywords().matchCategories("Kindly send a TELEGRAM"));
+        assertEquals(-1, pack.taskPrefixes().prefixEnd("please send", 0, 11));
+    }
+}
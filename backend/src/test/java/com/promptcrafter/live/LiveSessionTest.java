@@ -0,0 +1,260 @@
+package com.promptcrafter.live;
+
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.config.LiveSessionProperties;
+import com.promptcrafter.model.LiveEditRequest;
+import com.promptcrafter.model.LivePromptUpdate;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.model.TextEdit;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.IncrementalPrompt;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveSessionTest {
+
+    /** Fragments that exercise task prefixes, context indicators, tone cues and both keyword categories. */
+    private static final String[] FRAGMENTS = {
+            "please ", "write ", "Create ", "can you ", "an email ", "a function ", "story ", "code",
+            " for ", " because ", " since ", " as ", "given that ", " considering ", "tone", " style ",
+            "my team", "the release", "  ", "\n", "x", "é", "😀", "HOW TO ", "memo", "post"
+    };
+
+    private static PromptRequest request(String inputText, List<String> tones) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(tones);
+        return request;
+    }
+
+    private static LiveEditRequest editRequest(Long baseVersion, TextEdit... edits) {
+        LiveEditRequest request = new LiveEditRequest();
+        request.setBaseVersion(baseVersion);
+        request.setEdits(List.of(edits));
+        return request;
+    }
+
+    private static String apply(String text, TextEdit edit) {
+        return text.substring(0, edit.getOffset()) + edit.getText()
+                + text.substring(edit.getOffset() + edit.getDeleteCount());
+    }
+
+    private static void assertIncrementalMatchesFullGeneration(PromptServiceImpl generator, int edits) {
+        Random random = new Random(17);
+        List<String> tones = List.of("Friendly", "Concise");
+        IncrementalPrompt prompt = new IncrementalPrompt(generator, "", tones);
+        String text = "";
+        for (int i = 0; i < edits; i++) {
+            // Random insertions, deletions and replacements, biased towards growing the text
+            int offset = random.nextInt(text.length() + 1);
+            int deleteCount = random.nextInt(4) == 0 ? random.nextInt(Math.min(12, text.length() - offset) + 1) : 0;
+            String insert = random.nextInt(5) == 0 ? "" : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+            prompt.edit(offset, deleteCount, insert);
+            text = text.substring(0, offset) + insert + text.substring(offset + deleteCount);
+
+            PromptResponse expected = generator.generatePrompt(request(text, tones));
+            PromptResponse actual = prompt.render();
+            assertEquals(expected.getGeneratedPrompt(), actual.getGeneratedPrompt(), "After edit " + i + " of: " + text);
+            assertEquals(expected.getContentType(), actual.getContentType());
+            assertEquals(expected.isTonesApplied(), actual.isTonesApplied());
+            assertArrayEquals(expected.getAppliedTones(), actual.getAppliedTones());
+        }
+        assertEquals(text, prompt.getText());
+    }
+
+    @Test
+    void testIncrementalPromptMatchesFullGenerationAfterEveryEdit() {
+        assertIncrementalMatchesFullGeneration(new PromptServiceImpl(), 3000);
+        assertIncrementalMatchesFullGeneration(new PromptServiceImpl(NaiveBayesContentClassifier.bundled(),
+                BatchPromptExecutor.sequential(), PromptServiceImpl.bundledTemplates()), 500);
+    }
+
+    @Test
+    void testUpdatesCarryPromptChangesAndRejectStaleEdits() {
+        // Arrange
+        PromptServiceImpl generator = new PromptServiceImpl();
+        LiveSession session = new LiveSession("s1", new IncrementalPrompt(generator, "Write an email", List.of()), 1000);
+        String clientPrompt = session.snapshot().getPromptEdit().getText();
+
+        // Act
+        LivePromptUpdate first = session.apply(editRequest(0L, new TextEdit(14, 0, " to my team")));
+        clientPrompt = apply(clientPrompt, first.getPromptEdit());
+        LivePromptUpdate second = session.apply(editRequest(1L, new TextEdit(14, 11, " because it shipped")));
+        clientPrompt = apply(clientPrompt, second.getPromptEdit());
+
+        // Assert
+        assertEquals(generator.generatePrompt(request("Write an email because it shipped", List.of())).getGeneratedPrompt(),
+                clientPrompt);
+        assertEquals(2, second.getVersion());
+        assertEquals("Write an email because it shipped".length(), second.getInputLength());
+        assertTrue(second.getPromptEdit().getText().length() < clientPrompt.length());
+        assertThrows(VersionConflictException.class, () -> session.apply(editRequest(1L, new TextEdit(0, 0, "x"))));
+        // A request with one bad edit changes nothing
+        assertThrows(IllegalArgumentException.class,
+                () -> session.apply(editRequest(2L, new TextEdit(0, 0, "x"), new TextEdit(500, 0, "y"))));
+        assertThrows(IllegalArgumentException.class, () -> session.apply(editRequest(2L, new TextEdit(0, 0, "z".repeat(1000)))));
+        assertEquals(2, session.snapshot().getVersion());
+        assertEquals(clientPrompt, session.snapshot().getPromptEdit().getText());
+    }
+
+    @Test
+    void testStalledSubscriberDoesNotBlockEdits() throws Exception {
+        // Arrange
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        LiveSession session = new LiveSession("s1",
+                new IncrementalPrompt(new PromptServiceImpl(), "Write an email", List.of()), 1000, publisher);
+        CountDownLatch stalled = new CountDownLatch(1);
+        List<String> events = new CopyOnWriteArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // The first part holds the event name and id, the second the update
+                events.add(builder.build().iterator().next().getData().toString());
+            }
+        };
+        session.subscribe(emitter);
+
+        // Act: the subscriber is stuck on its snapshot while edits keep arriving
+        session.apply(editRequest(0L, new TextEdit(14, 0, " to")));
+        session.apply(editRequest(1L, new TextEdit(17, 0, " my team")));
+        stalled.countDown();
+        publisher.shutdown();
+
+        // Assert
+        assertTrue(publisher.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(3, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertTrue(events.get(i).contains("id:" + i + "\n"), events.get(i));
+        }
+    }
+
+    @Test
+    void testSessionTurnedAwayByThePublisherEndsItsStreams() {
+        // Arrange
+        LiveSession session = new LiveSession("s1", new IncrementalPrompt(new PromptServiceImpl(), "Write an email",
+                List.of()), 1000, task -> {
+            throw new RejectedExecutionException("full");
+        });
+        RecordingEmitter emitter = new RecordingEmitter(null);
+
+        // Act
+        session.subscribe(emitter);
+        LivePromptUpdate update = session.apply(editRequest(0L, new TextEdit(14, 0, " to my team")));
+
+        // Assert: the edit still applies, the stream ends without blocking on a send
+        assertEquals(1, update.getVersion());
+        assertTrue(emitter.completed);
+        assertTrue(emitter.events.isEmpty());
+    }
+
+    @Test
+    void testSendTimeoutDropsAStalledSubscriber() throws Exception {
+        // Arrange
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        LiveSession session = new LiveSession("s1", new IncrementalPrompt(new PromptServiceImpl(), "Write an email",
+                List.of()), 1000, publisher, Duration.ofMillis(100));
+        RecordingEmitter stalled = new RecordingEmitter(new CountDownLatch(1));
+        RecordingEmitter healthy = new RecordingEmitter(null);
+
+        // Act
+        session.subscribe(stalled);
+        session.subscribe(healthy);
+        session.apply(editRequest(0L, new TextEdit(14, 0, " to my team")));
+        publisher.shutdown();
+
+        // Assert: the stalled send is interrupted and the other subscriber still gets every event
+        assertTrue(publisher.awaitTermination(5, TimeUnit.SECONDS));
+        assertNotNull(stalled.error);
+        assertTrue(stalled.events.isEmpty());
+        assertEquals(2, healthy.events.size());
+        assertTrue(healthy.events.get(1).contains("id:1\n"), healthy.events.get(1));
+    }
+
+    @Test
+    void testDifferenceDoesNotSplitSurrogatePairs() {
+        TextEdit edit = LiveSession.difference("a😀b", "a😃b");
+
+        assertEquals(1, edit.getOffset());
+        assertEquals(2, edit.getDeleteCount());
+        assertEquals("😃", edit.getText());
+    }
+
+    @Test
+    void testIdleSessionsAreClosed() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        LiveSessionProperties properties = new LiveSessionProperties();
+        properties.setIdleTimeout(Duration.ofMinutes(10));
+        LiveSessionRegistry registry = new LiveSessionRegistry(new PromptServiceImpl(), properties,
+                new InputLimitProperties(), new SimpleMeterRegistry(), nanos::get);
+        LiveSession active = registry.create(request("Write an email", List.of()));
+        LiveSession idle = registry.create(request("Write a poem", List.of()));
+
+        // Act
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        registry.find(active.getId());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        // Assert
+        assertSame(active, registry.find(active.getId()));
+        assertNull(registry.find(idle.getId()));
+    }
+
+    /** Records sent events; when given a latch, every send blocks on it until interrupted. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch block;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        RecordingEmitter(CountDownLatch block) {
+            this.block = block;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (block != null) {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            events.add(builder.build().iterator().next().getData().toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            error = ex;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.config.CacheProperties;
+import com.promptcrafter.config.PromptServiceConfig;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.CachingPromptService;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import com.promptcrafter.template.PromptTemplateRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingPromptServiceTest {
+
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+    private CachingPromptService cachingService;
+
+    @BeforeEach
+    void setUp() {
+        PromptService impl = new PromptServiceImpl();
+        PromptService countingDelegate = new PromptService() {
+            @Override
+            public PromptResponse generatePrompt(PromptRequest request) {
+                delegateCalls.incrementAndGet();
+                return impl.generatePrompt(request);
+            }
+
+            @Override
+            public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        CacheProperties properties = new CacheProperties();
+        properties.setMaximumSize(100);
+        properties.setTimeToLive(Duration.ofMinutes(5));
+        cachingService = new CachingPromptService(
+                countingDelegate, BatchPromptExecutor.sequential(), properties, nanos::get);
+    }
+
+    @Test
+    void testKeyIgnoresSurroundingWhitespace() {
+        // Act
+        cachingService.generatePrompt(request("Write an email to my boss", "Warm", "Clear"));
+        cachingService.generatePrompt(request("  Write an email to my boss\n", "Warm", "Clear"));
+
+        // Assert
+        assertEquals(1, delegateCalls.get());
+        assertEquals(1, cachingService.stats().hitCount());
+        assertEquals(1, cachingService.stats().missCount());
+    }
+
+    @Test
+    void testInputsDifferingInInnerWhitespaceAreCachedSeparately() {
+        // Arrange
+        PromptService uncached = new PromptServiceImpl();
+        PromptRequest lineBreak = request("Write a post\nfor my team launch", "Warm");
+        PromptRequest space = request("Write a post for my team launch", "Warm");
+
+        // Act
+        PromptResponse first = cachingService.generatePrompt(lineBreak);
+        PromptResponse second = cachingService.generatePrompt(space);
+
+        // Assert
+        assertEquals(2, delegateCalls.get());
+        assertEquals(uncached.generatePrompt(lineBreak).getGeneratedPrompt(), first.getGeneratedPrompt());
+        assertEquals(uncached.generatePrompt(space).getGeneratedPrompt(), second.getGeneratedPrompt());
+        assertNotEquals(first.getGeneratedPrompt(), second.getGeneratedPrompt());
+    }
+
+    @Test
+    void testKeyKeepsToneOrder() {
+        // Act
+        PromptResponse first = cachingService.generatePrompt(request("Write an email to my boss", "Warm", "Clear"));
+        PromptResponse second = cachingService.generatePrompt(request("Write an email to my boss", "Clear", "Warm"));
+
+        // Assert
+        assertEquals(2, delegateCalls.get());
+        assertArrayEquals(new String[] {"Warm", "Clear"}, first.getAppliedTones());
+        assertArrayEquals(new String[] {"Clear", "Warm"}, second.getAppliedTones());
+    }
+
+    @Test
+    void testCachedResponseIsACopy() {
+        // Arrange
+        PromptResponse first = cachingService.generatePrompt(request("Write an email", "Warm"));
+        first.setProcessingTimeMs(42);
+        first.getAppliedTones()[0] = "Changed";
+
+        // Act
+        PromptResponse second = cachingService.generatePrompt(request("Write an email", "Warm"));
+
+        // Assert
+        assertEquals(0, second.getProcessingTimeMs());
+        assertEquals("Warm", second.getAppliedTones()[0]);
+        assertEquals(first.getGeneratedPrompt(), second.getGeneratedPrompt());
+    }
+
+    @Test
+    void testEntriesExpireAfterTimeToLive() {
+        // Arrange
+        cachingService.generatePrompt(request("Write an email", "Warm"));
+
+        // Act
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        cachingService.generatePrompt(request("Write an email", "Warm"));
+        cachingService.getCache().cleanUp();
+
+        // Assert
+        assertEquals(2, delegateCalls.get());
+        assertEquals(2, cachingService.stats().missCount());
+    }
+
+    @Test
+    void testReloadedTemplateReplacesCachedPrompts(@TempDir Path directory) throws Exception {
+        // Arrange
+        Path template = directory.resolve(ContentClassifier.COMMUNICATION + ".tmpl");
+        Files.writeString(template, "Old: {{task}}");
+        PromptTemplateRegistry templates = new PromptTemplateRegistry(PromptServiceImpl.TEMPLATE_CONTENT_TYPES,
+                ContentClassifier.CREATIVE, PromptServiceImpl.TEMPLATE_VARIABLES, directory, false);
+        PromptServiceImpl impl = new PromptServiceImpl(new KeywordContentClassifier(),
+                BatchPromptExecutor.sequential(), templates);
+        CachingPromptService cache = new PromptServiceConfig().cachingPromptService(
+                impl, BatchPromptExecutor.sequential(), new CacheProperties(), templates);
+        PromptResponse before = cache.generatePrompt(request("Write an email to my team"));
+
+        // Act
+        Files.writeString(template, "New: {{task}}");
+        templates.reload(ContentClassifier.COMMUNICATION);
+        PromptResponse after = cache.generatePrompt(request("Write an email to my team"));
+
+        // Assert
+        assertTrue(before.getGeneratedPrompt().startsWith("Old: "), before.getGeneratedPrompt());
+        assertTrue(after.getGeneratedPrompt().startsWith("New: "), after.getGeneratedPrompt());
+    }
+
+    private static PromptRequest request(String inputText, String... tones) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(Arrays.asList(tones));
+        return request;
+    }
+}
@@ -0,0 +1,74 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.config.InputLimitProperties;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.InputLimitingPromptService;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputLimitingPromptServiceTest {
+
+    private static PromptService service(InputLimitProperties.OverflowMode overflow) {
+        InputLimitProperties properties = new InputLimitProperties();
+        properties.setMaxLength(1000);
+        properties.setTruncationWindow(100);
+        properties.setOverflow(overflow);
+        return new InputLimitingPromptService(new PromptServiceImpl(), BatchPromptExecutor.sequential(), properties);
+    }
+
+    private static PromptRequest request(String inputText) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(List.of());
+        return request;
+    }
+
+    @Test
+    void testRejectModeRejectsOversizedInput() {
+        PromptService service = service(InputLimitProperties.OverflowMode.REJECT);
+
+        assertFalse(service.generatePrompt(request("Write a poem".repeat(80))).isInputTruncated());
+        assertThrows(IllegalArgumentException.class, () -> service.generatePrompt(request("x".repeat(1001))));
+    }
+
+    @Test
+    void testTruncateModeKeepsStartAndEndOfInput() {
+        // Arrange
+        PromptService service = service(InputLimitProperties.OverflowMode.TRUNCATE);
+        String input = "Create a Java function " + "filler ".repeat(1000) + "because it matters";
+
+        // Act
+        PromptResponse response = service.generatePrompt(request(input));
+
+        // Assert
+        assertTrue(response.isInputTruncated());
+        assertEquals("technical", response.getContentType());
+        assertTrue(response.getGeneratedPrompt().contains("Java function filler"));
+        assertTrue(response.getGeneratedPrompt().contains("[...]"));
+        assertTrue(response.getGeneratedPrompt().contains("it matters"));
+        assertTrue(response.getGeneratedPrompt().length() < 1000);
+    }
+
+    @Test
+    void testTruncateModeDoesNotSplitSurrogatePairs() {
+        // Arrange
+        PromptService service = service(InputLimitProperties.OverflowMode.TRUNCATE);
+        String input = "a".repeat(99) + "😀" + "b".repeat(2000);
+
+        // Act
+        String prompt = service.generatePrompt(request(input)).getGeneratedPrompt();
+
+        // Assert
+        for (int i = 0; i < prompt.length(); i++) {
+            if (Character.isHighSurrogate(prompt.charAt(i))) {
+                assertTrue(Character.isLowSurrogate(prompt.charAt(i + 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.language.LanguagePackRegistry;
+import com.promptcrafter.model.ContentClassification;
+import com.promptcrafter.model.KeywordHit;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordContentClassifierTest {
+
+    private ContentClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        classifier = new KeywordContentClassifier();
+    }
+
+    @Test
+    void testClassifyIgnoresCase() {
+        assertEquals("communication", classifier.classify("WRITE AN EMAIL TO MY TEAM"));
+        assertEquals("technical", classifier.classify("Design a Database Schema"));
+        assertEquals("creative", classifier.classify("A poem about autumn leaves"));
+    }
+
+    @Test
+    void testCommunicationKeywordWinsOverTechnical() {
+        // Arrange
+        String input = "Build a system that sends a newsletter";
+
+        // Act
+        ContentClassification classification = classifier.explain(input);
+
+        // Assert
+        assertEquals("communication", classification.getContentType());
+        assertEquals("communication", classifier.classify(input));
+        List<String> keywords = classification.getHits().stream()
+                .map(KeywordHit::getKeyword)
+                .collect(Collectors.toList());
+        assertTrue(keywords.containsAll(List.of("build", "system", "newsletter")));
+    }
+
+    @Test
+    void testExplainReportsEveryHitWithOffset() {
+        // Arrange
+        String input = "Reply to the cover letter";
+
+        // Act
+        List<KeywordHit> hits = classifier.explain(input).getHits();
+
+        // Assert
+        assertEquals(List.of(
+                new KeywordHit("reply", "communication", 0),
+                new KeywordHit("cover letter", "communication", 13),
+                new KeywordHit("letter", "communication", 19)
+        ), hits);
+    }
+
+    @Test
+    void testClassifyMatchesSubstringsLikeContains() {
+        // "text" inside "context" has always counted as a communication keyword
+        assertEquals("communication", classifier.classify("Some context about autumn"));
+        assertTrue(classifier.explain("plain words").getHits().isEmpty());
+    }
+
+    @Test
+    void testShortEnglishInputsKeepEnglishKeywords() {
+        // Arrange
+        ContentClassifier englishOnly = new KeywordContentClassifier(new LanguagePackRegistry(List.of("en"), null));
+        String[] templates = {"Fix this %s", "Review my %s", "Quick %s needed", "Check my %s", "Improve this %s",
+                "Make a %s", "Send a %s", "%s ideas"};
+        String[] keywords = {"code", "program", "query", "system", "guide", "class", "procedure",
+                "text", "memo", "letter", "response", "announcement"};
+
+        // Act & Assert
+        assertEquals("technical", classifier.classify("Fix this code"));
+        assertEquals("technical", classifier.classify("Review my code"));
+        assertEquals("communication", classifier.classify("Quick memo needed"));
+        assertEquals("communication", classifier.classify("Quick text needed"));
+        for (String template : templates) {
+            for (String keyword : keywords) {
+                String input = String.format(template, keyword);
+                assertEquals(englishOnly.classify(input), classifier.classify(input), input);
+            }
+        }
+    }
+}
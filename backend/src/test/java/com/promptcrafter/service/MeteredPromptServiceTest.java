@@ -0,0 +1,103 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.MeteredPromptService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredPromptServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /** Classifies by the first word of the input and fails inputs that ask for it. */
+    private final PromptService stub = new PromptService() {
+        @Override
+        public PromptResponse generatePrompt(PromptRequest request) {
+            if (request.getInputText().startsWith("fail")) {
+                throw new IllegalArgumentException("Cannot generate");
+            }
+            String[] words = request.getInputText().split(" ");
+            return PromptResponse.builder()
+                    .generatedPrompt("# " + request.getInputText())
+                    .contentType(words[0])
+                    .tonesApplied(request.getSelectedTones() != null && !request.getSelectedTones().isEmpty())
+                    .build();
+        }
+
+        @Override
+        public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final MeteredPromptService service =
+            new MeteredPromptService(stub, new BatchPromptExecutor(Runnable::run, 100), registry);
+
+    private static PromptRequest request(String inputText, String... tones) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(Arrays.asList(tones));
+        return request;
+    }
+
+    private double generated(String contentType, boolean tonesApplied) {
+        return registry.get("promptcrafter.prompts.generated")
+                .tag("content.type", contentType)
+                .tag("tones.applied", Boolean.toString(tonesApplied))
+                .counter().count();
+    }
+
+    @Test
+    void testCountersForBuiltInContentTypesExistBeforeTheFirstPrompt() {
+        // Act
+        Collection<Meter> counters = registry.find("promptcrafter.prompts.generated").meters();
+
+        // Assert
+        assertEquals(6, counters.size());
+        assertEquals(0.0, generated(ContentClassifier.CREATIVE, true));
+    }
+
+    @Test
+    void testGenerationRecordsTimersCountersAndInputSize() {
+        // Act
+        service.generatePrompt(request("technical schema", "Formal"));
+        service.generatePrompt(request("technical query"));
+        service.generatePrompt(request("communication email"));
+        service.generatePrompt(request("poetry haiku", "Playful"));
+        assertThrows(IllegalArgumentException.class, () -> service.generatePrompt(request("fail now")));
+
+        // Assert
+        assertEquals(4, registry.get("promptcrafter.prompt.generation").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("promptcrafter.prompt.generation").tag("outcome", "failure").timer().count());
+        assertEquals(1.0, generated(ContentClassifier.TECHNICAL, true));
+        assertEquals(1.0, generated(ContentClassifier.TECHNICAL, false));
+        assertEquals(1.0, generated(ContentClassifier.COMMUNICATION, false));
+        assertEquals(1.0, generated("poetry", true));
+        assertEquals(5, registry.get("promptcrafter.prompt.input.size").summary().count());
+        assertEquals("communication email".length(), registry.get("promptcrafter.prompt.input.size").summary().max());
+    }
+
+    @Test
+    void testBatchRecordsItsSizeAndEachItem() {
+        // Act
+        List<BatchItemResult> results = service.generatePrompts(List.of(
+                request("creative story"), request("creative poem"), request("fail item")));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals(1, registry.get("promptcrafter.prompt.batch.size").summary().count());
+        assertEquals(3.0, registry.get("promptcrafter.prompt.batch.size").summary().totalAmount());
+        assertEquals(2.0, generated(ContentClassifier.CREATIVE, false));
+        assertEquals(1, registry.get("promptcrafter.prompt.generation").tag("outcome", "failure").timer().count());
+    }
+}
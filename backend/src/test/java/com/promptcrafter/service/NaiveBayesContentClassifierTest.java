@@ -0,0 +1,71 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.classifier.NaiveBayesModel;
+import com.promptcrafter.classifier.NaiveBayesTrainer;
+import com.promptcrafter.model.KeywordHit;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NaiveBayesContentClassifierTest {
+
+    private NaiveBayesContentClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        classifier = NaiveBayesContentClassifier.bundled();
+    }
+
+    @Test
+    void testClassifyWeighsAllWords() {
+        assertEquals("technical", classifier.classify("build a text-processing API"));
+        assertEquals("communication", classifier.classify("Write an email to my boss asking for a raise"));
+        assertEquals("creative", classifier.classify("Write a poem about autumn leaves"));
+    }
+
+    @Test
+    void testExplainReportsEvidenceWords() {
+        // Arrange
+        String input = "Write a poem about the sea";
+
+        // Act
+        List<KeywordHit> hits = classifier.explain(input).getHits();
+
+        // Assert
+        assertTrue(hits.contains(new KeywordHit("poem", "creative", 8)));
+        assertTrue(hits.stream().allMatch(hit -> input.toLowerCase().startsWith(hit.getKeyword(), hit.getOffset())));
+    }
+
+    @Test
+    void testBundledModelMatchesTrainingDataAndLoadsMapped(@TempDir Path directory) throws Exception {
+        // Arrange
+        NaiveBayesTrainer trainer = new NaiveBayesTrainer(NaiveBayesTrainer.DEFAULT_BUCKET_BITS);
+        try (Reader reader = Files.newBufferedReader(Path.of("data/content-types.tsv"), StandardCharsets.UTF_8)) {
+            trainer.addAll(reader);
+        }
+        NaiveBayesModel trained = trainer.build();
+        Path modelFile = directory.resolve("content-type.nbm");
+        try (OutputStream out = Files.newOutputStream(modelFile)) {
+            trained.write(out);
+        }
+
+        // Act
+        NaiveBayesModel mapped = NaiveBayesModel.load(modelFile);
+
+        // Assert
+        assertEquals(trained, mapped);
+        assertEquals(classifier.getModel(), mapped, "Bundled model is stale; retrain it from data/content-types.tsv");
+        assertEquals(List.of("technical", "communication", "creative"),
+                mapped.labels());
+    }
+}
@@ -0,0 +1,154 @@
+package com.promptcrafter.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.admission.RequestTooLargeException;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.NdjsonPromptStreamer;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonPromptStreamerTest {
+
+    private static final int MAX_LINE_BYTES = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final NdjsonPromptStreamer streamer = new NdjsonPromptStreamer(
+            new PromptServiceImpl(), Runnable::run, 4, MAX_LINE_BYTES, objectMapper);
+
+    private static InputStream input(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLineWithoutLineBreakFailsPastTheLimit() {
+        // Arrange: an endless body with no line break
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 'x';
+            }
+        };
+
+        // Act & Assert
+        assertThrows(RequestTooLargeException.class,
+                () -> streamer.process(endless, new ByteArrayOutputStream(), false));
+    }
+
+    @Test
+    void testLinesUpToTheLimitAreProcessed() throws IOException {
+        // Arrange
+        String prefix = "{\"inputText\":\"";
+        String suffix = "\",\"selectedTones\":[]}";
+        String text = "a".repeat(MAX_LINE_BYTES - prefix.length() - suffix.length());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = streamer.process(input(prefix + text + suffix + "\r\n"), out, false);
+
+        // Assert
+        assertEquals(1, count);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("\"error\""));
+    }
+
+    @Test
+    void testOutputKeepsInputOrderWithWindowSmallerThanInput() throws Exception {
+        // Arrange: the first request only finishes after a later one has finished
+        CountDownLatch laterFinished = new CountDownLatch(1);
+        PromptService service = new PromptServiceImpl() {
+            @Override
+            public PromptResponse generatePrompt(PromptRequest request) {
+                if (request.getInputText().equals("task 0")) {
+                    try {
+                        laterFinished.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                PromptResponse response = super.generatePrompt(request);
+                if (request.getInputText().equals("task 2")) {
+                    laterFinished.countDown();
+                }
+                return response;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        NdjsonPromptStreamer windowed = new NdjsonPromptStreamer(service, executor, 3, MAX_LINE_BYTES, objectMapper);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"inputText\":\"task ").append(i).append("\",\"selectedTones\":[]}\n");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count;
+        try {
+            count = windowed.process(input(ndjson.toString()), out, false);
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(20, count);
+        assertEquals(20, lines.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(objectMapper.readTree(lines.get(i)).get("generatedPrompt").asText().contains("Task " + i + "\n"),
+                    lines.get(i));
+        }
+    }
+
+    @Test
+    void testMalformedLineGetsAnErrorWithoutEndingTheStream() throws Exception {
+        // Arrange
+        String ndjson = "{\"inputText\":\"first\",\"selectedTones\":[]}\n"
+                + "{not json\n"
+                + "{\"inputText\":\"third\",\"selectedTones\":[]}\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = streamer.process(input(ndjson), out, false);
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, count);
+        assertEquals(3, lines.size());
+        assertTrue(objectMapper.readTree(lines.get(0)).has("generatedPrompt"));
+        JsonNode error = objectMapper.readTree(lines.get(1));
+        assertEquals(1, error.get("index").intValue());
+        assertTrue(error.hasNonNull("error"));
+        assertTrue(objectMapper.readTree(lines.get(2)).get("generatedPrompt").asText().contains("Third"));
+    }
+
+    @Test
+    void testEmptyInputGivesEmptyOutput() throws IOException {
+        // Arrange
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        ByteArrayOutputStream blank = new ByteArrayOutputStream();
+
+        // Act
+        long emptyCount = streamer.process(input(""), empty, false);
+        long blankCount = streamer.process(input("\n  \r\n\n"), blank, false);
+
+        // Assert
+        assertEquals(0, emptyCount);
+        assertEquals(0, empty.size());
+        assertEquals(0, blankCount);
+        assertEquals(0, blank.size());
+    }
+}
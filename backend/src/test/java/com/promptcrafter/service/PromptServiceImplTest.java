@@ -1,15 +1,24 @@
 package com.promptcrafter.service;
 
+import com.promptcrafter.model.BatchItemResult;
 import com.promptcrafter.model.PromptRequest;
 import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
 import com.promptcrafter.service.impl.PromptServiceImpl;
+import com.promptcrafter.util.AllocationMeter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class PromptServiceImplTest {
 
@@ -74,4 +83,140 @@ class PromptServiceImplTest {
         assertEquals("communication", response.getContentType());
         assertFalse(response.getGeneratedPrompt().contains("Tone"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGeneratePromptCompactsToTheTokenBudget() {
+        // Arrange
+        PromptRequest request = new PromptRequest();
+        request.setInputText("Write an email to my team because the release slipped after the database migration "
+                + "failed twice during testing and we had to roll back every service that depended on it");
+        PromptResponse full = promptService.generatePrompt(request);
+
+        // Act
+        request.setMaxTokens(full.getEstimatedTokens());
+        PromptResponse withinBudget = promptService.generatePrompt(request);
+        request.setMaxTokens(full.getEstimatedTokens() - 25);
+        PromptResponse shortened = promptService.generatePrompt(request);
+        request.setMaxTokens(1);
+        PromptResponse taskOnly = promptService.generatePrompt(request);
+
+        // Assert
+        assertTrue(full.getEstimatedTokens() > 0);
+        assertFalse(withinBudget.isPromptCompacted());
+        assertEquals(full.getGeneratedPrompt(), withinBudget.getGeneratedPrompt());
+        assertTrue(shortened.isPromptCompacted());
+        assertTrue(shortened.getEstimatedTokens() <= full.getEstimatedTokens() - 25);
+        assertFalse(shortened.getGeneratedPrompt().contains("## Format"));
+        assertTrue(shortened.getGeneratedPrompt().contains("## Context"));
+        assertTrue(shortened.getGeneratedPrompt().contains(" [...]\n"));
+        assertFalse(taskOnly.getGeneratedPrompt().contains("## Context"));
+        assertTrue(taskOnly.getGeneratedPrompt().contains("## Task"));
+    }
+
+    @Test
+    void testGeneratePromptsKeepsInputOrderAndReportsFailures() {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        PromptService batchService = new PromptServiceImpl(
+                new KeywordContentClassifier(), new BatchPromptExecutor(pool, 10),
+                PromptServiceImpl.bundledTemplates());
+        PromptRequest technical = new PromptRequest();
+        technical.setInputText("Create a Java function to calculate Fibonacci numbers");
+        technical.setSelectedTones(Collections.emptyList());
+        PromptRequest invalid = new PromptRequest();
+        PromptRequest communication = new PromptRequest();
+        communication.setInputText("Write an email to my boss asking for a raise");
+        communication.setSelectedTones(List.of("Respectful"));
+
+        // Act
+        List<BatchItemResult> results = batchService.generatePrompts(Arrays.asList(technical, invalid, communication));
+        pool.shutdown();
+
+        // Assert
+        assertEquals(3, results.size());
+        assertEquals("technical", results.get(0).getResponse().getContentType());
+        assertNull(results.get(1).getResponse());
+        assertNotNull(results.get(1).getError());
+        assertEquals("communication", results.get(2).getResponse().getContentType());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+    }
+
+    @Test
+    void testGeneratePromptsRejectsOversizedBatch() {
+        PromptService batchService = new PromptServiceImpl(
+                new KeywordContentClassifier(), new BatchPromptExecutor(Runnable::run, 1),
+                PromptServiceImpl.bundledTemplates());
+        List<PromptRequest> requests = Arrays.asList(new PromptRequest(), new PromptRequest());
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.generatePrompts(requests));
+    }
+
+    @Test
+    void testGeneratePromptAllocationStaysProportionalToOutput() {
+        assumeTrue(AllocationMeter.isSupported());
+
+        // Arrange
+        StringBuilder input = new StringBuilder("please draft a short story about a lighthouse keeper ");
+        while (input.length() < 100_000) {
+            input.append("who watches the sea every night and wonders about ships ");
+        }
+        input.append("because it is lonely");
+        PromptRequest request = new PromptRequest();
+        request.setInputText(input.toString());
+        request.setSelectedTones(Arrays.asList("Warm", "Vivid"));
+        for (int i = 0; i < 500; i++) {
+            promptService.generatePrompt(request);
+        }
+
+        // Act
+        long allocated = AllocationMeter.measure(() -> promptService.generatePrompt(request));
+
+        // Assert: no lowercased or trimmed copies of the input; the prompt is built once
+        // in a presized builder, so allocation stays near the builder plus the final string
+        assertTrue(allocated < 3L * input.length(), "Allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void testGeneratePromptUsesKeywordsOfDetectedLanguage() {
+        // Arrange
+        PromptRequest request = new PromptRequest();
+        request.setInputText("bitte schreibe eine E-Mail an mein Team, weil das neue Release fertig ist");
+        request.setSelectedTones(List.of("Friendly"));
+
+        // Act
+        PromptResponse response = promptService.generatePrompt(request);
+
+        // Assert
+        assertEquals("communication", response.getContentType());
+        assertTrue(response.isTonesApplied());
+        assertTrue(response.getGeneratedPrompt().contains("Schreibe eine E-Mail an mein Team"));
+        assertTrue(response.getGeneratedPrompt().contains("das neue Release fertig ist"));
+    }
+
+    @Test
+    void testGeneratePromptDoesNotDependOnDefaultLocale() {
+        // Arrange
+        Locale defaultLocale = Locale.getDefault();
+        PromptRequest english = new PromptRequest();
+        english.setInputText("WRITE AN INVITATION FOR THE OFFICE PARTY");
+        PromptRequest turkish = new PromptRequest();
+        turkish.setInputText("istanbul hakkında bir şiir yaz çünkü orayı çok seviyorum");
+
+        try {
+            // Act
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            PromptResponse englishResponse = promptService.generatePrompt(english);
+            PromptResponse turkishResponse = promptService.generatePrompt(turkish);
+
+            // Assert: the I of INVITATION folds to i, and Turkish capitalizes i as İ
+            assertEquals("communication", englishResponse.getContentType());
+            assertEquals("creative", turkishResponse.getContentType());
+            assertTrue(turkishResponse.getGeneratedPrompt().contains("\u0130stanbul hakkında bir şiir yaz"));
+            assertTrue(turkishResponse.getGeneratedPrompt().contains("orayı çok seviyorum"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.promptcrafter.service;
+
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.impl.BatchPromptExecutor;
+import com.promptcrafter.service.impl.SingleFlightPromptService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightPromptServiceTest {
+
+    private static final int CALLERS = 8;
+
+    /**
+     * Delegate that blocks every generation until released, so callers overlap.
+     */
+    private static class BlockingPromptService implements PromptService {
+
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean fail;
+
+        @Override
+        public PromptResponse generatePrompt(PromptRequest request) {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                throw new IllegalStateException("generation failed");
+            }
+            return PromptResponse.builder()
+                    .generatedPrompt("prompt for " + request.getInputText().trim())
+                    .contentType("creative")
+                    .appliedTones(new String[] {"Warm"})
+                    .build();
+        }
+
+        @Override
+        public List<BatchItemResult> generatePrompts(List<PromptRequest> requests) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Registry that counts down a latch whenever a request joins a flight, so the test
+     * knows when every follower is waiting on the leader.
+     */
+    private static class JoinTrackingMeterRegistry extends SimpleMeterRegistry {
+
+        final CountDownLatch joined = new CountDownLatch(CALLERS - 1);
+
+        @Override
+        protected Counter newCounter(Meter.Id id) {
+            Counter counter = super.newCounter(id);
+            return new Counter() {
+                @Override
+                public void increment(double amount) {
+                    counter.increment(amount);
+                    joined.countDown();
+                }
+
+                @Override
+                public double count() {
+                    return counter.count();
+                }
+
+                @Override
+                public Id getId() {
+                    return counter.getId();
+                }
+            };
+        }
+    }
+
+    private static PromptRequest request(String inputText, List<String> tones) {
+        PromptRequest request = new PromptRequest();
+        request.setInputText(inputText);
+        request.setSelectedTones(tones);
+        return request;
+    }
+
+    private static List<Future<PromptResponse>> submitAll(ExecutorService pool, SingleFlightPromptService service,
+                                                          BlockingPromptService delegate,
+                                                          JoinTrackingMeterRegistry registry) throws InterruptedException {
+        List<Future<PromptResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            // Surrounding whitespace differs between callers but the key is the same
+            PromptRequest request = i % 2 == 0
+                    ? request("Write a poem about the sea", List.of("Warm", "Vivid"))
+                    : request("  Write a poem about the sea\n", List.of("Warm", "Vivid"));
+            futures.add(pool.submit(() -> service.generatePrompt(request)));
+        }
+        // The leader holds the flight until released, so every other caller joins it
+        assertTrue(delegate.entered.await(10, TimeUnit.SECONDS));
+        assertTrue(registry.joined.await(10, TimeUnit.SECONDS));
+        assertEquals(1, service.inFlightCount());
+        delegate.release.countDown();
+        return futures;
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsShareOneGeneration() throws Exception {
+        // Arrange
+        BlockingPromptService delegate = new BlockingPromptService();
+        JoinTrackingMeterRegistry registry = new JoinTrackingMeterRegistry();
+        SingleFlightPromptService service = new SingleFlightPromptService(delegate, BatchPromptExecutor.sequential(), registry);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+        // Act
+        List<Future<PromptResponse>> futures = submitAll(pool, service, delegate, registry);
+        List<PromptResponse> responses = new ArrayList<>();
+        for (Future<PromptResponse> future : futures) {
+            responses.add(future.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1, delegate.calls.get());
+        assertEquals(CALLERS - 1, registry.counter("promptcrafter.prompt.coalesced").count());
+        assertEquals(0, service.inFlightCount());
+        for (PromptResponse response : responses) {
+            assertEquals("prompt for Write a poem about the sea", response.getGeneratedPrompt());
+        }
+        // Each caller owns its response
+        responses.get(0).setHistoryId(42L);
+        responses.get(0).getAppliedTones()[0] = "Changed";
+        assertNull(responses.get(1).getHistoryId());
+        assertEquals("Warm", responses.get(1).getAppliedTones()[0]);
+    }
+
+    @Test
+    void testFailureIsSharedButNotRemembered() throws Exception {
+        // Arrange
+        BlockingPromptService delegate = new BlockingPromptService();
+        delegate.fail = true;
+        JoinTrackingMeterRegistry registry = new JoinTrackingMeterRegistry();
+        SingleFlightPromptService service = new SingleFlightPromptService(delegate, BatchPromptExecutor.sequential(), registry);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+        // Act
+        List<Future<PromptResponse>> futures = submitAll(pool, service, delegate, registry);
+        int failures = 0;
+        for (Future<PromptResponse> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                failures++;
+            }
+        }
+        pool.shutdown();
+        delegate.fail = false;
+        PromptResponse retried = service.generatePrompt(request("Write a poem about the sea", List.of("Warm")));
+
+        // Assert
+        assertEquals(CALLERS, failures);
+        assertEquals(2, delegate.calls.get());
+        assertNotNull(retried);
+    }
+}
@@ -0,0 +1,88 @@
+package com.promptcrafter.template;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromptTemplateTest {
+
+    private static final List<String> VARIABLES = List.of("task", "context", "tones", "compact");
+
+    private static TemplateValues values(Map<String, String> values) {
+        return new TemplateValues() {
+            @Override
+            public boolean isPresent(int variableId) {
+                return values.containsKey(VARIABLES.get(variableId));
+            }
+
+            @Override
+            public int length(int variableId) {
+                return values.getOrDefault(VARIABLES.get(variableId), "").length();
+            }
+
+            @Override
+            public void appendTo(int variableId, StringBuilder target) {
+                target.append(values.getOrDefault(VARIABLES.get(variableId), ""));
+            }
+        };
+    }
+
+    @Test
+    void testRenderSectionsAndVariables() {
+        // Arrange
+        PromptTemplate template = PromptTemplate.compile(
+                "Task: {{task}}{{#context}} ({{context}}){{/context}}. {{#tones}}Tones: {{tones}}{{/tones}}{{^tones}}No tones{{/tones}}",
+                VARIABLES);
+        TemplateValues withContext = values(Map.of("task", "Write", "context", "for work"));
+        TemplateValues withTones = values(Map.of("task", "Write", "tones", "Formal, Warm"));
+
+        // Act
+        String first = template.render(withContext);
+        String second = template.render(withTones);
+
+        // Assert
+        assertEquals("Task: Write (for work). No tones", first);
+        assertEquals("Task: Write. Tones: Formal, Warm", second);
+        assertEquals(first.length(), template.measure(withContext));
+        assertEquals(second.length(), template.measure(withTones));
+    }
+
+    @Test
+    void testCompileRejectsMalformedTemplates() {
+        assertThrows(TemplateException.class, () -> PromptTemplate.compile("{{#tones}}open", VARIABLES));
+        assertThrows(TemplateException.class, () -> PromptTemplate.compile("{{#tones}}{{/context}}", VARIABLES));
+        assertThrows(TemplateException.class, () -> PromptTemplate.compile("{{unknown}}", VARIABLES));
+        assertThrows(TemplateException.class, () -> PromptTemplate.compile("{{task", VARIABLES));
+    }
+
+    @Test
+    void testRegistryReloadsOverridesAndKeepsLastGoodTemplate(@TempDir Path directory) throws Exception {
+        // Arrange
+        List<String> types = List.of("technical", "communication", "creative");
+        Files.writeString(directory.resolve("technical.tmpl"), "Override {{task}}\n");
+        PromptTemplateRegistry registry = new PromptTemplateRegistry(types, "creative", VARIABLES, directory, false);
+        TemplateValues task = values(Map.of("task", "X"));
+
+        // Act
+        String overridden = registry.get("technical").render(task);
+        Files.writeString(directory.resolve("technical.tmpl"), "Changed {{task}}");
+        boolean reloaded = registry.reload("technical");
+        Files.writeString(directory.resolve("technical.tmpl"), "Broken {{#task}}");
+        boolean reloadedBroken = registry.reload("technical");
+
+        // Assert
+        assertEquals("Override X", overridden);
+        assertTrue(reloaded);
+        assertFalse(reloadedBroken);
+        assertEquals("Changed X", registry.get("technical").render(task));
+        assertTrue(registry.get("communication").render(task).startsWith("# Communication Request"));
+        assertSame(registry.get("creative"), registry.get("unknown"));
+        registry.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.promptcrafter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenEstimatorTest {
+
+    private final TokenEstimator estimator = TokenEstimator.of(List.of("write", "an", "email", "ing", "##", "..."));
+
+    @Test
+    void testEstimateUsesLongestEntriesAndFallbacks() {
+        assertEquals(0, estimator.estimate(""));
+        // A space before a word joins the word; case is ignored
+        assertEquals(3, estimator.estimate("Write an email"));
+        // "emailing" is "email" + "ing"; "xyz" has no entry, so "xy" + "z"
+        assertEquals(2, estimator.estimate("emailing"));
+        assertEquals(2, estimator.estimate("xyz"));
+        // Digits go three at a time, symbol runs match entries, whitespace runs are one token
+        assertEquals(2, estimator.estimate("12345"));
+        assertEquals(2, estimator.estimate("##..."));
+        assertEquals(3, estimator.estimate("an\n\n\nan"));
+        // A surrogate pair is never split
+        assertEquals(1, estimator.estimate("😀"));
+    }
+
+    @Test
+    void testFitEndsOnATokenBoundaryWithinTheBudget() {
+        String text = "Write an email, write an email";
+
+        assertEquals(0, estimator.fit(text, 0, text.length(), 0));
+        assertEquals("Write an".length(), estimator.fit(text, 0, text.length(), 2));
+        assertEquals("Write an email,".length(), estimator.fit(text, 0, text.length(), 4));
+        assertEquals(text.length(), estimator.fit(text, 0, text.length(), 100));
+        assertEquals(estimator.estimate(text), estimator.estimate(text, 0, estimator.fit(text, 0, text.length(), 100)));
+    }
+
+    @Test
+    void testStandardEstimateIsCloseToFourCharactersPerToken() {
+        String text = "Please write an email to my team announcing that the release is delayed until Friday "
+                + "because of a database migration issue.";
+
+        int tokens = TokenEstimator.standard().estimate(text);
+
+        assertTrue(tokens >= text.length() / 6 && tokens <= text.length() / 3, "Estimated " + tokens + " tokens");
+    }
+}
@@ -0,0 +1,64 @@
+package com.promptcrafter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToneEngineTest {
+
+    private final ToneEngine engine = ToneEngine.standard();
+
+    @Test
+    void testConflictsAreSymmetricAndCoverCategoryNames() {
+        assertTrue(engine.conflicts("Blunt", "Diplomatic"));
+        assertTrue(engine.conflicts("Diplomatic", "Blunt"));
+        assertTrue(engine.conflicts("Brief", "Elaborate"));
+        assertTrue(engine.conflicts("Formal", "Conversational"));
+        assertTrue(engine.conflicts("Formal", "Friendly"));
+        assertTrue(engine.conflicts("Objective", "Empathetic"));
+        assertTrue(engine.conflicts("Emotional", "Analytical"));
+        assertFalse(engine.conflicts("Friendly", "Warm"));
+        assertThrows(IllegalArgumentException.class, () -> engine.conflicts("Loud", "Warm"));
+    }
+
+    @Test
+    void testResolveDropsDuplicatesAndTheWeakerSideOfAConflict() {
+        // Act: Diplomatic is backed by Respectful from the same category, Blunt stands alone
+        ToneEngine.Resolution resolution = engine.resolve(List.of("Blunt", "Diplomatic", "Respectful", "Diplomatic"));
+
+        // Assert
+        assertEquals(List.of("Diplomatic", "Respectful"), resolution.getApplied());
+        assertEquals(List.of("Blunt"), resolution.getDropped());
+    }
+
+    @Test
+    void testResolveKeepsSelectionOrderBetweenEquallyWeightedConflicts() {
+        ToneEngine.Resolution resolution = engine.resolve(List.of("Brief", "Elaborate"));
+
+        assertEquals(List.of("Brief"), resolution.getApplied());
+        assertEquals(List.of("Elaborate"), resolution.getDropped());
+    }
+
+    @Test
+    void testResolveBoundsTheDirectiveAndRanksTheDominantCategoryFirst() {
+        // Arrange
+        List<String> tones = List.of("Formal", "Witty", "Casual", "Friendly", "Warm", "Inviting",
+                "Playful", "Approachable", "Concise", "Detailed", "Humorous");
+
+        // Act
+        ToneEngine.Resolution resolution = engine.resolve(tones);
+
+        // Assert: the conversational tones outweigh Formal, which they contradict
+        assertEquals(ToneEngine.MAX_APPLIED_TONES, resolution.getApplied().size());
+        assertEquals(List.of("Casual", "Friendly", "Warm", "Inviting", "Approachable"), resolution.getApplied());
+        assertTrue(resolution.getDropped().contains("Formal"));
+        assertEquals(tones.size() - ToneEngine.MAX_APPLIED_TONES, resolution.getDropped().size());
+        for (String applied : resolution.getApplied()) {
+            for (String other : resolution.getApplied()) {
+                assertFalse(engine.conflicts(applied, other));
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.promptcrafter.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToneIdModuleTest {
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory()).registerModule(new ToneIdModule());
+
+    @Test
+    void testToneIdsCoverTonesAndCategoriesOnce() {
+        // Arrange
+        List<String> names = ToneUtils.getToneNamesById();
+
+        // Act & Assert
+        assertEquals(names.size(), names.stream().distinct().count());
+        assertTrue(names.containsAll(ToneUtils.getAllTones()));
+        assertTrue(names.containsAll(ToneUtils.getToneCategories().keySet()));
+        for (int id = 0; id < names.size(); id++) {
+            assertEquals(id, ToneUtils.getToneId(names.get(id)));
+            assertEquals(names.get(id), ToneUtils.getToneById(id));
+        }
+        assertEquals(-1, ToneUtils.getToneId("Unheard-of"));
+        assertNull(ToneUtils.getToneById(names.size()));
+    }
+
+    @Test
+    void testPublishedToneIdsNeverChange() {
+        // Ids are stored by clients; these must keep their values whatever the catalog order
+        assertEquals(0, ToneUtils.getToneId("Formal"));
+        assertEquals(6, ToneUtils.getToneId("Precise"));
+        assertEquals(19, ToneUtils.getToneId("Persuasive"));
+        assertEquals(96, ToneUtils.getToneId("Priority"));
+        assertEquals(97, ToneUtils.getToneId("Professional"));
+        assertEquals(103, ToneUtils.getToneId("Collaborative"));
+        assertTrue(ToneUtils.getToneNamesById().size() >= 104);
+    }
+
+    @Test
+    void testTonesTravelAsIdsAndReadBack() throws Exception {
+        // Arrange
+        PromptResponse response = PromptResponse.builder()
+                .generatedPrompt("# Prompt")
+                .tonesApplied(true)
+                .appliedTones(new String[] {"Formal", "Concise"})
+                .droppedTones(new String[] {"Casual"})
+                .contentType("communication")
+                .build();
+
+        // Act
+        byte[] encoded = cbor.writeValueAsBytes(response);
+        JsonNode tree = cbor.readTree(encoded);
+        PromptResponse decoded = cbor.readValue(encoded, PromptResponse.class);
+
+        // Assert
+        assertTrue(tree.get("appliedTones").get(0).isInt());
+        assertEquals(ToneUtils.getToneId("Formal"), tree.get("appliedTones").get(0).intValue());
+        assertEquals(ToneUtils.getToneId("Casual"), tree.get("droppedTones").get(0).intValue());
+        assertEquals(response, decoded);
+    }
+
+    @Test
+    void testRequestsAcceptIdsAndNamesButNotUnknownIds() throws Exception {
+        // Arrange
+        int formal = ToneUtils.getToneId("Formal");
+        ObjectMapper plainCbor = new ObjectMapper(new CBORFactory());
+        byte[] mixed = plainCbor.writeValueAsBytes(Map.of(
+                "inputText", "Write an email", "selectedTones", List.of(formal, "friendly")));
+        byte[] unknown = plainCbor.writeValueAsBytes(Map.of(
+                "inputText", "Write an email", "selectedTones", List.of(100_000)));
+
+        // Act
+        PromptRequest request = cbor.readValue(mixed, PromptRequest.class);
+
+        // Assert
+        assertEquals(List.of("Formal", "friendly"), request.getSelectedTones());
+        assertThrows(InvalidFormatException.class, () -> cbor.readValue(unknown, PromptRequest.class));
+    }
+}
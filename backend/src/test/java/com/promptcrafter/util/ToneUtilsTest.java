@@ -0,0 +1,43 @@
+package com.promptcrafter.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToneUtilsTest {
+
+    @Test
+    void testGetAllTonesIsDeduplicatedAndCached() {
+        // Act
+        List<String> allTones = ToneUtils.getAllTones();
+
+        // Assert
+        assertEquals(new HashSet<>(allTones).size(), allTones.size());
+        assertTrue(allTones.contains("Supportive"));
+        assertSame(allTones, ToneUtils.getAllTones());
+        assertThrows(UnsupportedOperationException.class, () -> allTones.add("Loud"));
+    }
+
+    @Test
+    void testSharedTonesResolveToEveryCategoryInDeclarationOrder() {
+        assertEquals(List.of("Professional", "Technical"), ToneUtils.getCategoriesForTone("Precise"));
+        assertEquals(List.of("Descriptive", "Technical"), ToneUtils.getCategoriesForTone("detailed"));
+        assertEquals(List.of("Emotional", "Collaborative"), ToneUtils.getCategoriesForTone("SUPPORTIVE"));
+        assertEquals("Professional", ToneUtils.getCategoryForTone("Precise"));
+        assertEquals(ToneUtils.UNCATEGORIZED, ToneUtils.getCategoryForTone("Loud"));
+    }
+
+    @Test
+    void testCanonicalTonesAcceptsAnyCaseAndCategoryNames() {
+        // Act
+        List<String> tones = ToneUtils.canonicalTones(Arrays.asList("warm", "PROFESSIONAL", " Clear "));
+
+        // Assert
+        assertEquals(List.of("Warm", "Professional", "Clear"), tones);
+        assertThrows(IllegalArgumentException.class, () -> ToneUtils.canonicalTones(List.of("Warm", "Loud")));
+    }
+}
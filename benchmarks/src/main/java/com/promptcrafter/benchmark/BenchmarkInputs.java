@@ -0,0 +1,68 @@
+package com.promptcrafter.benchmark;
+
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import com.promptcrafter.util.ToneUtils;
+
+import java.util.List;
+
+/**
+ * Deterministic benchmark inputs of a given size and content type.
+ */
+public final class BenchmarkInputs {
+
+    private static final String TECHNICAL_SENTENCE =
+            "implement a caching layer for the database query service and keep latency low. ";
+    private static final String COMMUNICATION_SENTENCE =
+            "write an email to the hiring manager about the open role and my experience. ";
+    private static final String CREATIVE_SENTENCE =
+            "imagine a quiet village at the edge of a frozen lake where lanterns glow every evening. ";
+    private static final String CLOSING = " because it matters";
+
+    private static final ContentClassifier CLASSIFIER = new KeywordContentClassifier();
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Builds an input text of exactly {@code size} characters that classifies as the given type.
+     *
+     * @param contentType "technical", "communication" or "creative"
+     * @param size The number of characters
+     * @return The input text
+     */
+    public static String text(String contentType, int size) {
+        String sentence = switch (contentType) {
+            case ContentClassifier.TECHNICAL -> TECHNICAL_SENTENCE;
+            case ContentClassifier.COMMUNICATION -> COMMUNICATION_SENTENCE;
+            case ContentClassifier.CREATIVE -> CREATIVE_SENTENCE;
+            default -> throw new IllegalArgumentException("Unknown content type: " + contentType);
+        };
+
+        // "Please " exercises prefix removal and the closing clause exercises context extraction
+        StringBuilder text = new StringBuilder(size + sentence.length());
+        text.append("Please ");
+        while (text.length() < size - CLOSING.length()) {
+            text.append(sentence);
+        }
+        text.setLength(size - CLOSING.length());
+        text.append(CLOSING);
+        String result = text.toString();
+
+        String detected = CLASSIFIER.classify(result);
+        if (!detected.equals(contentType)) {
+            throw new IllegalStateException("Generated " + contentType + " input classifies as " + detected);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the first {@code count} tones of the catalog.
+     *
+     * @param count The number of tones
+     * @return The tones
+     */
+    public static List<String> tones(int count) {
+        return ToneUtils.getAllTones().subList(0, count);
+    }
+}
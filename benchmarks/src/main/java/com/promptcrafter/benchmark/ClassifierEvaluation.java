@@ -0,0 +1,79 @@
+package com.promptcrafter.benchmark;
+
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the accuracy of the content classifiers on a held-out labelled set.
+ * <p>
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.promptcrafter.benchmark.ClassifierEvaluation};
+ * latency is measured separately by {@link ContentClassifierBenchmark}.
+ */
+public final class ClassifierEvaluation {
+
+    static final String EVALUATION_SET = "classifier/evaluation.tsv";
+
+    private ClassifierEvaluation() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String[]> examples = examples();
+        Map<String, ContentClassifier> classifiers = new LinkedHashMap<>();
+        classifiers.put("keyword", new KeywordContentClassifier());
+        classifiers.put("naive-bayes", NaiveBayesContentClassifier.bundled());
+
+        System.out.printf("%d held-out examples%n", examples.size());
+        for (Map.Entry<String, ContentClassifier> entry : classifiers.entrySet()) {
+            int correct = 0;
+            List<String> misses = new ArrayList<>();
+            for (String[] example : examples) {
+                String predicted = entry.getValue().classify(example[1]);
+                if (predicted.equals(example[0])) {
+                    correct++;
+                } else {
+                    misses.add(example[0] + " -> " + predicted + ": " + example[1]);
+                }
+            }
+            System.out.printf("%-12s accuracy %.1f%% (%d/%d)%n", entry.getKey(),
+                    100.0 * correct / examples.size(), correct, examples.size());
+            for (String miss : misses) {
+                System.out.println("    " + miss);
+            }
+        }
+    }
+
+    /**
+     * Reads the held-out set as {label, text} pairs.
+     *
+     * @return The examples
+     * @throws IOException if the set cannot be read
+     */
+    static List<String[]> examples() throws IOException {
+        List<String[]> examples = new ArrayList<>();
+        try (InputStream in = ClassifierEvaluation.class.getClassLoader().getResourceAsStream(EVALUATION_SET)) {
+            if (in == null) {
+                throw new IOException("Missing " + EVALUATION_SET);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (!line.startsWith("#") && tab > 0) {
+                    examples.add(new String[] {line.substring(0, tab), line.substring(tab + 1)});
+                }
+            }
+        }
+        return examples;
+    }
+}
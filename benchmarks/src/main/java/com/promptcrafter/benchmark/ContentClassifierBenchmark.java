@@ -0,0 +1,55 @@
+package com.promptcrafter.benchmark;
+
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import com.promptcrafter.service.impl.NaiveBayesContentClassifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of the content classifiers over the held-out evaluation prompts,
+ * and over long generated inputs. Accuracy on the same prompts is reported by
+ * {@link ClassifierEvaluation}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentClassifierBenchmark {
+
+    @Param({"keyword", "naive-bayes"})
+    private String classifierType;
+
+    private ContentClassifier classifier;
+    private String[] prompts;
+    private String longInput;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        classifier = "keyword".equals(classifierType)
+                ? new KeywordContentClassifier()
+                : NaiveBayesContentClassifier.bundled();
+        List<String[]> examples = ClassifierEvaluation.examples();
+        prompts = examples.stream().map(example -> example[1]).toArray(String[]::new);
+        longInput = BenchmarkInputs.text(ContentClassifier.CREATIVE, 10_000);
+    }
+
+    /** Classifies the evaluation prompts round-robin, one per operation. */
+    @Benchmark
+    public String classifyEvaluationPrompt() {
+        String prompt = prompts[next];
+        next = next + 1 == prompts.length ? 0 : next + 1;
+        return classifier.classify(prompt);
+    }
+
+    @Benchmark
+    public String classifyLongInput() {
+        return classifier.classify(longInput);
+    }
+}
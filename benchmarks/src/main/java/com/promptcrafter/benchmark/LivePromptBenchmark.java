@@ -0,0 +1,67 @@
+package com.promptcrafter.benchmark;
+
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.IncrementalPrompt;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of one keystroke in a live-typing client: regenerating the prompt from
+ * the full input, as a client re-posting its text causes, against applying the keystroke
+ * to an {@link IncrementalPrompt} and rendering it. Each invocation types a character in
+ * the middle of the input and deletes it again, so the input size stays constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LivePromptBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int inputSize;
+
+    private PromptServiceImpl promptService;
+    private IncrementalPrompt incrementalPrompt;
+    private PromptRequest typed;
+    private PromptRequest original;
+    private int offset;
+
+    @Setup
+    public void setUp() {
+        String input = BenchmarkInputs.text(ContentClassifier.COMMUNICATION, inputSize);
+        List<String> tones = BenchmarkInputs.tones(3);
+        promptService = new PromptServiceImpl();
+        incrementalPrompt = new IncrementalPrompt(promptService, input, tones);
+        offset = input.length() / 2;
+
+        original = new PromptRequest();
+        original.setInputText(input);
+        original.setSelectedTones(tones);
+        typed = new PromptRequest();
+        typed.setInputText(input.substring(0, offset) + "x" + input.substring(offset));
+        typed.setSelectedTones(tones);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public PromptResponse fullRegeneration() {
+        promptService.generatePrompt(typed);
+        return promptService.generatePrompt(original);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public PromptResponse incrementalEdit() {
+        incrementalPrompt.edit(offset, 0, "x");
+        incrementalPrompt.render();
+        incrementalPrompt.edit(offset, 1, "");
+        return incrementalPrompt.render();
+    }
+}
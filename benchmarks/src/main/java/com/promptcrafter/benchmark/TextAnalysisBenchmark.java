@@ -0,0 +1,55 @@
+package com.promptcrafter.benchmark;
+
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.KeywordContentClassifier;
+import com.promptcrafter.service.impl.PromptTextAnalyzer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the input analysis steps of prompt generation.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar TextAnalysisBenchmark -prof gc}
+ * to also report the allocation rate per operation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextAnalysisBenchmark {
+
+    @Param({"50", "1000", "10000", "100000"})
+    private int inputSize;
+
+    @Param({"technical", "communication", "creative"})
+    private String contentType;
+
+    private String input;
+    private ContentClassifier classifier;
+    private PromptTextAnalyzer analyzer;
+
+    @Setup
+    public void setUp() {
+        input = BenchmarkInputs.text(contentType, inputSize);
+        classifier = new KeywordContentClassifier();
+        analyzer = PromptTextAnalyzer.english();
+    }
+
+    @Benchmark
+    public String determineContentType() {
+        return classifier.classify(input);
+    }
+
+    @Benchmark
+    public String extractTaskFromInput() {
+        return analyzer.extractTask(input);
+    }
+
+    @Benchmark
+    public String extractContextFromInput() {
+        return analyzer.extractContext(input);
+    }
+}
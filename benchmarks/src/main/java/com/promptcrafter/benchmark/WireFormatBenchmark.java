@@ -0,0 +1,84 @@
+package com.promptcrafter.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.promptcrafter.model.BatchItemResult;
+import com.promptcrafter.model.BatchPromptRequest;
+import com.promptcrafter.model.BatchPromptResponse;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.service.impl.PromptServiceImpl;
+import com.promptcrafter.util.ToneIdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the wire formats of the prompt endpoints for service-to-service calls: the cost
+ * of writing a batch response and reading a batch request, and the size of both. JSON sends
+ * tone names; CBOR and Smile send tone ids as the application does, and {@code cbor-names}
+ * shows what CBOR costs without them. The payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final int BATCH_SIZE = 20;
+
+    @Param({"json", "cbor", "cbor-names", "smile"})
+    private String format;
+
+    @Param({"50", "1000"})
+    private int inputSize;
+
+    private ObjectMapper mapper;
+    private BatchPromptResponse response;
+    private byte[] encodedRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().modulesToInstall(new ToneIdModule()).build();
+            case "cbor-names" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().modulesToInstall(new ToneIdModule()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        PromptServiceImpl promptService = new PromptServiceImpl();
+        String[] contentTypes = {ContentClassifier.TECHNICAL, ContentClassifier.COMMUNICATION, ContentClassifier.CREATIVE};
+        List<PromptRequest> requests = new ArrayList<>(BATCH_SIZE);
+        List<BatchItemResult> results = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PromptRequest request = new PromptRequest();
+            request.setInputText(BenchmarkInputs.text(contentTypes[i % contentTypes.length], inputSize));
+            request.setSelectedTones(BenchmarkInputs.tones(1 + i % 5));
+            requests.add(request);
+            results.add(BatchItemResult.builder().index(i).response(promptService.generatePrompt(request)).build());
+        }
+        BatchPromptRequest batchRequest = new BatchPromptRequest();
+        batchRequest.setRequests(requests);
+        response = BatchPromptResponse.builder().results(results).build();
+        encodedRequest = mapper.writeValueAsBytes(batchRequest);
+
+        System.out.printf("%n%s, input size %d: request %d bytes, response %d bytes%n",
+                format, inputSize, encodedRequest.length, mapper.writeValueAsBytes(response).length);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public BatchPromptRequest readRequest() throws IOException {
+        return mapper.readValue(encodedRequest, BatchPromptRequest.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.promptcrafter.service.impl;
+
+import com.promptcrafter.benchmark.BenchmarkInputs;
+import com.promptcrafter.model.PromptRequest;
+import com.promptcrafter.model.PromptResponse;
+import com.promptcrafter.service.ContentClassifier;
+import com.promptcrafter.util.TokenEstimator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks prompt assembly, token estimation and end-to-end prompt generation, with and
+ * without a token budget that forces the prompt to be compacted.
+ * <p>
+ * Lives in the service implementation package to reach the package-private
+ * {@code generateStructuredPrompt}. Run with
+ * {@code java -jar benchmarks/target/benchmarks.jar PromptGenerationBenchmark -prof gc}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromptGenerationBenchmark {
+
+    @Param({"50", "1000", "10000", "100000"})
+    private int inputSize;
+
+    @Param({"technical", "communication", "creative"})
+    private String contentType;
+
+    @Param({"0", "3", "10"})
+    private int toneCount;
+
+    private PromptServiceImpl promptService;
+    private PromptRequest request;
+    private PromptRequest budgetRequest;
+    private String prompt;
+    private TokenEstimator tokenEstimator;
+    private TextAnalysis analysis;
+    private List<String> tones;
+    private boolean applyTones;
+
+    @Setup
+    public void setUp() {
+        String input = BenchmarkInputs.text(contentType, inputSize);
+        tones = BenchmarkInputs.tones(toneCount);
+        promptService = new PromptServiceImpl();
+
+        request = new PromptRequest();
+        request.setInputText(input);
+        request.setSelectedTones(tones);
+
+        analysis = PromptTextAnalyzer.english().analyze(input);
+        applyTones = ContentClassifier.COMMUNICATION.equals(contentType) || analysis.hasToneCue();
+
+        PromptResponse response = promptService.generatePrompt(request);
+        prompt = response.getGeneratedPrompt();
+        tokenEstimator = TokenEstimator.standard();
+        budgetRequest = new PromptRequest();
+        budgetRequest.setInputText(input);
+        budgetRequest.setSelectedTones(tones);
+        budgetRequest.setMaxTokens(Math.max(1, response.getEstimatedTokens() * 3 / 4));
+    }
+
+    @Benchmark
+    public String generateStructuredPrompt() {
+        return promptService.generateStructuredPrompt(analysis, tones, applyTones, contentType);
+    }
+
+    @Benchmark
+    public PromptResponse generatePrompt() {
+        return promptService.generatePrompt(request);
+    }
+
+    @Benchmark
+    public int estimateTokens() {
+        return tokenEstimator.estimate(prompt);
+    }
+
+    @Benchmark
+    public PromptResponse generatePromptWithinBudget() {
+        return promptService.generatePrompt(budgetRequest);
+    }
+}
@@ -9,6 +9,7 @@
 const API_BASE_URL = 'http://localhost:8080/api';
 const ENDPOINTS = {
     GENERATE_PROMPT: `${API_BASE_URL}/prompts/generate`,
+    LIVE_SESSIONS: `${API_BASE_URL}/prompts/live`,
     GET_TONES: `${API_BASE_URL}/tones`,
     GET_TONE_CATEGORIES: `${API_BASE_URL}/tones/categories`
 };
@@ -31,6 +32,21 @@ const elements = {
 let isRecording = false;
 let recognition = null;
 
+// Live preview: the server keeps the session's input and prompt, so only edits are sent
+// and only prompt changes come back over the session's event stream
+const LIVE_DEBOUNCE_MS = 150;
+const live = {
+    sessionId: null,
+    events: null,
+    sentText: '',
+    sentTones: '',
+    version: 0,
+    renderedVersion: -1,
+    prompt: '',
+    inFlight: false,
+    timer: null
+};
+
 /**
  * Initialize the application
  */
@@ -79,6 +95,10 @@ function setupEventListeners() {
     
     // Export button click
     elements.exportBtn.addEventListener('click', exportAsTxt);
+    
+    // Live preview while typing or changing tones
+    elements.inputText.addEventListener('input', scheduleLiveUpdate);
+    $(elements.toneSelect).on('change', scheduleLiveUpdate);
 }
 
 /**
@@ -127,6 +147,7 @@ function setupSpeechRecognition() {
                 } else {
                     elements.inputText.value += ' ' + finalTranscript;
                 }
+                scheduleLiveUpdate();
             }
         };
         
@@ -219,6 +240,175 @@ async function generatePrompt(inputText, selectedTones) {
     return response.json();
 }
 
+/**
+ * Schedule a live preview update once typing pauses briefly
+ */
+function scheduleLiveUpdate() {
+    clearTimeout(live.timer);
+    live.timer = setTimeout(syncLiveSession, LIVE_DEBOUNCE_MS);
+}
+
+/**
+ * Send the changes made since the last sync to the live session, opening one if needed.
+ * Only one request is in flight at a time; changes made meanwhile go out with the next one.
+ */
+async function syncLiveSession() {
+    if (live.inFlight) {
+        return;
+    }
+    const text = elements.inputText.value;
+    const tones = $(elements.toneSelect).val() || [];
+    const tonesKey = tones.join('\n');
+    
+    live.inFlight = true;
+    try {
+        if (!live.sessionId) {
+            if (text.trim() !== '') {
+                await openLiveSession(text, tones);
+            }
+            return;
+        }
+        const edit = textDifference(live.sentText, text);
+        if (!edit && tonesKey === live.sentTones) {
+            return;
+        }
+        const response = await fetch(`${ENDPOINTS.LIVE_SESSIONS}/${live.sessionId}/edits`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({
+                baseVersion: live.version,
+                edits: edit ? [edit] : [],
+                selectedTones: tones
+            })
+        });
+        if (response.status === 404 || response.status === 409) {
+            // The session expired or another client edited it: start over with the full text
+            closeLiveSession();
+            scheduleLiveUpdate();
+            return;
+        }
+        if (!response.ok) {
+            throw new Error(`API error: ${response.status}`);
+        }
+        live.version = (await response.json()).version;
+        live.sentText = text;
+        live.sentTones = tonesKey;
+    } catch (error) {
+        console.warn('Live preview unavailable:', error);
+        closeLiveSession();
+    } finally {
+        live.inFlight = false;
+        if (live.sessionId && (elements.inputText.value !== live.sentText
+                || ($(elements.toneSelect).val() || []).join('\n') !== live.sentTones)) {
+            scheduleLiveUpdate();
+        }
+    }
+}
+
+/**
+ * Open a live session for the current input and subscribe to its prompt updates
+ *
+ * @param {string} text - The full input text
+ * @param {string[]} tones - The selected tones
+ */
+async function openLiveSession(text, tones) {
+    const response = await fetch(ENDPOINTS.LIVE_SESSIONS, {
+        method: 'POST',
+        headers: {
+            'Content-Type': 'application/json'
+        },
+        body: JSON.stringify({ inputText: text, selectedTones: tones })
+    });
+    if (!response.ok) {
+        throw new Error(`API error: ${response.status}`);
+    }
+    const snapshot = await response.json();
+    live.sessionId = snapshot.sessionId;
+    live.version = snapshot.version;
+    live.sentText = text;
+    live.sentTones = tones.join('\n');
+    applyLiveUpdate(snapshot);
+    
+    live.events = new EventSource(`${ENDPOINTS.LIVE_SESSIONS}/${live.sessionId}/events`);
+    live.events.addEventListener('prompt', event => applyLiveUpdate(JSON.parse(event.data)));
+    live.events.onerror = () => {
+        // A closed stream means the session is gone; the next edit opens a new one
+        if (live.events && live.events.readyState === EventSource.CLOSED) {
+            closeLiveSession();
+        }
+    };
+}
+
+/**
+ * Forget the live session and stop listening to it
+ */
+function closeLiveSession() {
+    if (live.events) {
+        live.events.close();
+    }
+    live.sessionId = null;
+    live.events = null;
+    live.sentText = '';
+    live.sentTones = '';
+    live.version = 0;
+    live.renderedVersion = -1;
+}
+
+/**
+ * Apply a prompt update from the live session and show the result
+ *
+ * @param {Object} update - The update, holding the whole prompt or a change to it
+ */
+function applyLiveUpdate(update) {
+    if (update.reset) {
+        live.prompt = update.promptEdit.text;
+    } else if (update.version > live.renderedVersion) {
+        const edit = update.promptEdit;
+        live.prompt = live.prompt.slice(0, edit.offset) + edit.text + live.prompt.slice(edit.offset + edit.deleteCount);
+    } else {
+        return;
+    }
+    live.renderedVersion = update.version;
+    
+    elements.outputSection.style.display = 'block';
+    displayGeneratedPrompt({
+        generatedPrompt: live.prompt,
+        contentType: update.contentType,
+        tonesApplied: update.tonesApplied,
+        appliedTones: update.appliedTones,
+        droppedTones: update.droppedTones
+    });
+}
+
+/**
+ * Find the single replacement that turns one text into another
+ *
+ * @param {string} before - The previous text
+ * @param {string} after - The new text
+ * @returns {Object|null} - The edit, or null if the texts are equal
+ */
+function textDifference(before, after) {
+    if (before === after) {
+        return null;
+    }
+    const limit = Math.min(before.length, after.length);
+    let prefix = 0;
+    while (prefix < limit && before[prefix] === after[prefix]) {
+        prefix++;
+    }
+    let suffix = 0;
+    while (suffix < limit - prefix && before[before.length - 1 - suffix] === after[after.length - 1 - suffix]) {
+        suffix++;
+    }
+    return {
+        offset: prefix,
+        deleteCount: before.length - prefix - suffix,
+        text: after.slice(prefix, after.length - suffix)
+    };
+}
+
 /**
  * Display the generated prompt in the UI
  * 
@@ -239,7 +429,17 @@ function displayGeneratedPrompt(response) {
         metadata.push(` * Applied Tones: ${response.appliedTones.join(', ')}`);
     }
     
-    metadata.push(` * Processing Time: ${response.processingTimeMs}ms`);
+    if (response.droppedTones && response.droppedTones.length > 0) {
+        metadata.push(` * Dropped Tones: ${response.droppedTones.join(', ')}`);
+    }
+    
+    if (response.estimatedTokens) {
+        metadata.push(` * Estimated Tokens: ${response.estimatedTokens}${response.promptCompacted ? ' (compacted)' : ''}`);
+    }
+    
+    if (response.processingTimeMs !== undefined) {
+        metadata.push(` * Processing Time: ${response.processingTimeMs}ms`);
+    }
     metadata.push(' */');
     
     elements.generatedPrompt.textContent += metadata.join('\n');
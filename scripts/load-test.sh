@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+#
+# Compares the web execution modes under load: the default servlet mode on platform
+# threads, servlet on virtual threads (needs Java 21, skipped on older JVMs) and the
+# reactive controller.
+#
+# Usage: scripts/load-test.sh [requests] [concurrency]
+#
+# Uses `hey` (https://github.com/rakyll/hey) when installed and falls back to parallel
+# curl otherwise. Set JAVA to choose the JVM and MODES to run a subset, e.g.
+#   JAVA=/opt/jdk-21/bin/java MODES="servlet virtual" scripts/load-test.sh 20000 200
+#
+# All load comes from one address, so the per-client rate limit is switched off; the
+# global admission limit stays on and shows up as 429s in the results.
+#
+set -euo pipefail
+
+REQUESTS=${1:-10000}
+CONCURRENCY=${2:-100}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-java}
+MODES=${MODES:-"servlet virtual reactive"}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR="$ROOT/backend/target/promptcrafter-0.0.1-SNAPSHOT-exec.jar"
+URL="http://localhost:$PORT/api/prompts/generate"
+BODY='{"inputText":"Write an email to my team announcing the new release because customers asked for it","selectedTones":["Friendly","Clear"]}'
+
+if [[ ! -f "$JAR" ]]; then
+    (cd "$ROOT/backend" && mvn -B -q package -DskipTests)
+fi
+
+java_major() {
+    local major
+    major=$("$JAVA" -version 2>&1 | awk -F'"' '/version/ { split($2, v, "."); print (v[1] == "1" ? v[2] : v[1]); exit }' || true)
+    echo "${major:-0}"
+}
+
+run_load() {
+    if command -v hey > /dev/null; then
+        hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T application/json -d "$BODY" "$URL" \
+            | grep -E "Requests/sec|Average|99% in|Status code|\[[0-9]+\]"
+    else
+        local timings
+        timings=$(mktemp)
+        local start end
+        start=$(date +%s.%N)
+        seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} curl -s -o /dev/null -w "%{time_total} %{http_code}\n" \
+            -X POST -H "Content-Type: application/json" -d "$BODY" "$URL" > "$timings"
+        end=$(date +%s.%N)
+        sort -n "$timings" | awk -v start="$start" -v end="$end" '
+            BEGIN { elapsed = end - start }
+            { t[NR] = $1; sum += $1; if ($2 != 200) errors++ }
+            END {
+                printf "  Requests/sec: %.1f\n", NR / elapsed
+                printf "  Average:      %.4f secs\n", sum / NR
+                printf "  p50:          %.4f secs\n", t[int(NR * 0.50)]
+                printf "  p99:          %.4f secs\n", t[int(NR * 0.99)]
+                printf "  Non-200:      %d\n", errors
+            }'
+        rm -f "$timings"
+    fi
+}
+
+for mode in $MODES; do
+    case "$mode" in
+        servlet)  args=() ;;
+        virtual)
+            if (( $(java_major) < 21 )); then
+                echo "== $mode: skipped, needs Java 21 or later (set JAVA)"
+                continue
+            fi
+            args=(--spring.profiles.active=virtual) ;;
+        reactive) args=(--spring.profiles.active=reactive) ;;
+        *) echo "Unknown mode: $mode" >&2; exit 1 ;;
+    esac
+
+    "$JAVA" -jar "$JAR" --server.port="$PORT" --promptcrafter.cache.enabled=false --promptcrafter.admission.rate-limit-enabled=false ${args[@]+"${args[@]}"} > "/tmp/promptcrafter-$mode.log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2> /dev/null || true' EXIT
+    started=$SECONDS
+    until curl -s -o /dev/null "http://localhost:$PORT/api/prompts/health"; do
+        if ! kill -0 "$pid" 2> /dev/null || (( SECONDS - started > 120 )); then
+            echo "== $mode: not ready, see /tmp/promptcrafter-$mode.log" >&2
+            exit 1
+        fi
+        sleep 0.5
+    done
+
+    # Warm up the JIT before measuring
+    REQUESTS=$((REQUESTS / 5)) run_load > /dev/null
+
+    echo "== $mode ($REQUESTS requests, concurrency $CONCURRENCY)"
+    run_load
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+done
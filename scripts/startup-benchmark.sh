@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+#
+# Compares how fast the application becomes ready in each startup mode:
+#   jar      the executable jar
+#   aot      the executable jar with Spring AOT (needs the startup profile build)
+#   cds      target/startup with the AppCDS archive, without AOT
+#   aot-cds  target/startup with the AppCDS archive and AOT
+#   native   the GraalVM native image (needs mvn -Pnative native:compile)
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#
+# Each run reports the time until the readiness probe answers 200, which includes the
+# warmup, and the latency of the first generate request after that. Set WARMUP=false to
+# start without the warmup, JAVA to choose the JVM and MODES to run a subset, e.g.
+#   WARMUP=false MODES="jar aot-cds" scripts/startup-benchmark.sh 5
+#
+# Modes whose build output is missing are skipped; the startup profile build is made when
+# target/startup does not exist. The runs use an in-memory database, so they neither
+# depend on nor change the history and jobs on disk.
+#
+set -euo pipefail
+
+RUNS=${1:-3}
+PORT=${PORT:-18080}
+JAVA=${JAVA:-java}
+WARMUP=${WARMUP:-true}
+MODES=${MODES:-"jar aot cds aot-cds native"}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TARGET="$ROOT/backend/target"
+JAR="$TARGET/promptcrafter-0.0.1-SNAPSHOT-exec.jar"
+STARTUP="$TARGET/startup"
+NATIVE="$TARGET/promptcrafter"
+MAIN=com.promptcrafter.PromptCrafterApplication
+READY="http://localhost:$PORT/actuator/health/readiness"
+URL="http://localhost:$PORT/api/prompts/generate"
+BODY='{"inputText":"Write an email to my team announcing the new release because customers asked for it","selectedTones":["Friendly","Clear"]}'
+APP_ARGS=(--server.port="$PORT" --spring.datasource.url=jdbc:h2:mem:startup-benchmark
+          --promptcrafter.warmup.enabled="$WARMUP")
+
+if [[ ! -f "$STARTUP/app.jsa" ]]; then
+    (cd "$ROOT/backend" && mvn -B -q -Pstartup package -DskipTests)
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Runs in the background, so it replaces its shell with the application and $! is its pid
+start_mode() {
+    case "$1" in
+        jar)     exec "$JAVA" -jar "$JAR" "${APP_ARGS[@]}" ;;
+        aot)     exec "$JAVA" -Dspring.aot.enabled=true -jar "$JAR" "${APP_ARGS[@]}" ;;
+        cds)     cd "$STARTUP" && exec "$JAVA" -XX:SharedArchiveFile=app.jsa @app.args "$MAIN" "${APP_ARGS[@]}" ;;
+        aot-cds) cd "$STARTUP" && exec "$JAVA" -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \
+                     @app.args "$MAIN" "${APP_ARGS[@]}" ;;
+        native)  exec "$NATIVE" "${APP_ARGS[@]}" ;;
+    esac
+}
+
+for mode in $MODES; do
+    case "$mode" in
+        jar|aot) [[ -f "$JAR" ]] || { echo "== $mode: skipped, $JAR is missing"; continue; } ;;
+        cds|aot-cds) [[ -f "$STARTUP/app.jsa" ]] || { echo "== $mode: skipped, $STARTUP/app.jsa is missing"; continue; } ;;
+        native) [[ -x "$NATIVE" ]] || { echo "== $mode: skipped, build it with mvn -Pnative native:compile"; continue; } ;;
+        *) echo "Unknown mode: $mode" >&2; exit 1 ;;
+    esac
+
+    echo "== $mode (warmup $WARMUP)"
+    for run in $(seq "$RUNS"); do
+        started=$(now_ms)
+        start_mode "$mode" > "/tmp/promptcrafter-startup-$mode.log" 2>&1 &
+        pid=$!
+        trap 'kill $pid 2> /dev/null || true' EXIT
+        until [[ $(curl -s -o /dev/null -w "%{http_code}" "$READY") == 200 ]]; do
+            if ! kill -0 "$pid" 2> /dev/null || (( $(now_ms) - started > 120000 )); then
+                echo "  run $run: not ready, see /tmp/promptcrafter-startup-$mode.log" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        ready=$(( $(now_ms) - started ))
+        first=$(curl -s -o /dev/null -w "%{time_total}" -X POST -H "Content-Type: application/json" -d "$BODY" "$URL")
+        rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+        printf "  run %d: ready in %5d ms, first request %.1f ms, RSS %d MB\n" \
+            "$run" "$ready" "$(awk -v t="$first" 'BEGIN { print t * 1000 }')" $(( rss / 1024 ))
+
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+    done
+done